@@ -1,7 +1,9 @@
 package com.party.backbone.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -20,8 +22,53 @@ public class AsyncConfig {
 		return executor;
 	}
 
+	// 세션별 메시지 전송 전용. 큐에는 세션당 하나의 drain 만 들어가므로 큐는 세션 수를 넘지 않고,
+	// 가득 찼다고 호출한 스레드(집계, 디스패치)가 대신 보내는 일이 없도록 큐 상한을 두지 않는다
+	public static Executor createMessageFanOutExecutor(int threads) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setThreadNamePrefix("MessageFanOut-");
+		executor.initialize();
+		return executor;
+	}
+
 	@Bean
 	public Executor asyncTaskExecutor() {
 		return createDefaultAsyncExecutor();
 	}
+
+	@Bean
+	public Executor messageFanOutExecutor(@Value("${backbone.fan-out.threads:64}") int threads) {
+		return createMessageFanOutExecutor(threads);
+	}
+
+	// 만료된 방 정리를 keyspace notification listener 스레드 밖에서 처리한다
+	@Bean
+	public Executor roomTeardownExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(4);
+		executor.setQueueCapacity(10_000);
+		executor.setThreadNamePrefix("RoomTeardown-");
+		// 큐가 넘칠 정도로 몰릴 때만 호출한 스레드가 직접 정리한다
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	// 여러 방의 라운드 집계를 동시에 처리한다. 방 하나의 집계는 Redis 왕복과 메시지 전송이 대부분이라
+	// 스레드 수가 곧 동시에 집계되는 방 수의 상한이 된다
+	@Bean
+	public Executor roundAggregationExecutor(
+		@Value("${backbone.aggregation.max-concurrent-rooms:8}") int maxConcurrentRooms) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(maxConcurrentRooms);
+		executor.setMaxPoolSize(maxConcurrentRooms);
+		executor.setQueueCapacity(10_000);
+		executor.setThreadNamePrefix("RoundAggregation-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
 }
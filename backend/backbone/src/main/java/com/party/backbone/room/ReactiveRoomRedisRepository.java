@@ -0,0 +1,16 @@
+package com.party.backbone.room;
+
+import com.party.backbone.room.dto.SubmitResult;
+import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
+import com.party.backbone.websocket.model.GameType;
+
+import reactor.core.publisher.Mono;
+
+// 웹소켓 핸들러가 스레드를 막지 않고 조합할 수 있는 hot path 전용 repository
+public interface ReactiveRoomRedisRepository {
+	Mono<SubmitResult> submitScore(String roomCode, String userId, String requestId, GameType gameType, int score);
+
+	Mono<Boolean> hasPlayer(String roomCode, String userId);
+
+	Mono<CheckEndedAckMessage> checkEnded(String roomCode, String userId);
+}
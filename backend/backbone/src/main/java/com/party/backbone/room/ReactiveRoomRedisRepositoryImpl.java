@@ -0,0 +1,127 @@
+package com.party.backbone.room;
+
+import static com.party.backbone.room.RoomRedisRepositoryImpl.*;
+import static com.party.backbone.room.util.RoomKeyUtils.*;
+
+import java.util.List;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import com.party.backbone.room.cache.FinalResultCache;
+import com.party.backbone.room.cache.RoomMetadataCache;
+import com.party.backbone.room.dto.SubmitResult;
+import com.party.backbone.room.model.FinalResultRecord;
+import com.party.backbone.room.model.RoomMetadata;
+import com.party.backbone.room.model.RoomStateTTL;
+import com.party.backbone.room.model.SubmitStatus;
+import com.party.backbone.room.store.PlayerField;
+import com.party.backbone.room.store.PlayerStore;
+import com.party.backbone.room.submit.ScoreWriteBuffer;
+import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
+import com.party.backbone.websocket.model.GameType;
+
+import reactor.core.publisher.Mono;
+
+import lombok.RequiredArgsConstructor;
+
+// blocking 구현과 같은 key, 같은 스크립트를 쓰므로 두 구현을 섞어 써도 결과가 같다
+@RequiredArgsConstructor
+@Repository
+public class ReactiveRoomRedisRepositoryImpl implements ReactiveRoomRedisRepository {
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> CHECK_ENDED_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/check_ended.lua"), List.class);
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final PlayerStore playerStore;
+	private final FinalResultCache finalResultCache;
+	private final ScoreWriteBuffer scoreWriteBuffer;
+	private final RoomMetadataCache roomMetadataCache;
+
+	@Override
+	public Mono<SubmitResult> submitScore(String roomCode, String userId, String requestId, GameType gameType,
+		int score) {
+		// 캐시에 없으면 0 으로 보내고, 스크립트가 돌려준 현재 라운드로 한 번 더 보낸다
+		RoomMetadata metadata = roomMetadataCache.peek(roomCode);
+		return executeSubmit(roomCode, userId, requestId, gameType, score,
+			metadata == null ? 0 : metadata.currentRound())
+			.flatMap(result -> result.status() == SubmitStatus.ROUND_CHANGED
+				? executeSubmit(roomCode, userId, requestId, gameType, score, result.round())
+				: Mono.just(result))
+			.map(RoomRedisRepositoryImpl::settleRoundChanged)
+			.doOnNext(result -> {
+				if (result.status() == SubmitStatus.ACCEPTED && scoreWriteBuffer.isEnabled()) {
+					scoreWriteBuffer.add(roomCode, result.round(), userId, score,
+						applyRoundMultiplier(score, result.round()));
+				}
+			});
+	}
+
+	private Mono<SubmitResult> executeSubmit(String roomCode, String userId, String requestId, GameType gameType,
+		int score, int round) {
+		return execute(SUBMIT_SCRIPT, submitScriptKeys(playerStore, roomCode, userId, requestId, round),
+			submitScriptArgs(playerStore, scoreWriteBuffer, userId, requestId, gameType, score, round))
+			.map(RoomRedisRepositoryImpl::toSubmitResult);
+	}
+
+	@Override
+	public Mono<Boolean> hasPlayer(String roomCode, String userId) {
+		return redisTemplate.opsForSet().isMember(getPlayerIdsKey(roomCode), userId);
+	}
+
+	@Override
+	public Mono<CheckEndedAckMessage> checkEnded(String roomCode, String userId) {
+		FinalResultRecord cached = finalResultCache.get(roomCode, userId);
+		if (cached != null) {
+			return Mono.just(cached.toAckMessage());
+		}
+
+		List<String> keys = List.of(
+			getFinalResultsKey(roomCode),
+			getRoomKey(roomCode),
+			playerStore.getHashKey(roomCode, userId, PlayerField.RANK_RECORD),
+			playerStore.getHashKey(roomCode, userId, PlayerField.SCORE),
+			playerStore.getHashKey(roomCode, userId, PlayerField.FINAL_RANK),
+			getPlayerIdsKey(roomCode)
+		);
+		List<String> args = List.of(
+			userId,
+			playerStore.getHashField(userId, PlayerField.RANK_RECORD),
+			playerStore.getHashField(userId, PlayerField.SCORE),
+			playerStore.getHashField(userId, PlayerField.FINAL_RANK));
+
+		return execute(CHECK_ENDED_SCRIPT, keys, args)
+			.handle((result, sink) -> {
+				String encoded = String.valueOf(result.get(0));
+				if (!encoded.isEmpty()) {
+					FinalResultRecord finalResult = FinalResultRecord.decode(encoded);
+					finalResultCache.put(roomCode, userId, finalResult);
+					sink.next(finalResult.toAckMessage());
+					return;
+				}
+				if (result.size() == 1) {
+					sink.error(unknownPlayer(roomCode, userId));
+					return;
+				}
+				String finalRank = String.valueOf(result.get(4));
+				sink.next(new CheckEndedAckMessage(
+					RoomStateTTL.ENDED.name().equals(String.valueOf(result.get(1))),
+					String.valueOf(result.get(2)),
+					Integer.parseInt(String.valueOf(result.get(3))),
+					finalRank.isEmpty() ? null : Integer.valueOf(finalRank),
+					((Number)result.get(5)).intValue()));
+			});
+	}
+
+	// 드라이버에 따라 multi-bulk 응답이 원소 단위로 풀려서 오거나 리스트 하나로 오므로 둘 다 리스트로 맞춘다
+	@SuppressWarnings("rawtypes")
+	private Mono<List<?>> execute(RedisScript<List> script, List<String> keys, List<String> args) {
+		return redisTemplate.execute(script, keys, args)
+			.cast(Object.class)
+			.collectList()
+			.<List<?>>map(emitted -> emitted.size() == 1 && emitted.get(0) instanceof List<?> list ? list : emitted);
+	}
+}
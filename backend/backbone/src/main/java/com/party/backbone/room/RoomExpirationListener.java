@@ -1,12 +1,15 @@
 package com.party.backbone.room;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.listener.KeyExpirationEventMessageListener;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Component;
 
+import com.party.backbone.room.util.RoomKeyUtils;
 import com.party.backbone.websocket.handler.SessionRegistry;
 
 import lombok.extern.slf4j.Slf4j;
@@ -17,20 +20,31 @@ public class RoomExpirationListener extends KeyExpirationEventMessageListener {
 
 	private final RoomRedisRepository roomRepository;
 	private final SessionRegistry sessionRegistry;
+	private final Executor roomTeardownExecutor;
 
 	public RoomExpirationListener(RedisMessageListenerContainer listenerContainer,
-		RoomRedisRepository roomRepository, SessionRegistry sessionRegistry) {
+		RoomRedisRepository roomRepository, SessionRegistry sessionRegistry,
+		@Qualifier("roomTeardownExecutor") Executor roomTeardownExecutor) {
 		super(listenerContainer);
 		this.roomRepository = roomRepository;
 		this.sessionRegistry = sessionRegistry;
+		this.roomTeardownExecutor = roomTeardownExecutor;
 	}
 
 	@Override
 	public void onMessage(Message message, byte[] pattern) {
 		String expiredKey = message.toString();
-		if (expiredKey.startsWith("room:")) {
-			log.info("[RoomExpiration] room {} is expired and delete job is starting", expiredKey);
-			String roomCode = expiredKey.split(":")[1];
+		// 방 hash 가 만료될 때만 정리한다. playerIds 처럼 방에 딸린 key 의 만료는 무시
+		String roomCode = RoomKeyUtils.parseRoomCode(expiredKey);
+		if (roomCode != null) {
+			// 한꺼번에 많은 방이 만료돼도 listener 스레드가 막히지 않도록 정리는 별도 executor 에서 한다
+			roomTeardownExecutor.execute(() -> teardown(roomCode));
+		}
+	}
+
+	private void teardown(String roomCode) {
+		try {
+			log.info("[RoomExpiration] room {} is expired and delete job is starting", roomCode);
 			String administratorId = roomRepository.getAdministratorIdOfRoom(roomCode);
 			sessionRegistry.closeSession(administratorId);
 			sessionRegistry.unregister(administratorId);
@@ -38,6 +52,8 @@ public class RoomExpirationListener extends KeyExpirationEventMessageListener {
 			sessionRegistry.closeSessionAll(userIds);
 			sessionRegistry.unregisterAll(userIds);
 			roomRepository.deleteRoom(roomCode);
+		} catch (Exception e) {
+			log.error("[RoomExpiration] failed to tear down room {}", roomCode, e);
 		}
 	}
-}
\ No newline at end of file
+}
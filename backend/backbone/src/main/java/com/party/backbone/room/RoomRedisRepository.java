@@ -1,10 +1,12 @@
 package com.party.backbone.room;
 
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
+import com.party.backbone.room.dto.AggregationClaim;
 import com.party.backbone.room.dto.RoundInfo;
 import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.dto.SubmitResult;
 import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
 import com.party.backbone.websocket.model.GameType;
 import com.party.backbone.websocket.model.RankingInfo;
@@ -32,18 +34,49 @@ public interface RoomRedisRepository {
 
 	void updateScore(String roomCode, String userId, int score);
 
-	Set<String> getDueRooms(long currentTimeMillis, int limit);
+	SubmitResult submitScore(String roomCode, String userId, String requestId, GameType gameType, int score);
 
-	boolean removeRoomFromPending(String roomCode);
+	void flushBufferedScores(String roomCode);
 
-	ScoreAggregationResult aggregateScores(String roomCode);
+	// shard 의 집계 대기 방 -> endAt. endAt 오름차순
+	Map<String, Long> getDueRooms(int shard, long currentTimeMillis, int limit);
+
+	// 집계 기한(now)이 된 방을 pending 에서 꺼내 leaseUntil 까지 lease 로 잡는다
+	// return 이번 라운드의 시도 횟수와 집계할 라운드. 꺼낼 수 없으면 NONE
+	AggregationClaim claimAggregation(String roomCode, long now, long leaseUntil);
+
+	// 아직 pending 인 방의 집계 기한을 dueAt 으로 앞당긴다. 앞당겼으면 true
+	boolean expediteAggregation(String roomCode, long dueAt);
+
+	// 아래 셋은 attempt 번째 시도가 아직 lease 를 갖고 있을 때만 반영하고 true 를 반환한다
+	boolean completeAggregation(String roomCode, int attempt);
+
+	boolean retryAggregation(String roomCode, int attempt, long retryAt);
+
+	boolean deadLetterAggregation(String roomCode, int attempt);
+
+	// lease 가 만료된 방을 pending 으로 되돌리고 그 목록을 반환한다
+	List<String> requeueExpiredAggregations(int shard, long now);
+
+	default ScoreAggregationResult aggregateScores(String roomCode) {
+		return aggregateScores(roomCode, 0);
+	}
+
+	// expectedRound 는 claim 한 라운드. 그 사이 다음 라운드가 시작됐으면 아무것도 바꾸지 않고 null 을 반환한다
+	ScoreAggregationResult aggregateScores(String roomCode, int expectedRound);
 
 	String updateRankRecord(String roomCode, String userId, int roundRank);
 
+	Map<String, String> appendRankRecords(String roomCode, Map<String, Integer> roundRanks);
+
 	GameType getGame(String roomCode, int round);
 
 	List<RankingInfo> getFinalResults(String roomCode);
 
+	List<RankingInfo> getOverallTopK(String roomCode, int k);
+
+	Integer getOverallRank(String roomCode, String userId);
+
 	void endGame(String roomCode);
 
 	Boolean hasPlayer(String roomCode, String userId);
@@ -1,26 +1,47 @@
 package com.party.backbone.room;
 
+import static com.party.backbone.room.util.RedisPipelineUtils.*;
+import static com.party.backbone.room.util.RoomKeyUtils.*;
+
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
-import com.party.backbone.room.dto.FinalResult;
+import com.party.backbone.room.cache.FinalResultCache;
+import com.party.backbone.room.cache.RoomMetadataCache;
+import com.party.backbone.room.code.RoomCodeAllocator;
+import com.party.backbone.room.dto.AggregationClaim;
 import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.room.dto.ScoreIncrement;
 import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.dto.SubmitResult;
+import com.party.backbone.room.model.FinalResultRecord;
+import com.party.backbone.room.model.RoomMetadata;
 import com.party.backbone.room.model.RoomStateTTL;
+import com.party.backbone.room.model.SubmitStatus;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.room.store.PlayerField;
+import com.party.backbone.room.store.PlayerStore;
+import com.party.backbone.room.submit.ScoreWriteBuffer;
+import com.party.backbone.room.submit.SubmitStream;
 import com.party.backbone.room.util.RankingUtils;
+import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
 import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
 import com.party.backbone.websocket.model.GameType;
 import com.party.backbone.websocket.model.RankingInfo;
@@ -31,12 +52,42 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 @Repository
+@ConditionalOnProperty(name = "backbone.room.engine", havingValue = "redis", matchIfMissing = true)
 public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 	private final Duration PLAYER_BASE_TTL = Duration.ofHours(2);
 	// 룰렛, 설명, 카운트 다운 포함 대략 25초로 설정
 	public static final long DEFAULT_GAME_START_OFFSET = 25_000;
-	private static final String PENDING_AGGREGATION_KEY = "pendingAggregationRooms";
+	// 한 번의 UNLINK 에 넘기는 최대 key 수
+	private static final int UNLINK_BATCH_SIZE = 100;
+	// rankRecord 갱신 스크립트 한 번에 처리할 최대 플레이어 수. 스크립트가 Redis 를 오래 붙잡지 않게 나눈다
+	private static final int RANK_RECORD_BATCH_SIZE = 1_000;
 	private static final double[] ROUND_MULTIPLIERS = new double[21];
+	// EVALSHA로 호출되고, 스크립트 캐시에 없으면 EVAL로 한 번 적재된다
+	@SuppressWarnings("rawtypes")
+	static final RedisScript<List> SUBMIT_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/submit.lua"), List.class);
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> APPEND_RANK_RECORDS_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/append_rank_records.lua"), List.class);
+	private static final RedisScript<Long> OVERALL_RANK_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/overall_rank.lua"), Long.class);
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> CLAIM_AGGREGATION_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/claim_aggregation.lua"), List.class);
+	private static final RedisScript<Long> SCHEDULE_AGGREGATION_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/schedule_aggregation.lua"), Long.class);
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> BEGIN_AGGREGATION_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/begin_aggregation.lua"), List.class);
+	private static final RedisScript<Long> EXPEDITE_AGGREGATION_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/expedite_aggregation.lua"), Long.class);
+	private static final RedisScript<Long> FINISH_AGGREGATION_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/finish_aggregation.lua"), Long.class);
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> REQUEUE_EXPIRED_AGGREGATIONS_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/requeue_expired_aggregations.lua"), List.class);
+	// 한 번에 pending 으로 되돌릴 최대 방 수
+	private static final int REQUEUE_BATCH_SIZE = 1_000;
 
 	static {
 		for (int i = 1; i < ROUND_MULTIPLIERS.length; i++) {
@@ -45,6 +96,13 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 	}
 
 	private final RedisTemplate<String, String> redisTemplate;
+	private final PlayerStore playerStore;
+	private final RoomMetadataCache roomMetadataCache;
+	private final FinalResultCache finalResultCache;
+	private final ScoreWriteBuffer scoreWriteBuffer;
+	private final RoomCodeAllocator roomCodeAllocator;
+	private final SubmitStream submitStream;
+	private final AggregationShards aggregationShards;
 
 	@Override
 	public void createRoom(String roomCode, String administratorId) {
@@ -58,52 +116,47 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 		roomData.put("userCount", "0");
 
 		redisTemplate.opsForHash().putAll(key, roomData);
-		redisTemplate.opsForValue().set(key + ":administratorId", administratorId);
+		redisTemplate.opsForValue().set(getAdministratorIdKey(roomCode), administratorId);
+		registerKeys(redisTemplate, roomCode, List.of(key, getAdministratorIdKey(roomCode)));
 		log.info("[createRoom] room {} created", roomCode);
 		redisTemplate.expire(key, RoomStateTTL.CREATED.getTtl());
+		publishMetadataChange(roomCode);
 	}
 
 	public String generateUniqueRoomCode() {
-		String code;
-		int maxAttempts = 10;
-
-		for (int i = 0; i < maxAttempts; i++) {
-			code = String.format("%06d", ThreadLocalRandom.current().nextInt(0, 1_000_000));
-			if (!redisTemplate.hasKey(getRoomKey(code))) {
-				return code;
-			}
-		}
-
-		throw new IllegalStateException("Unable to generate unique room code after " + maxAttempts + " attempts");
+		return roomCodeAllocator.allocate();
 	}
 
 	@Override
 	public void deleteRoom(String roomCode) {
-		// 해당 key 없어도 예외 발생하지 않음
-		List<String> keysToDelete = new ArrayList<>();
+		String registryKey = getKeyRegistryKey(roomCode);
+		Set<String> keysToDelete = new HashSet<>(
+			Optional.ofNullable(redisTemplate.opsForSet().members(registryKey)).orElse(Set.of()));
+		if (keysToDelete.isEmpty()) {
+			// registry 가 없는 방(registry 도입 전에 만들어졌거나 registry 가 먼저 만료된 방)은 key 를 직접 찾는다
+			keysToDelete.addAll(discoverKeys(roomCode));
+		}
 		keysToDelete.add(getRoomKey(roomCode));
 		keysToDelete.add(getPlayerIdsKey(roomCode));
 		keysToDelete.add(getAdministratorIdKey(roomCode));
 		keysToDelete.add(getGamesKey(roomCode));
-
-		int totalRound = Optional.ofNullable(redisTemplate.opsForList().size(getGamesKey(roomCode)))
-			.map(Long::intValue)
-			.orElse(0);
-
-		for (int round = 1; round <= totalRound; round++) {
-			keysToDelete.add(getRoundScoreKey(roomCode, round));
+		keysToDelete.add(getLeaderboardKey(roomCode));
+		keysToDelete.add(getFinalResultsKey(roomCode));
+		keysToDelete.add(getSequencesKey(roomCode));
+
+		// UNLINK 는 메모리 해제를 백그라운드 스레드로 넘기고, 배치로 나눠 한 명령이 오래 붙잡지 않게 한다
+		List<String> keys = new ArrayList<>(keysToDelete);
+		for (int from = 0; from < keys.size(); from += UNLINK_BATCH_SIZE) {
+			redisTemplate.unlink(keys.subList(from, Math.min(from + UNLINK_BATCH_SIZE, keys.size())));
 		}
-
-		String playerIdsKey = getPlayerIdsKey(roomCode);
-		Set<String> playerIds = redisTemplate.opsForSet().members(playerIdsKey);
-
-		if (playerIds != null && !playerIds.isEmpty()) {
-			for (String userId : playerIds) {
-				keysToDelete.add(getPlayerKey(roomCode, userId));
-			}
-		}
-
-		redisTemplate.delete(keysToDelete);
+		// registry 는 마지막에 지워 도중에 실패해도 다시 정리할 수 있게 한다
+		redisTemplate.unlink(registryKey);
+		log.info("[deleteRoom] room {} unlinked {} keys", roomCode, keys.size());
+
+		roomMetadataCache.invalidate(roomCode, RoomMetadataCache.DELETED_VERSION);
+		finalResultCache.remove(roomCode);
+		scoreWriteBuffer.remove(roomCode);
+		roomCodeAllocator.release(roomCode);
 	}
 
 	@Override
@@ -111,10 +164,14 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 		String roomKey = getRoomKey(roomCode);
 		redisTemplate.opsForHash().put(roomKey, "totalRound", String.valueOf(totalRound));
 		redisTemplate.opsForHash().put(roomKey, "currentRound", String.valueOf(1));
+		redisTemplate.opsForHash().delete(roomKey, "startedRound");
+		redisTemplate.delete(getRankRecordRoundsKey(roomCode));
 		redisTemplate.opsForHash().put(roomKey, "state", RoomStateTTL.WAITING.name());
 		redisTemplate.expire(roomKey, RoomStateTTL.WAITING.getTtl());
 		List<String> values = games.stream().map(Enum::name).toList();
 		redisTemplate.opsForList().rightPushAll(getGamesKey(roomCode), values);
+		registerKeys(redisTemplate, roomCode, List.of(getGamesKey(roomCode)));
+		publishMetadataChange(roomCode);
 	}
 
 	@Override
@@ -137,16 +194,25 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 		long duration = gameType.getDuration();
 		long endAt = startAt + duration;
 
-		redisTemplate.opsForHash().put(roomKey, "state", RoomStateTTL.PLAYING.name());
+		redisTemplate.opsForHash().putAll(roomKey, Map.of(
+			"state", RoomStateTTL.PLAYING.name(),
+			// 집계가 재시도될 때 어느 라운드를 집계하던 중이었는지 알 수 있게 남긴다
+			"startedRound", String.valueOf(currentRound)));
 		redisTemplate.expire(roomKey, RoomStateTTL.PLAYING.getTtl());
-		redisTemplate.opsForZSet().add(PENDING_AGGREGATION_KEY, roomCode, endAt);
+		int shard = aggregationShards.shardOf(roomCode);
+		redisTemplate.execute(SCHEDULE_AGGREGATION_SCRIPT,
+			List.of(aggregationShards.getPendingKey(shard), aggregationShards.getLeaseKey(shard),
+				aggregationShards.getAttemptsKey(shard)),
+			roomCode, String.valueOf(endAt), String.valueOf(currentRound));
+		registerKeys(redisTemplate, roomCode,
+			List.of(getRoundScoreKey(roomCode, currentRound), getRoundSubmittedKey(roomCode, currentRound)));
+		publishMetadataChange(roomCode);
 
 		return new RoundInfo(gameType, startAt, duration, currentMs);
 	}
 
 	@Override
 	public void updateScore(String roomCode, String userId, int score) {
-		String playerKey = getPlayerKey(roomCode, userId);
 		String roomKey = getRoomKey(roomCode);
 
 		Object stateObj = redisTemplate.opsForHash().get(roomKey, "state");
@@ -161,38 +227,162 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 			return;
 		}
 		int currentRound = Integer.parseInt(roundObj.toString());
-		;
-		redisTemplate.opsForHash()
-			.increment(playerKey, "score", (int)Math.round(score * ROUND_MULTIPLIERS[currentRound]));
+		if (scoreWriteBuffer.isEnabled()) {
+			scoreWriteBuffer.add(roomCode, currentRound, userId, score, applyRoundMultiplier(score, currentRound));
+			return;
+		}
+		int weightedScore = applyRoundMultiplier(score, currentRound);
+		playerStore.incrementScore(roomCode, userId, weightedScore);
+		redisTemplate.opsForZSet().incrementScore(getLeaderboardKey(roomCode), userId, weightedScore);
 
 		String roundScoreKey = getRoundScoreKey(roomCode, currentRound);
 		redisTemplate.opsForZSet().incrementScore(roundScoreKey, userId, score);
 	}
 
 	@Override
-	public boolean exists(String roomCode) {
-		return redisTemplate.hasKey("room:" + roomCode);
+	public SubmitResult submitScore(String roomCode, String userId, String requestId, GameType gameType, int score) {
+		if (submitStream.isEnabled()) {
+			return appendToStream(roomCode, userId, requestId, gameType, score);
+		}
+		RoomMetadata metadata = getMetadata(roomCode);
+		SubmitResult result = executeSubmit(roomCode, userId, requestId, gameType, score,
+			metadata == null ? 0 : metadata.currentRound());
+		if (result.status() == SubmitStatus.ROUND_CHANGED) {
+			// near-cache 의 라운드가 뒤처졌으면 스크립트가 알려준 현재 라운드로 한 번 더 보낸다
+			result = executeSubmit(roomCode, userId, requestId, gameType, score, result.round());
+		}
+		result = settleRoundChanged(result);
+		if (result.status() == SubmitStatus.ACCEPTED && scoreWriteBuffer.isEnabled()) {
+			scoreWriteBuffer.add(roomCode, result.round(), userId, score,
+				applyRoundMultiplier(score, result.round()));
+		}
+		return result;
 	}
 
-	@Override
-	public void addPlayer(String roomCode, String userId, String nickname) {
-		String playerKey = getPlayerKey(roomCode, userId);
-		String playerIdsKey = getPlayerIdsKey(roomCode);
+	private SubmitResult executeSubmit(String roomCode, String userId, String requestId, GameType gameType,
+		int score, int round) {
+		List<?> result = redisTemplate.execute(SUBMIT_SCRIPT,
+			submitScriptKeys(playerStore, roomCode, userId, requestId, round),
+			submitScriptArgs(playerStore, scoreWriteBuffer, userId, requestId, gameType, score, round).toArray());
+		Objects.requireNonNull(result, "[submitScore] empty script result");
+		return toSubmitResult(result);
+	}
 
-		Map<String, String> playerData = Map.of(
-			"userId", userId,
-			"nickname", nickname,
-			"score", "0",
-			"rankRecord", ""
+	// submit.lua 의 KEYS. 라운드 key 는 round 로 만들고, 스크립트가 현재 라운드와 같은지 확인한다
+	static List<String> submitScriptKeys(PlayerStore playerStore, String roomCode, String userId, String requestId,
+		int round) {
+		return List.of(
+			// requestId 가 없으면(sequence 로 중복을 거른 경우) key 는 slot 을 맞추는 용도로만 쓴다
+			getIdempotencyKey(roomCode, requestId == null ? "" : requestId),
+			getRoomKey(roomCode),
+			getPlayerIdsKey(roomCode),
+			getGamesKey(roomCode),
+			playerStore.getHashKey(roomCode, userId, PlayerField.SCORE),
+			getLeaderboardKey(roomCode),
+			getRoundScoreKey(roomCode, round),
+			getRoundSubmittedKey(roomCode, round)
 		);
+	}
+
+	static List<String> submitScriptArgs(PlayerStore playerStore, ScoreWriteBuffer scoreWriteBuffer, String userId,
+		String requestId, GameType gameType, int score, int round) {
+		return List.of(
+			userId, gameType.name(), String.valueOf(score),
+			String.valueOf(IdempotencyRedisRepository.IDEMPOTENCY_TTL.toSeconds()),
+			playerStore.getHashField(userId, PlayerField.SCORE),
+			scoreWriteBuffer.isEnabled() ? "0" : "1",
+			requestId == null ? "0" : "1",
+			String.valueOf(round));
+	}
+
+	// 방에 기록이 없는 userId 로 CHECK_ENDED 를 조회했을 때. reactive 경로와 in-memory 엔진도 같은 예외를 쓴다
+	public static IllegalArgumentException unknownPlayer(String roomCode, String userId) {
+		return new IllegalArgumentException("[checkEnded] No player record for userId : " + userId
+			+ " in room : " + roomCode);
+	}
+
+	static SubmitResult toSubmitResult(List<?> result) {
+		return new SubmitResult(SubmitStatus.fromCode(((Number)result.get(0)).intValue()),
+			((Number)result.get(1)).intValue(), ((Number)result.get(2)).intValue() == 1);
+	}
 
-		redisTemplate.opsForHash().putAll(playerKey, playerData);
-		redisTemplate.expire(playerKey, PLAYER_BASE_TTL);
+	// 다시 보내는 사이에 라운드가 또 넘어갔으면 이미 끝난 라운드의 제출이다
+	static SubmitResult settleRoundChanged(SubmitResult result) {
+		return result.status() == SubmitStatus.ROUND_CHANGED
+			? new SubmitResult(SubmitStatus.NOT_PLAYING, result.round())
+			: result;
+	}
 
-		redisTemplate.opsForSet().add(playerIdsKey, userId);
-		redisTemplate.expire(playerIdsKey, PLAYER_BASE_TTL);
+	// near-cache 의 메타데이터로 라운드/상태만 확인하고 적재한다
+	// 참가자 여부와 중복은 worker 의 스크립트가 반영 직전에 거른다
+	private SubmitResult appendToStream(String roomCode, String userId, String requestId, GameType gameType,
+		int score) {
+		RoomMetadata metadata = getMetadata(roomCode);
+		if (metadata == null) {
+			return new SubmitResult(SubmitStatus.NOT_PLAYER, 0);
+		}
+		int round = metadata.currentRound();
+		if (round < 1 || round > metadata.games().size()) {
+			return new SubmitResult(SubmitStatus.NOT_PLAYING, round);
+		}
+		if (metadata.games().get(round - 1) != gameType) {
+			return new SubmitResult(SubmitStatus.GAME_MISMATCH, round);
+		}
+		if (!RoomStateTTL.PLAYING.name().equals(metadata.state())) {
+			return new SubmitResult(SubmitStatus.NOT_PLAYING, round);
+		}
+		submitStream.append(roomCode, userId, requestId, round, gameType, score);
+		return new SubmitResult(SubmitStatus.ACCEPTED, round);
+	}
+
+	@Override
+	public void flushBufferedScores(String roomCode) {
+		List<ScoreIncrement> increments = scoreWriteBuffer.drain(roomCode);
+		if (increments.isEmpty()) {
+			return;
+		}
+		try {
+			pipelined(redisTemplate, operations -> {
+				for (ScoreIncrement increment : increments) {
+					String userId = increment.userId();
+					operations.opsForHash().increment(playerStore.getHashKey(roomCode, userId, PlayerField.SCORE),
+						playerStore.getHashField(userId, PlayerField.SCORE), increment.weightedScore());
+					operations.opsForZSet().incrementScore(getLeaderboardKey(roomCode), userId,
+						increment.weightedScore());
+					operations.opsForZSet().incrementScore(getRoundScoreKey(roomCode, increment.round()), userId,
+						increment.roundScore());
+				}
+			});
+		} catch (RuntimeException e) {
+			scoreWriteBuffer.restore(roomCode, increments);
+			throw e;
+		}
+		log.debug("[flushBufferedScores] room {} flushed {} buffered increments", roomCode, increments.size());
+	}
 
-		redisTemplate.opsForHash().increment(getRoomKey(roomCode), "userCount", 1);
+	@Override
+	public boolean exists(String roomCode) {
+		return redisTemplate.hasKey(getRoomKey(roomCode));
+	}
+
+	@Override
+	public void addPlayer(String roomCode, String userId, String nickname) {
+		String playerIdsKey = getPlayerIdsKey(roomCode);
+		String leaderboardKey = getLeaderboardKey(roomCode);
+		playerStore.addPlayer(roomCode, userId, nickname);
+
+		List<String> playerKeys = new ArrayList<>(playerStore.getKeys(roomCode, List.of(userId)));
+		playerKeys.add(playerIdsKey);
+		playerKeys.add(leaderboardKey);
+		pipelined(redisTemplate, operations -> {
+			operations.opsForSet().add(playerIdsKey, userId);
+			operations.expire(playerIdsKey, PLAYER_BASE_TTL);
+			// 재입장 시 누적 점수를 덮어쓰지 않도록 없을 때만 0점으로 넣는다
+			operations.opsForZSet().addIfAbsent(leaderboardKey, userId, 0);
+			operations.expire(leaderboardKey, PLAYER_BASE_TTL);
+			operations.opsForHash().increment(getRoomKey(roomCode), "userCount", 1);
+			registerKeys(operations, roomCode, playerKeys);
+		});
 	}
 
 	@Override
@@ -202,34 +392,41 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 
 	@Override
 	public Boolean validateSubmit(String roomCode, GameType gameType) {
-		String roomKey = getRoomKey(roomCode);
-		int currentRound = Integer.parseInt(
-			Objects.requireNonNull(redisTemplate.opsForHash().get(roomKey, "currentRound")).toString()
-		);
-		String gameTypeName = redisTemplate.opsForList().index(getGamesKey(roomCode), currentRound - 1);
-		return Objects.requireNonNull(gameTypeName).equals(gameType.name());
+		RoomMetadata metadata = Objects.requireNonNull(getMetadata(roomCode));
+		return metadata.games().get(metadata.currentRound() - 1) == gameType;
 	}
 
 	@Override
 	public CheckEndedAckMessage checkEnded(String roomCode, String userId) {
-		String roomKey = getRoomKey(roomCode);
-		Boolean isEnded = RoomStateTTL.ENDED.name().equals(redisTemplate.opsForHash().get(roomKey, "state"));
+		FinalResultRecord cached = finalResultCache.get(roomCode, userId);
+		if (cached != null) {
+			return cached.toAckMessage();
+		}
 
-		String playerKey = getPlayerKey(roomCode, userId);
-		String rankRecord = Objects.requireNonNull(
-			redisTemplate.opsForHash().get(playerKey, "rankRecord")).toString();
-		Object scoreObj = Objects.requireNonNull(
-			redisTemplate.opsForHash().get(playerKey, "score")
-		);
-		int totalScore = Integer.parseInt(scoreObj.toString());
+		RoomMetadata metadata = getMetadata(roomCode);
+		Boolean isEnded = metadata != null && RoomStateTTL.ENDED.name().equals(metadata.state());
+		if (isEnded) {
+			// 다른 인스턴스에서 종료된 방이면 고정된 결과를 한 번 읽어 메모리에 올린다
+			Object encoded = redisTemplate.opsForHash().get(getFinalResultsKey(roomCode), userId);
+			if (encoded != null) {
+				FinalResultRecord finalResult = FinalResultRecord.decode(encoded.toString());
+				finalResultCache.put(roomCode, userId, finalResult);
+				return finalResult.toAckMessage();
+			}
+		}
 
-		Integer finalRank = Optional.ofNullable(
-				redisTemplate.opsForHash().get(playerKey, "finalRank")
-			).map(Object::toString)
+		Map<PlayerField, String> playerFields = playerStore.getFields(roomCode, List.of(userId),
+			PlayerField.RANK_RECORD, PlayerField.SCORE, PlayerField.FINAL_RANK).get(userId);
+		if (playerFields.get(PlayerField.RANK_RECORD) == null || playerFields.get(PlayerField.SCORE) == null) {
+			throw unknownPlayer(roomCode, userId);
+		}
+		String rankRecord = playerFields.get(PlayerField.RANK_RECORD);
+		int totalScore = Integer.parseInt(playerFields.get(PlayerField.SCORE));
+
+		Integer finalRank = Optional.ofNullable(playerFields.get(PlayerField.FINAL_RANK))
 			.map(Integer::valueOf)
 			.orElse(null);
 
-		;
 		int totalPlayerCount = Objects.requireNonNull(redisTemplate.opsForSet().size(getPlayerIdsKey(roomCode)))
 			.intValue();
 
@@ -237,83 +434,167 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 	}
 
 	@Override
-	public Set<String> getDueRooms(long currentTimeMillis, int limit) {
+	public Map<String, Long> getDueRooms(int shard, long currentTimeMillis, int limit) {
 		var rooms = redisTemplate.opsForZSet()
-			.rangeByScoreWithScores(PENDING_AGGREGATION_KEY, 0, currentTimeMillis, 0, limit);
+			.rangeByScoreWithScores(aggregationShards.getPendingKey(shard), 0, currentTimeMillis, 0, limit);
 		if (rooms == null || rooms.isEmpty()) {
-			return Set.of();
+			return Map.of();
+		}
+		// endAt 이 이른 방부터 처리되도록 순서를 유지한다
+		Map<String, Long> dueRooms = new LinkedHashMap<>();
+		for (ZSetOperations.TypedTuple<String> room : rooms) {
+			dueRooms.put(room.getValue(), Objects.requireNonNull(room.getScore()).longValue());
 		}
-		return rooms.stream().map(ZSetOperations.TypedTuple::getValue).collect(Collectors.toSet());
+		return dueRooms;
 	}
 
 	@Override
-	public boolean removeRoomFromPending(String roomCode) {
-		Long removedCount = redisTemplate.opsForZSet().remove(PENDING_AGGREGATION_KEY, roomCode);
-		boolean success = removedCount != null && removedCount > 0;
-		if (!success) {
-			log.warn("[RoomRedis] Failed to remove {} from pending aggregation list (already removed or not found).",
-				roomCode);
+	public AggregationClaim claimAggregation(String roomCode, long now, long leaseUntil) {
+		int shard = aggregationShards.shardOf(roomCode);
+		List<?> claim = redisTemplate.execute(CLAIM_AGGREGATION_SCRIPT,
+			List.of(aggregationShards.getPendingKey(shard), aggregationShards.getLeaseKey(shard),
+				aggregationShards.getAttemptsKey(shard)),
+			roomCode, String.valueOf(now), String.valueOf(leaseUntil));
+		if (claim == null || ((Number)claim.get(0)).intValue() == 0) {
+			return AggregationClaim.NONE;
 		}
-		return success;
+		return new AggregationClaim(((Number)claim.get(0)).intValue(), ((Number)claim.get(1)).intValue());
+	}
+
+	@Override
+	public boolean expediteAggregation(String roomCode, long dueAt) {
+		Long expedited = redisTemplate.execute(EXPEDITE_AGGREGATION_SCRIPT,
+			List.of(aggregationShards.getPendingKey(roomCode)), roomCode, String.valueOf(dueAt));
+		return expedited != null && expedited == 1;
+	}
+
+	@Override
+	public boolean completeAggregation(String roomCode, int attempt) {
+		return finishAggregation(roomCode, attempt, "done", 0);
 	}
 
 	@Override
-	public ScoreAggregationResult aggregateScores(String roomCode) {
+	public boolean retryAggregation(String roomCode, int attempt, long retryAt) {
+		return finishAggregation(roomCode, attempt, "retry", retryAt);
+	}
+
+	@Override
+	public boolean deadLetterAggregation(String roomCode, int attempt) {
+		return finishAggregation(roomCode, attempt, "dead", System.currentTimeMillis());
+	}
+
+	private boolean finishAggregation(String roomCode, int attempt, String result, long at) {
+		int shard = aggregationShards.shardOf(roomCode);
+		Long finished = redisTemplate.execute(FINISH_AGGREGATION_SCRIPT,
+			List.of(aggregationShards.getPendingKey(shard), aggregationShards.getLeaseKey(shard),
+				aggregationShards.getAttemptsKey(shard), aggregationShards.getDeadLetterKey(shard)),
+			roomCode, String.valueOf(attempt), result, String.valueOf(at));
+		return finished != null && finished == 1;
+	}
+
+	@Override
+	public List<String> requeueExpiredAggregations(int shard, long now) {
+		List<?> requeued = redisTemplate.execute(REQUEUE_EXPIRED_AGGREGATIONS_SCRIPT,
+			List.of(aggregationShards.getPendingKey(shard), aggregationShards.getLeaseKey(shard)),
+			String.valueOf(now), String.valueOf(REQUEUE_BATCH_SIZE));
+		if (requeued == null) {
+			return List.of();
+		}
+		return requeued.stream().map(String::valueOf).toList();
+	}
+
+	@Override
+	public ScoreAggregationResult aggregateScores(String roomCode, int expectedRound) {
 		String roomKey = getRoomKey(roomCode);
-		// 집계 시작 시 다음 라운드 넘어가는 걸로 처리
-		redisTemplate.opsForHash().put(roomKey, "state", RoomStateTTL.WAITING.name());
-		redisTemplate.expire(getRoomKey(roomKey), RoomStateTTL.WAITING.getTtl());
+		int roundTrips = 0;
 
-		int currentRound = Integer.parseInt(
-			Objects.requireNonNull(redisTemplate.opsForHash().get(roomKey, "currentRound")).toString()
-		);
-		int totalRound = Integer.parseInt(
-			Objects.requireNonNull(redisTemplate.opsForHash().get(roomKey, "totalRound")).toString()
-		);
-		String gameTypeName = redisTemplate.opsForList().index(getGamesKey(roomCode), currentRound - 1);
-		GameType gameType = GameType.valueOf(gameTypeName);
+		// 집계 시작 시 다음 라운드 넘어가는 걸로 처리
+		List<?> roundFields = redisTemplate.execute(BEGIN_AGGREGATION_SCRIPT, List.of(roomKey),
+			String.valueOf(expectedRound), RoomStateTTL.WAITING.name(),
+			String.valueOf(RoomStateTTL.WAITING.getTtl().toSeconds()));
+		roundTrips++;
+		if (roundFields == null || roundFields.isEmpty()) {
+			log.warn("[aggregateScores] room {} already started the round after {}, skipping", roomCode,
+				expectedRound);
+			return null;
+		}
+		int nextRound = Integer.parseInt(Objects.requireNonNull(roundFields.get(0)).toString());
+		int totalRound = Integer.parseInt(Objects.requireNonNull(roundFields.get(1)).toString());
+		// 이전 시도가 라운드를 넘긴 뒤 실패했어도 같은 라운드를 다시 집계한다
+		int currentRound = roundFields.get(2) == null ? nextRound
+			: Integer.parseInt(roundFields.get(2).toString());
+		boolean committed = nextRound > currentRound;
 
-		String roundScoreKey = roomKey + ":round:" + currentRound + ":scores";
+		String roundScoreKey = getRoundScoreKey(roomCode, currentRound);
+		List<Object> roundData = pipelined(redisTemplate, operations -> {
+			operations.opsForList().index(getGamesKey(roomCode), currentRound - 1);
+			operations.opsForZSet().reverseRangeWithScores(roundScoreKey, 0, -1);
+			operations.opsForSet().members(getPlayerIdsKey(roomCode));
+			operations.opsForZSet().reverseRangeWithScores(getLeaderboardKey(roomCode), 0, -1);
+		});
+		roundTrips++;
+		GameType gameType = GameType.valueOf(Objects.requireNonNull(roundData.get(0)).toString());
+		@SuppressWarnings("unchecked")
 		Set<ZSetOperations.TypedTuple<String>> roundScores =
-			redisTemplate.opsForZSet().reverseRangeWithScores(roundScoreKey, 0, -1);
+			(Set<ZSetOperations.TypedTuple<String>>)roundData.get(1);
+		@SuppressWarnings("unchecked")
+		Set<String> userIds = Optional.ofNullable((Set<String>)roundData.get(2)).orElse(Set.of());
+		@SuppressWarnings("unchecked")
+		var sortedTotalScores = toScoreEntries((Set<ZSetOperations.TypedTuple<String>>)roundData.get(3));
 
 		Map<String, Integer> roundScoreMap = new HashMap<>();
-		Map<String, Integer> totalScoreMap = new HashMap<>();
-		Map<String, String> nicknameMap = new HashMap<>();
-		Set<String> roundPlayers = new HashSet<>();
+		List<Map.Entry<String, Integer>> sortedRoundScores = new ArrayList<>();
+		List<String> roundPlayers = new ArrayList<>();
 		if (roundScores != null) {
 			for (ZSetOperations.TypedTuple<String> entry : roundScores) {
 				String userId = entry.getValue();
 				roundPlayers.add(userId);
 				int roundScore = (int)Math.round(
 					Objects.requireNonNull(entry.getScore()) * ROUND_MULTIPLIERS[currentRound]);
-
 				roundScoreMap.put(userId, roundScore);
-
-				String playerKey = getPlayerKey(roomCode, userId);
-				int totalScore = Integer.parseInt(String.valueOf(redisTemplate.opsForHash().get(playerKey, "score")));
-				String nickname = String.valueOf(redisTemplate.opsForHash().get(playerKey, "nickname"));
-
-				totalScoreMap.put(userId, totalScore);
-				nicknameMap.put(userId, nickname);
+				sortedRoundScores.add(Map.entry(userId, roundScore));
 			}
 		}
-		List<String> userIds = getUserIds(roomCode);
-		Set<String> unsubmittedPlayers = getUserIds(roomCode).stream()
-			.filter(userId -> !roundPlayers.contains(userId))
-			.collect(Collectors.toSet());
+		// 라운드 점수 zset 도 이미 정렬돼 있으므로 순서대로 순위를 매기고, 미제출자는 0 으로 기록한다
+		Map<String, Integer> roundRankMap = RankingUtils.calculateRanks(sortedRoundScores);
+		Map<String, Integer> rankRecordUpdates = new HashMap<>(roundRankMap);
+		userIds.forEach(userId -> rankRecordUpdates.putIfAbsent(userId, 0));
+
+		// 누적 순위표는 이미 정렬돼 있으므로 순서대로 순위만 매긴다
+		Map<String, Integer> totalScoreMap = new HashMap<>();
+		sortedTotalScores.forEach(entry -> totalScoreMap.put(entry.getKey(), entry.getValue()));
+		Map<String, Integer> overallRankMap = RankingUtils.calculateRanks(sortedTotalScores);
 
-		for (String unsubmittedUserId : unsubmittedPlayers) {
-			updateRankRecord(roomCode, unsubmittedUserId, 0);
+		var submittedFields = playerStore.getFields(roomCode, roundPlayers, PlayerField.NICKNAME);
+		roundTrips++;
+		Map<String, String> nicknameMap = new HashMap<>();
+		submittedFields.forEach((userId, fields) ->
+			nicknameMap.put(userId, String.valueOf(fields.get(PlayerField.NICKNAME))));
+
+		// 이미 덧붙인 플레이어는 건너뛰고 지금 값만 돌려받는다
+		Map<String, String> rankRecordMap = appendRankRecords(roomCode, currentRound, rankRecordUpdates);
+		roundTrips += (rankRecordUpdates.size() + RANK_RECORD_BATCH_SIZE - 1) / RANK_RECORD_BATCH_SIZE;
+
+		if (!committed) {
+			// 증가가 아니라 값으로 넘겨 재시도해도 라운드가 두 번 넘어가지 않는다
+			redisTemplate.opsForHash().put(roomKey, "currentRound", String.valueOf(currentRound + 1));
+			registerKeys(redisTemplate, roomCode, List.of(getRankRecordRoundsKey(roomCode)));
+			roundTrips += 2;
+			publishMetadataChange(roomCode);
 		}
 
-		redisTemplate.opsForHash().increment(roomKey, "currentRound", 1);
+		log.info("[aggregateScores] room {} round {} {} {} players with {} redis round trips",
+			roomCode, currentRound, committed ? "re-aggregated" : "aggregated", userIds.size(), roundTrips);
 		return ScoreAggregationResult.builder()
 			.currentRound(currentRound)
 			.totalRound(totalRound)
 			.gameType(gameType)
 			.roundScoreMap(roundScoreMap)
+			.sortedRoundScores(sortedRoundScores)
 			.totalScoreMap(totalScoreMap)
+			.overallRankMap(overallRankMap)
+			.roundRankMap(roundRankMap)
+			.rankRecordMap(rankRecordMap)
 			.nicknameMap(nicknameMap)
 			.roundPlayerCount(roundPlayers.size())
 			.totalPlayerCount(userIds.size())
@@ -322,62 +603,102 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 
 	@Override
 	public String updateRankRecord(String roomCode, String userId, int roundRank) {
-		String playerKey = getPlayerKey(roomCode, userId);
-
-		String prevRankRecord = (String)redisTemplate.opsForHash().get(playerKey, "rankRecord");
-		String updated = (prevRankRecord == null || prevRankRecord.isEmpty())
-			? String.valueOf(roundRank)
-			: prevRankRecord + "|" + roundRank;
-
-		redisTemplate.opsForHash().put(playerKey, "rankRecord", updated);
-		return updated;
+		return appendRankRecords(roomCode, Map.of(userId, roundRank)).get(userId);
 	}
 
 	@Override
-	public List<RankingInfo> getFinalResults(String roomCode) {
-		List<String> userIds = getUserIds(roomCode);
-
-		List<FinalResult> results = new ArrayList<>();
-		for (String userId : userIds) {
-			String playerKey = getPlayerKey(roomCode, userId);
-
-			Object nicknameObj = redisTemplate.opsForHash().get(playerKey, "nickname");
-			Object scoreObj = redisTemplate.opsForHash().get(playerKey, "score");
+	public Map<String, String> appendRankRecords(String roomCode, Map<String, Integer> roundRanks) {
+		return appendRankRecords(roomCode, 0, roundRanks);
+	}
 
-			if (nicknameObj == null || scoreObj == null) {
-				log.warn("[getFinalResults] Missing data for userId: {}", userId);
-				continue;
+	// round 가 0 이면 이미 덧붙였는지 확인하지 않는다
+	private Map<String, String> appendRankRecords(String roomCode, int round, Map<String, Integer> roundRanks) {
+		List<String> userIds = List.copyOf(roundRanks.keySet());
+		Map<String, String> rankRecords = new HashMap<>();
+		for (int from = 0; from < userIds.size(); from += RANK_RECORD_BATCH_SIZE) {
+			List<String> batch = userIds.subList(from, Math.min(from + RANK_RECORD_BATCH_SIZE, userIds.size()));
+			List<String> keys = new ArrayList<>(batch.size() + 1);
+			List<String> args = new ArrayList<>(batch.size() * 3 + 1);
+			args.add(String.valueOf(round));
+			for (String userId : batch) {
+				keys.add(playerStore.getHashKey(roomCode, userId, PlayerField.RANK_RECORD));
+				args.add(playerStore.getHashField(userId, PlayerField.RANK_RECORD));
+				args.add(String.valueOf(roundRanks.get(userId)));
+				args.add(userId);
+			}
+			keys.add(getRankRecordRoundsKey(roomCode));
+			List<?> updated = Objects.requireNonNull(
+				redisTemplate.execute(APPEND_RANK_RECORDS_SCRIPT, keys, args.toArray()),
+				"[appendRankRecords] empty script result");
+			for (int i = 0; i < batch.size(); i++) {
+				rankRecords.put(batch.get(i), String.valueOf(updated.get(i)));
 			}
+		}
+		return rankRecords;
+	}
 
-			String nickname = nicknameObj.toString();
-			int score = Integer.parseInt(scoreObj.toString());
+	@Override
+	public List<RankingInfo> getFinalResults(String roomCode) {
+		var sortedTotalScores = toScoreEntries(
+			redisTemplate.opsForZSet().reverseRangeWithScores(getLeaderboardKey(roomCode), 0, -1));
+		var finalRanks = toRankingInfos(roomCode, sortedTotalScores);
 
-			results.add(new FinalResult(userId, nickname, score));
-		}
-		var finalRanks = RankingUtils.calculateFinalRanks(results);
+		Map<String, String> finalRankByUserId = new HashMap<>();
 		for (var rankInfo : finalRanks) {
-			redisTemplate.opsForHash()
-				.put(getPlayerKey(roomCode, rankInfo.userId()), "finalRank", String.valueOf(rankInfo.rank()));
+			finalRankByUserId.put(rankInfo.userId(), String.valueOf(rankInfo.rank()));
 		}
+		playerStore.putField(roomCode, PlayerField.FINAL_RANK, finalRankByUserId);
+		log.info("[getFinalResults] room {} ranked {} players", roomCode, finalRanks.size());
 		return finalRanks;
 	}
 
+	@Override
+	public List<RankingInfo> getOverallTopK(String roomCode, int k) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k must be positive");
+		}
+		// 상위 k 명의 순위는 그보다 앞선 점수에만 좌우되므로 앞부분만 읽어도 된다
+		return toRankingInfos(roomCode, toScoreEntries(
+			redisTemplate.opsForZSet().reverseRangeWithScores(getLeaderboardKey(roomCode), 0, k - 1)));
+	}
+
+	@Override
+	public Integer getOverallRank(String roomCode, String userId) {
+		Long rank = redisTemplate.execute(OVERALL_RANK_SCRIPT, List.of(getLeaderboardKey(roomCode)), userId);
+		return rank == null || rank < 0 ? null : rank.intValue();
+	}
+
 	@Override
 	public void endGame(String roomCode) {
 		String roomKey = getRoomKey(roomCode);
-		redisTemplate.opsForHash().put(roomKey, "state", RoomStateTTL.ENDED.name());
-		redisTemplate.expire(roomKey, RoomStateTTL.ENDED.getTtl());
+		String finalResultsKey = getFinalResultsKey(roomCode);
+		Map<String, FinalResultRecord> finalResults = buildFinalResults(roomCode);
+		Map<String, String> encoded = new HashMap<>();
+		finalResults.forEach((userId, finalResult) -> encoded.put(userId, finalResult.encode()));
+
+		// 최종 결과를 먼저 기록해 ENDED 상태를 본 조회가 항상 결과를 찾을 수 있게 한다
+		pipelined(redisTemplate, operations -> {
+			if (!encoded.isEmpty()) {
+				operations.opsForHash().putAll(finalResultsKey, encoded);
+				operations.expire(finalResultsKey, RoomStateTTL.ENDED.getTtl());
+			}
+			operations.opsForHash().put(roomKey, "state", RoomStateTTL.ENDED.name());
+			operations.expire(roomKey, RoomStateTTL.ENDED.getTtl());
+			registerKeys(operations, roomCode, List.of(finalResultsKey));
+		});
+		finalResultCache.putAll(roomCode, finalResults);
+		publishMetadataChange(roomCode);
 	}
 
 	@Override
 	public GameType getGame(String roomCode, int round) {
 		int roundIndex = round - 1;
-		String gameTypeName = redisTemplate.opsForList().index(getGamesKey(roomCode), roundIndex);
-		if (gameTypeName == null) {
+		RoomMetadata metadata = getMetadata(roomCode);
+		if (metadata == null || roundIndex < 0 || roundIndex >= metadata.games().size()) {
 			throw new IllegalStateException("No game type found at index " + roundIndex + " for room " + roomCode);
 		}
 
-		return GameType.valueOf(gameTypeName);
+		return metadata.games().get(roundIndex);
 	}
 
 	@Override
@@ -389,9 +710,8 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 
 	@Override
 	public String getAdministratorIdOfRoom(String roomCode) {
-		String administratorKey = getAdministratorIdKey(roomCode);
-		Object result = redisTemplate.opsForValue().get(administratorKey);
-		return result != null ? result.toString() : null;
+		RoomMetadata metadata = getMetadata(roomCode);
+		return metadata != null ? metadata.administratorId() : null;
 	}
 
 	@Override
@@ -401,27 +721,115 @@ public class RoomRedisRepositoryImpl implements RoomRedisRepository {
 		return result != null ? Integer.parseInt(result.toString()) : 0;
 	}
 
-	private String getRoomKey(String roomCode) {
-		return "room:" + roomCode;
+	public static int applyRoundMultiplier(int score, int round) {
+		return (int)Math.round(score * ROUND_MULTIPLIERS[round]);
+	}
+
+	private RoomMetadata getMetadata(String roomCode) {
+		return roomMetadataCache.get(roomCode, this::loadMetadata);
+	}
+
+	private RoomMetadata loadMetadata(String roomCode) {
+		List<Object> results = pipelined(redisTemplate, operations -> {
+			operations.opsForValue().get(getAdministratorIdKey(roomCode));
+			operations.opsForList().range(getGamesKey(roomCode), 0, -1);
+			operations.opsForHash()
+				.multiGet(getRoomKey(roomCode), List.of("totalRound", "currentRound", "state", "metadataVersion"));
+		});
+		String administratorId = (String)results.get(0);
+		List<?> gameNames = Optional.ofNullable((List<?>)results.get(1)).orElse(List.of());
+		List<?> roomFields = (List<?>)results.get(2);
+		if (administratorId == null && roomFields.get(2) == null) {
+			return null;
+		}
+
+		return new RoomMetadata(
+			administratorId,
+			gameNames.stream().map(name -> GameType.valueOf(name.toString())).toList(),
+			parseIntOrZero(roomFields.get(0)),
+			parseIntOrZero(roomFields.get(1)),
+			roomFields.get(2) == null ? null : roomFields.get(2).toString(),
+			parseIntOrZero(roomFields.get(3))
+		);
 	}
 
-	private String getPlayerKey(String roomCode, String userId) {
-		return getRoomKey(roomCode) + ":player:" + userId;
+	// 방 메타데이터 version 을 올리고 모든 인스턴스의 near-cache 를 비운다
+	private void publishMetadataChange(String roomCode) {
+		Long version = redisTemplate.opsForHash().increment(getRoomKey(roomCode), "metadataVersion", 1);
+		roomMetadataCache.invalidate(roomCode, Objects.requireNonNull(version));
 	}
 
-	private String getPlayerIdsKey(String roomCode) {
-		return getRoomKey(roomCode) + ":playerIds";
+	// 방에 딸린 key 를 registry 에 올린다. registry 는 방 hash 보다 오래 살도록 등록할 때마다 TTL 을 늘린다
+	private void registerKeys(RedisOperations<String, String> operations, String roomCode,
+		Collection<String> keys) {
+		String registryKey = getKeyRegistryKey(roomCode);
+		operations.opsForSet().add(registryKey, keys.toArray(String[]::new));
+		operations.expire(registryKey, PLAYER_BASE_TTL);
 	}
 
-	private String getAdministratorIdKey(String roomCode) {
-		return getRoomKey(roomCode) + ":administratorId";
+	private List<String> discoverKeys(String roomCode) {
+		List<String> keys = new ArrayList<>();
+		int totalRound = Optional.ofNullable(redisTemplate.opsForList().size(getGamesKey(roomCode)))
+			.map(Long::intValue)
+			.orElse(0);
+		for (int round = 1; round <= totalRound; round++) {
+			keys.add(getRoundScoreKey(roomCode, round));
+		}
+		Set<String> playerIds = Optional.ofNullable(redisTemplate.opsForSet().members(getPlayerIdsKey(roomCode)))
+			.orElse(Set.of());
+		keys.addAll(playerStore.getKeys(roomCode, playerIds));
+		return keys;
 	}
 
-	private String getGamesKey(String roomCode) {
-		return getRoomKey(roomCode) + ":games";
+	private Map<String, FinalResultRecord> buildFinalResults(String roomCode) {
+		var sortedTotalScores = toScoreEntries(
+			redisTemplate.opsForZSet().reverseRangeWithScores(getLeaderboardKey(roomCode), 0, -1));
+		Map<String, Integer> finalRanks = RankingUtils.calculateRanks(sortedTotalScores);
+		var rankRecords = playerStore.getFields(roomCode, finalRanks.keySet(), PlayerField.RANK_RECORD);
+
+		Map<String, FinalResultRecord> finalResults = new HashMap<>();
+		for (var entry : sortedTotalScores) {
+			String userId = entry.getKey();
+			String rankRecord = Optional.ofNullable(rankRecords.get(userId))
+				.map(fields -> fields.get(PlayerField.RANK_RECORD))
+				.orElse("");
+			finalResults.put(userId, new FinalResultRecord(rankRecord, entry.getValue(), finalRanks.get(userId),
+				sortedTotalScores.size()));
+		}
+		return finalResults;
+	}
+
+	private static List<Map.Entry<String, Integer>> toScoreEntries(Set<ZSetOperations.TypedTuple<String>> tuples) {
+		if (tuples == null) {
+			return List.of();
+		}
+		return tuples.stream()
+			.map(tuple -> Map.entry(Objects.requireNonNull(tuple.getValue()),
+				Objects.requireNonNull(tuple.getScore()).intValue()))
+			.toList();
+	}
+
+	// 점수 내림차순으로 정렬된 entry 에 닉네임을 붙여 competition ranking 으로 변환
+	private List<RankingInfo> toRankingInfos(String roomCode, List<Map.Entry<String, Integer>> sortedEntries) {
+		List<String> userIds = sortedEntries.stream().map(Map.Entry::getKey).toList();
+		var nicknames = playerStore.getFields(roomCode, userIds, PlayerField.NICKNAME);
+
+		Map<String, Integer> ranks = RankingUtils.calculateRanks(sortedEntries);
+		List<RankingInfo> rankings = new ArrayList<>();
+		for (var entry : sortedEntries) {
+			String nickname = Optional.ofNullable(nicknames.get(entry.getKey()))
+				.map(fields -> fields.get(PlayerField.NICKNAME))
+				.orElse(null);
+			if (nickname == null) {
+				log.warn("[toRankingInfos] Missing nickname for userId: {}", entry.getKey());
+				continue;
+			}
+			rankings.add(new RankingInfo(entry.getKey(), nickname, entry.getValue(), ranks.get(entry.getKey())));
+		}
+		return rankings;
 	}
 
-	private String getRoundScoreKey(String roomCode, int currentRound) {
-		return getRoomKey(roomCode) + ":round:" + currentRound + ":scores";
+	private static int parseIntOrZero(Object value) {
+		return value == null ? 0 : Integer.parseInt(value.toString());
 	}
 }
@@ -1,59 +1,255 @@
 package com.party.backbone.room;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import com.party.backbone.room.dto.AggregationClaim;
+import com.party.backbone.room.shard.AggregationShardOwnership;
+import com.party.backbone.room.submit.ScoreWriteBuffer;
+import com.party.backbone.room.submit.SubmitStream;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class RoundAggregationScheduler {
 	private final RoomRedisRepository roomRepository;
 	private final RoundAggregationService roundAggregationService;
+	private final ScoreWriteBuffer scoreWriteBuffer;
+	private final SubmitStream submitStream;
+	private final AggregationShardOwnership shardOwnership;
+	// 방 단위 집계를 동시에 돌리는 bounded executor
+	private final Executor roundAggregationExecutor;
+	// 집계가 예약됐거나 진행 중인 방. 같은 방을 두 스레드가 동시에 집계하지 않게 한다
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+	// stream 이 비워지기를 기다리기 시작한 시각
+	private final Map<String, Long> drainWaitStartedAt = new ConcurrentHashMap<>();
 
-	private static final int MAX_ROUNDS_TO_PROCESS_PER_RUN = 10;
+	private final long maxDrainWaitMillis;
+	private final long fallbackGraceMillis;
+	private final long claimLeaseMillis;
+	private final long retryBaseMillis;
+	private final long retryMaxMillis;
+	private final int maxAttempts;
 
-	@Scheduled(fixedRateString = "1000")
-	@SchedulerLock(name = "aggregatePendingRoundsLock",
-		lockAtLeastFor = "PT2S",  // 최소 2초간 락 유지
-		lockAtMostFor = "PT15S") // 최대 15초간 락 유지
+	private final AtomicLong aggregatedCount = new AtomicLong();
+	private final AtomicLong retryCount = new AtomicLong();
+	private final AtomicLong leaseExpiryCount = new AtomicLong();
+	private final AtomicLong deadLetterCount = new AtomicLong();
+
+	public enum Outcome {
+		AGGREGATED,
+		// 다른 인스턴스가 먼저 pending 에서 꺼냈다
+		TAKEN,
+		// stream 이 아직 비워지지 않아 나중에 다시 시도해야 한다
+		NOT_DRAINED,
+		// 이 인스턴스에서 이미 집계가 예약됐거나 진행 중이다
+		IN_PROGRESS,
+		// 실패했다. 재시도나 dead letter 는 이미 예약됐다
+		FAILED
+	}
+
+	public RoundAggregationScheduler(RoomRedisRepository roomRepository,
+		RoundAggregationService roundAggregationService, ScoreWriteBuffer scoreWriteBuffer,
+		SubmitStream submitStream, AggregationShardOwnership shardOwnership,
+		@Qualifier("roundAggregationExecutor") Executor roundAggregationExecutor,
+		@Value("${backbone.submit.stream.max-drain-wait-ms:10000}") long maxDrainWaitMillis,
+		@Value("${backbone.aggregation.fallback-grace-ms:2000}") long fallbackGraceMillis,
+		@Value("${backbone.aggregation.claim-lease-ms:30000}") long claimLeaseMillis,
+		@Value("${backbone.aggregation.retry-base-ms:1000}") long retryBaseMillis,
+		@Value("${backbone.aggregation.retry-max-ms:30000}") long retryMaxMillis,
+		@Value("${backbone.aggregation.max-attempts:5}") int maxAttempts) {
+		// lease 가 0 이면 집계 중인 방이 곧바로 다시 pending 으로 돌아가 두 번 집계된다
+		if (claimLeaseMillis <= 0 || retryBaseMillis <= 0 || retryMaxMillis < retryBaseMillis || maxAttempts <= 0
+			|| maxDrainWaitMillis < 0 || fallbackGraceMillis < 0) {
+			throw new IllegalArgumentException("Invalid aggregation settings: claimLeaseMs=" + claimLeaseMillis
+				+ ", retryBaseMs=" + retryBaseMillis + ", retryMaxMs=" + retryMaxMillis + ", maxAttempts="
+				+ maxAttempts + ", maxDrainWaitMs=" + maxDrainWaitMillis + ", fallbackGraceMs=" + fallbackGraceMillis);
+		}
+		this.roomRepository = roomRepository;
+		this.roundAggregationService = roundAggregationService;
+		this.scoreWriteBuffer = scoreWriteBuffer;
+		this.submitStream = submitStream;
+		this.shardOwnership = shardOwnership;
+		this.roundAggregationExecutor = roundAggregationExecutor;
+		this.maxDrainWaitMillis = maxDrainWaitMillis;
+		this.fallbackGraceMillis = fallbackGraceMillis;
+		this.claimLeaseMillis = claimLeaseMillis;
+		this.retryBaseMillis = retryBaseMillis;
+		this.retryMaxMillis = retryMaxMillis;
+		this.maxAttempts = maxAttempts;
+	}
+
+	// 기본 경로는 라운드 종료 시각에 깨어나는 RoundAggregationTimer 이고, 이 polling 은 타이머를 건 인스턴스가
+	// 죽었거나 재시작돼 타이머가 사라진 방을 Redis 의 pending 목록에서 찾아 처리하는 fallback 이다
+	// 인스턴스마다 lease 를 가진 shard 의 pending 만 보므로 인스턴스를 늘리면 polling 도 나눠서 처리된다
+	@Scheduled(fixedRateString = "${backbone.aggregation.fallback-interval-ms:5000}")
 	public void aggregateDueRounds() {
 		log.debug("[AggregationScheduler] Checking for due rooms to aggregate.");
-		long currentTimeMillis = System.currentTimeMillis();
+		// write-behind 모드면 다른 인스턴스 버퍼의 점수가 반영될 때까지 기다린다
+		// 타이머가 먼저 처리할 수 있도록 grace 만큼 지난 방만 가져온다
+		long currentTimeMillis = System.currentTimeMillis() - scoreWriteBuffer.getAggregationDelayMillis()
+			- fallbackGraceMillis;
 
-		Set<String> dueRooms = roomRepository.getDueRooms(currentTimeMillis,
-			MAX_ROUNDS_TO_PROCESS_PER_RUN);
+		// 한 주기에 처리할 방 수를 제한하지 않는다. 동시성은 roundAggregationExecutor 가 제한한다
+		Map<String, Long> dueRooms = new HashMap<>();
+		for (int shard : shardOwnership.getOwnedShards()) {
+			requeueExpiredLeases(shard);
+			dueRooms.putAll(roomRepository.getDueRooms(shard, currentTimeMillis, Integer.MAX_VALUE));
+		}
 
 		if (dueRooms.isEmpty()) {
 			log.debug("[AggregationScheduler] No rooms due for aggregation at this moment.");
 			return;
 		}
 
-		log.info("[AggregationScheduler] Found {} due rooms to process: {}", dueRooms.size(), dueRooms);
+		log.info("[AggregationScheduler] Found {} overdue rooms without a timer: {}", dueRooms.size(),
+			dueRooms.keySet());
 
-		for (String roomCode : dueRooms) {
-			if (roomRepository.removeRoomFromPending(roomCode)) {
+		// 여러 shard 의 방을 합쳐 endAt 이 이른 방부터 executor 에 넣어 먼저 끝난 라운드가 먼저 집계되게 한다
+		dueRooms.entrySet().stream()
+			.sorted(Map.Entry.comparingByValue())
+			.forEach(entry -> submit(entry.getKey(), entry.getValue()));
+		log.debug("[AggregationScheduler] Finished checking for due rooms.");
+	}
 
+	// 방 집계를 executor 에 넣는다. 같은 방이 이미 예약됐거나 진행 중이면 새로 넣지 않고 IN_PROGRESS 로 끝낸다
+	// dueAt 은 pending 에 걸린 집계 기한(endAt 이나 앞당긴 기한)으로, stream 은 이 시각까지 적재된 제출만 기다린다
+	public CompletableFuture<Outcome> submit(String roomCode, long dueAt) {
+		if (!inFlight.add(roomCode)) {
+			return CompletableFuture.completedFuture(Outcome.IN_PROGRESS);
+		}
+		try {
+			return CompletableFuture.supplyAsync(() -> {
 				try {
-					log.info("[AggregationScheduler] Triggering aggregation for {}", roomCode);
-					roundAggregationService.aggregateRound(roomCode);
-				} catch (Exception e) {
-					log.error(
-						"[AggregationScheduler] Error during aggregation trigger for {}. Re-adding to pending list might be needed.",
-						roomCode, e);
-					// TODO: 재처리 로직
+					return aggregateRoom(roomCode, dueAt);
+				} finally {
+					inFlight.remove(roomCode);
 				}
-			} else {
-				log.info("[AggregationScheduler] {} was likely processed by another instance or already removed.",
-					roomCode);
+			}, roundAggregationExecutor);
+		} catch (RuntimeException e) {
+			inFlight.remove(roomCode);
+			throw e;
+		}
+	}
+
+	// pending 에서 먼저 꺼낸 인스턴스만 lease 를 잡고 집계하므로 타이머와 fallback 이 같은 방을 동시에 잡아도 한 번만 집계된다
+	// 실패하면 backoff 뒤 다시 pending 에 넣고, 인스턴스가 죽어 끝내지 못하면 lease 가 만료돼 다시 pending 으로 돌아간다
+	// 같은 라운드를 다시 집계해도 aggregateScores 가 라운드와 rankRecord 를 한 번만 반영하므로 결과는 같다
+	// 재시도 전에 관리자가 다음 라운드를 시작했으면 claim 한 라운드와 달라 집계하지 않는다
+	public Outcome aggregateRoom(String roomCode, long dueAt) {
+		if (!isSubmitStreamDrained(roomCode, dueAt)) {
+			return Outcome.NOT_DRAINED;
+		}
+		long now = System.currentTimeMillis();
+		AggregationClaim claim = roomRepository.claimAggregation(roomCode, now, now + claimLeaseMillis);
+		if (!claim.claimed()) {
+			log.info("[AggregationScheduler] {} was likely processed by another instance or already removed.",
+				roomCode);
+			return Outcome.TAKEN;
+		}
+		int attempt = claim.attempt();
+		try {
+			log.info("[AggregationScheduler] Triggering aggregation for {} (attempt {})", roomCode, attempt);
+			roundAggregationService.aggregateRound(roomCode, claim.round());
+			if (!roomRepository.completeAggregation(roomCode, attempt)) {
+				log.warn("[AggregationScheduler] lease on {} expired before attempt {} finished", roomCode, attempt);
 			}
+			aggregatedCount.incrementAndGet();
+			return Outcome.AGGREGATED;
+		} catch (Exception e) {
+			handleFailure(roomCode, attempt, e);
+			return Outcome.FAILED;
 		}
-		log.debug("[AggregationScheduler] Finished checking for due rooms.");
+	}
+
+	private void handleFailure(String roomCode, int attempt, Exception cause) {
+		try {
+			if (attempt >= maxAttempts) {
+				if (roomRepository.deadLetterAggregation(roomCode, attempt)) {
+					deadLetterCount.incrementAndGet();
+				}
+				log.error("[AggregationScheduler] aggregation of {} failed {} times, moved to dead letter", roomCode,
+					attempt, cause);
+				return;
+			}
+			long backoff = Math.min(retryBaseMillis << Math.min(attempt - 1, 20), retryMaxMillis);
+			if (roomRepository.retryAggregation(roomCode, attempt, System.currentTimeMillis() + backoff)) {
+				retryCount.incrementAndGet();
+			}
+			log.error("[AggregationScheduler] aggregation of {} failed on attempt {}, retrying in {}ms", roomCode,
+				attempt, backoff, cause);
+		} catch (Exception e) {
+			// 되돌리지 못해도 lease 가 만료되면 다시 pending 으로 돌아간다
+			log.error("[AggregationScheduler] failed to reschedule {} after attempt {}", roomCode, attempt, e);
+		}
+	}
+
+	private void requeueExpiredLeases(int shard) {
+		try {
+			List<String> requeued = roomRepository.requeueExpiredAggregations(shard, System.currentTimeMillis());
+			if (!requeued.isEmpty()) {
+				leaseExpiryCount.addAndGet(requeued.size());
+				log.warn("[AggregationScheduler] aggregation lease expired for {}, back to pending", requeued);
+			}
+		} catch (Exception e) {
+			log.error("[AggregationScheduler] failed to requeue expired leases in shard {}", shard, e);
+		}
+	}
+
+	public long getRetryCount() {
+		return retryCount.get();
+	}
+
+	public long getLeaseExpiryCount() {
+		return leaseExpiryCount.get();
+	}
+
+	public long getDeadLetterCount() {
+		return deadLetterCount.get();
+	}
+
+	@Scheduled(fixedRate = 60_000)
+	public void logStats() {
+		log.info("[AggregationScheduler] aggregated={} retries={} leaseExpiries={} deadLettered={}",
+			aggregatedCount.get(), retryCount.get(), leaseExpiryCount.get(), deadLetterCount.get());
+	}
+
+	// stream 모드면 집계 기한까지 적재된 이 방의 제출이 모두 반영될 때까지 집계를 미룬다. 방은 pending 에 남아 다음 주기에 다시 본다
+	// worker 가 오래 멈춰 있으면 방이 영영 집계되지 않으므로 maxDrainWaitMillis 가 지나면 그대로 집계한다
+	private boolean isSubmitStreamDrained(String roomCode, long dueAt) {
+		if (!submitStream.isEnabled()) {
+			return true;
+		}
+		long now = System.currentTimeMillis();
+		long waitStartedAt = drainWaitStartedAt.computeIfAbsent(roomCode, code -> now);
+		try {
+			if (submitStream.isDrained(roomCode, dueAt)) {
+				log.info("[AggregationScheduler] submit stream drained for {} after {}ms", roomCode,
+					now - waitStartedAt);
+				drainWaitStartedAt.remove(roomCode);
+				return true;
+			}
+		} catch (Exception e) {
+			log.error("[AggregationScheduler] failed to check submit stream for {}", roomCode, e);
+		}
+		if (now - waitStartedAt >= maxDrainWaitMillis) {
+			log.warn("[AggregationScheduler] submit stream not drained for {} after {}ms, aggregating anyway",
+				roomCode, now - waitStartedAt);
+			drainWaitStartedAt.remove(roomCode);
+			return true;
+		}
+		return false;
 	}
 }
@@ -6,19 +6,26 @@ import static com.party.backbone.room.util.RankingUtils.*;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.util.LatencyHistogram;
 import com.party.backbone.util.MinioClientUtil;
+import com.party.backbone.websocket.broadcast.AsyncMessageSender;
 import com.party.backbone.websocket.handler.SessionRegistry;
 import com.party.backbone.websocket.message.server.AggregatedAdminMessage;
-import com.party.backbone.websocket.message.server.AggregatedUserMessage;
+import com.party.backbone.websocket.message.server.AggregatedUserMessageTemplate;
 import com.party.backbone.websocket.message.server.EndMessage;
 import com.party.backbone.websocket.message.server.NextGameMessage;
 import com.party.backbone.websocket.model.GameType;
@@ -42,9 +49,12 @@ public class RoundAggregationService {
 	private final SessionRegistry sessionRegistry;
 	private final ObjectMapper objectMapper;
 	private final MinioClientUtil minioClientUtil;
+	private final AsyncMessageSender asyncMessageSender;
+	private final LatencyHistogram deliverySpreadHistogram = new LatencyHistogram();
 	final int DEFAULT_RANKING_COUNT = 3;
 
-	public void aggregateRound(String roomCode) throws
+	// round 는 claim 한 라운드로, 그 사이 다음 라운드가 시작됐으면 집계하지 않는다. 모르면 0
+	public void aggregateRound(String roomCode, int round) throws
 		IOException,
 		ServerException,
 		InsufficientDataException,
@@ -54,25 +64,32 @@ public class RoundAggregationService {
 		InvalidResponseException,
 		XmlParserException,
 		InternalException {
-		ScoreAggregationResult aggregation = roomRepository.aggregateScores(roomCode);
+		// 이 인스턴스 버퍼에 남은 점수부터 반영
+		roomRepository.flushBufferedScores(roomCode);
+		ScoreAggregationResult aggregation = roomRepository.aggregateScores(roomCode, round);
 		if (aggregation == null)
 			return;
 
-		List<Map.Entry<String, ? extends Number>> sortedRoundScores = getSortedScoreEntries(
-			aggregation.roundScoreMap());
-		List<Map.Entry<String, ? extends Number>> sortedOverallScores = getSortedScoreEntries(
-			aggregation.totalScoreMap());
+		// 두 엔진 모두 라운드 점수를 정렬된 채로 넘겨주므로 여기서 다시 정렬하지 않는다
+		List<Map.Entry<String, ? extends Number>> sortedRoundScores = aggregation.sortedRoundScores() != null
+			? Collections.unmodifiableList(aggregation.sortedRoundScores())
+			: getSortedScoreEntries(aggregation.roundScoreMap());
 
-		Map<String, Integer> roundRanks = calculateRanks(sortedRoundScores);
-		Map<String, Integer> overallRanks = calculateRanks(sortedOverallScores);
+		Map<String, Integer> roundRanks = aggregation.roundRankMap();
+		// 전체 순위는 누적 순위표 zset 에서 이미 정렬된 채로 읽어 온다
+		Map<String, Integer> overallRanks = aggregation.overallRankMap();
 		Map<String, String> nicknameMap = aggregation.nicknameMap();
 
 		List<RankingInfo> roundTop3 = buildTopK(sortedRoundScores, roundRanks, nicknameMap, DEFAULT_RANKING_COUNT);
-		List<RankingInfo> overallTop3 = buildTopK(sortedOverallScores, overallRanks, nicknameMap,
-			DEFAULT_RANKING_COUNT);
+		List<RankingInfo> overallTop3 = roomRepository.getOverallTopK(roomCode, DEFAULT_RANKING_COUNT);
 
-		sendUserMessages(roomCode, aggregation, roundRanks, overallRanks, roundTop3, overallTop3);
-		sendAdminMessages(roomCode, aggregation, roundRanks, overallRanks, roundTop3, overallTop3);
+		// 정렬된 목록의 양 끝이 1등과 꼴등이다
+		String firstPlaceId = sortedRoundScores.isEmpty() ? null : sortedRoundScores.get(0).getKey();
+		String lastPlaceId = sortedRoundScores.isEmpty() ? null
+			: sortedRoundScores.get(sortedRoundScores.size() - 1).getKey();
+
+		sendUserMessages(roomCode, aggregation, roundRanks, overallRanks, roundTop3, overallTop3, lastPlaceId);
+		sendAdminMessages(roomCode, aggregation, roundTop3, overallTop3, firstPlaceId, lastPlaceId);
 		log.info(
 			"[AggregationService] roomCode: {} currentRound: {} totalRound: {} roundPlayerCount: {} totalPlayerCount: {}",
 			roomCode, aggregation.currentRound(), aggregation.totalRound(), aggregation.roundPlayerCount(),
@@ -81,7 +98,7 @@ public class RoundAggregationService {
 
 	private void sendUserMessages(String roomCode, ScoreAggregationResult aggregation,
 		Map<String, Integer> roundRanks, Map<String, Integer> overallRanks, List<RankingInfo> roundTop3,
-		List<RankingInfo> overallTop3) throws
+		List<RankingInfo> overallTop3, String lastPlaceId) throws
 		IOException,
 		ServerException,
 		InsufficientDataException,
@@ -94,47 +111,75 @@ public class RoundAggregationService {
 		int currentRound = aggregation.currentRound();
 		int totalRound = aggregation.totalRound();
 
-		int maxRoundRank = roundRanks.values().stream().max(Integer::compare).orElse(1);
+		int maxRoundRank = lastPlaceId == null ? 1 : roundRanks.get(lastPlaceId);
 
+		// presigned URL 발급과 직렬화를 먼저 모두 끝내 두고, 전송은 세션별 대기열로 한꺼번에 넘긴다
+		// 느린 클라이언트가 있어도 그 세션의 전송만 늦어지고 다른 플레이어의 결과는 기다리지 않는다
+		// 플레이어마다 같은 부분은 라운드에 한 번만 직렬화한다
+		AggregatedUserMessageTemplate template = AggregatedUserMessageTemplate.of(objectMapper, currentRound,
+			totalRound, aggregation.roundPlayerCount(), aggregation.totalPlayerCount(), aggregation.gameType(),
+			roundTop3, overallTop3);
+		Map<WebSocketSession, String> payloads = new LinkedHashMap<>();
 		for (String userId : aggregation.roundScoreMap().keySet()) {
 			int roundRank = roundRanks.get(userId);
 			int overallRank = overallRanks.get(userId);
-			String rankRecord = roomRepository.updateRankRecord(roomCode, userId, roundRank);
+			// 모든 플레이어의 rankRecord 는 집계 중에 한 번에 갱신된다
+			String rankRecord = aggregation.rankRecordMap().get(userId);
 
 			int currentScore = aggregation.roundScoreMap().get(userId);
 			int totalScore = aggregation.totalScoreMap().get(userId);
 
-			AggregatedUserMessage message = AggregatedUserMessage.builder()
-				.currentRound(currentRound)
-				.totalRound(totalRound)
-				.roundPlayerCount(aggregation.roundPlayerCount())
-				.totalPlayerCount(aggregation.totalPlayerCount())
-				.gameType(aggregation.gameType())
-				.currentScore(currentScore)
-				.totalScore(totalScore)
-				.rankRecord(rankRecord)
-				.roundRank(roundRank)
-				.overallRank(overallRank)
-				.roundRanking(roundTop3)
-				.overallRanking(overallTop3)
-				.videoUploadUrl((roundRank == 1 || roundRank == maxRoundRank) ?
-					minioClientUtil.newPutPresignedUrl(roomCode, currentRound, userId) : "")
-				.build();
-
 			WebSocketSession session = sessionRegistry.get(userId);
 			if (session == null || !session.isOpen()) {
 				log.warn("[AggregatedUserMessage] session not available for user {}", userId);
 				continue;
 			}
-			session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
-			log.info("[AggregatedUserMessage] Sent to user {} (roundRank={}, totalScore={})",
-				userId, roundRank, totalScore);
+
+			String videoUploadUrl = (roundRank == 1 || roundRank == maxRoundRank) ?
+				minioClientUtil.newPutPresignedUrl(roomCode, currentRound, userId) : "";
+			payloads.put(session,
+				template.render(currentScore, totalScore, rankRecord, roundRank, overallRank, videoUploadUrl));
+		}
+
+		long fanOutStartedAt = System.currentTimeMillis();
+		List<CompletableFuture<Long>> deliveries = new ArrayList<>(payloads.size());
+		payloads.forEach((session, payload) -> deliveries.add(asyncMessageSender.send(session, payload)));
+		CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new))
+			.thenRun(() -> recordDeliverySpread(roomCode, currentRound, fanOutStartedAt, deliveries));
+	}
+
+	// 첫 번째 플레이어와 마지막 플레이어가 결과를 받은 시각의 차이
+	private void recordDeliverySpread(String roomCode, int round, long fanOutStartedAt,
+		List<CompletableFuture<Long>> deliveries) {
+		long first = Long.MAX_VALUE;
+		long last = Long.MIN_VALUE;
+		int delivered = 0;
+		for (CompletableFuture<Long> delivery : deliveries) {
+			long sentAt = delivery.join();
+			if (sentAt < 0) {
+				continue;
+			}
+			first = Math.min(first, sentAt);
+			last = Math.max(last, sentAt);
+			delivered++;
+		}
+		if (delivered == 0) {
+			return;
+		}
+		deliverySpreadHistogram.record(last - first);
+		log.info("[AggregatedUserMessage] room {} round {} delivered to {}/{} users, first after {}ms, spread {}ms",
+			roomCode, round, delivered, deliveries.size(), first - fanOutStartedAt, last - first);
+	}
+
+	@Scheduled(fixedRate = 60_000)
+	public void logDeliverySpread() {
+		if (deliverySpreadHistogram.getCount() > 0) {
+			log.info("[AggregatedUserMessage] first->last delivery spread {}", deliverySpreadHistogram.summary());
 		}
 	}
 
 	private void sendAdminMessages(String roomCode, ScoreAggregationResult aggregation,
-		Map<String, Integer> roundRanks, Map<String, Integer> overallRanks, List<RankingInfo> roundTop3,
-		List<RankingInfo> overallTop3) throws
+		List<RankingInfo> roundTop3, List<RankingInfo> overallTop3, String firstPlaceId, String lastPlaceId) throws
 		ServerException,
 		InsufficientDataException,
 		ErrorResponseException,
@@ -148,9 +193,6 @@ public class RoundAggregationService {
 		int totalRound = aggregation.totalRound();
 		Map<String, String> nicknameMap = aggregation.nicknameMap();
 
-		String firstPlaceId = getFirstByRank(roundRanks);
-		String lastPlaceId = getLastByRank(roundRanks);
-
 		PlaceInfo firstPlaceInfo = new PlaceInfo(firstPlaceId, nicknameMap.get(firstPlaceId),
 			minioClientUtil.newGetPresignedUrl(roomCode, currentRound, firstPlaceId),
 			aggregation.roundScoreMap().get(firstPlaceId));
@@ -0,0 +1,131 @@
+package com.party.backbone.room;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.submit.ScoreWriteBuffer;
+import com.party.backbone.room.util.LatencyHistogram;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// START_GAME 을 처리한 인스턴스가 라운드 종료 시각(endAt)에 맞춰 집계를 깨운다
+// 타이머는 이 인스턴스 메모리에만 있고, 누가 집계할지는 Redis 의 pending 목록에서 먼저 꺼낸 쪽이 정한다
+// 인스턴스가 죽어 타이머가 사라지면 RoundAggregationScheduler 의 polling 이 대신 처리한다
+// 모든 플레이어가 제출하면 endAt 을 기다리지 않고 grace 뒤로 집계를 앞당긴다
+@Slf4j
+@Component
+public class RoundAggregationTimer {
+	// stream 이 비워지기를 기다릴 때 다시 확인하는 간격
+	private static final long DRAIN_RETRY_MILLIS = 20;
+
+	private final RoundAggregationScheduler roundAggregationScheduler;
+	private final RoomRedisRepository roomRepository;
+	private final ScoreWriteBuffer scoreWriteBuffer;
+	// 모두 제출한 뒤 집계까지 기다리는 시간. 음수면 앞당기지 않는다
+	private final long allSubmittedGraceMillis;
+	private final ScheduledThreadPoolExecutor timer;
+	// endAt 부터 집계가 끝나 AGGREGATED 를 보낼 때까지의 지연
+	private final LatencyHistogram delayHistogram = new LatencyHistogram();
+	// 앞당긴 라운드는 endAt 보다 일찍 집계되므로 앞당긴 기한부터의 지연을 따로 모은다
+	private final LatencyHistogram expeditedDelayHistogram = new LatencyHistogram();
+	// 같은 방에 타이머가 겹쳐 걸리지 않게 방마다 하나만 둔다
+	private final Map<String, ScheduledFuture<?>> armed = new ConcurrentHashMap<>();
+	// 모두 제출해 endAt 전에 집계를 앞당긴 라운드 수
+	private final AtomicLong expeditedCount = new AtomicLong();
+
+	public RoundAggregationTimer(RoundAggregationScheduler roundAggregationScheduler,
+		RoomRedisRepository roomRepository, ScoreWriteBuffer scoreWriteBuffer,
+		@Value("${backbone.aggregation.timer-threads:4}") int timerThreads,
+		@Value("${backbone.aggregation.all-submitted-grace-ms:1000}") long allSubmittedGraceMillis) {
+		this.roundAggregationScheduler = roundAggregationScheduler;
+		this.roomRepository = roomRepository;
+		this.scoreWriteBuffer = scoreWriteBuffer;
+		this.allSubmittedGraceMillis = allSubmittedGraceMillis;
+		AtomicInteger threadIndex = new AtomicInteger();
+		this.timer = new ScheduledThreadPoolExecutor(timerThreads,
+			runnable -> new Thread(runnable, "AggregationTimer-" + threadIndex.getAndIncrement()));
+		this.timer.setRemoveOnCancelPolicy(true);
+	}
+
+	public void arm(String roomCode, long endAt) {
+		arm(roomCode, endAt, delayHistogram);
+	}
+
+	// dueAt 은 endAt 이거나 앞당긴 기한이다. 집계가 끝나면 dueAt 부터의 지연을 histogram 에 남긴다
+	private void arm(String roomCode, long dueAt, LatencyHistogram histogram) {
+		// write-behind 모드면 다른 인스턴스 버퍼의 점수가 반영될 때까지 기다린다
+		long fireAt = dueAt + scoreWriteBuffer.getAggregationDelayMillis();
+		ScheduledFuture<?> previous = armed.put(roomCode,
+			timer.schedule(() -> fire(roomCode, dueAt, histogram), Math.max(0, fireAt - System.currentTimeMillis()),
+				TimeUnit.MILLISECONDS));
+		if (previous != null) {
+			previous.cancel(false);
+		}
+		log.debug("[AggregationTimer] armed room {} at {}", roomCode, fireAt);
+	}
+
+	// 마지막 플레이어의 제출을 반영한 인스턴스가 부른다
+	// pending 의 집계 기한을 앞당겨 두므로 이 인스턴스가 죽어도 fallback polling 이 앞당긴 기한으로 처리한다
+	// 라운드를 시작한 인스턴스의 endAt 타이머는 그대로 두고, 먼저 꺼낸 쪽이 집계한다
+	public void expedite(String roomCode) {
+		if (allSubmittedGraceMillis < 0) {
+			return;
+		}
+		try {
+			long dueAt = System.currentTimeMillis() + allSubmittedGraceMillis;
+			if (roomRepository.expediteAggregation(roomCode, dueAt)) {
+				expeditedCount.incrementAndGet();
+				arm(roomCode, dueAt, expeditedDelayHistogram);
+				log.info("[AggregationTimer] every player of room {} submitted, aggregating at {}", roomCode, dueAt);
+			}
+		} catch (RuntimeException e) {
+			// 앞당기지 못해도 endAt 에 집계된다
+			log.warn("[AggregationTimer] failed to expedite room {}", roomCode, e);
+		}
+	}
+
+	private void fire(String roomCode, long dueAt, LatencyHistogram histogram) {
+		roundAggregationScheduler.submit(roomCode, dueAt).whenComplete((outcome, e) -> {
+			if (e != null) {
+				armed.remove(roomCode);
+				log.error("[AggregationTimer] aggregation of room {} failed", roomCode, e);
+				return;
+			}
+			if (outcome == RoundAggregationScheduler.Outcome.NOT_DRAINED) {
+				armed.put(roomCode,
+					timer.schedule(() -> fire(roomCode, dueAt, histogram), DRAIN_RETRY_MILLIS, TimeUnit.MILLISECONDS));
+				return;
+			}
+			armed.remove(roomCode);
+			if (outcome == RoundAggregationScheduler.Outcome.AGGREGATED) {
+				long delay = System.currentTimeMillis() - dueAt;
+				histogram.record(delay);
+				log.info("[AggregationTimer] room {} aggregated {}ms after {}", roomCode, delay,
+					histogram == delayHistogram ? "endAt" : "expedited dueAt");
+			}
+		});
+	}
+
+	@Scheduled(fixedRate = 60_000)
+	public void logDelays() {
+		if (delayHistogram.getCount() > 0 || expeditedDelayHistogram.getCount() > 0) {
+			log.info("[AggregationTimer] armed={} expedited={} endAt->AGGREGATED {} expeditedDueAt->AGGREGATED {}",
+				armed.size(), expeditedCount.get(), delayHistogram.summary(), expeditedDelayHistogram.summary());
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		timer.shutdownNow();
+	}
+}
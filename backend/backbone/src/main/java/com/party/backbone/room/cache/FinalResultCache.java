@@ -0,0 +1,52 @@
+package com.party.backbone.room.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.model.FinalResultRecord;
+import com.party.backbone.room.model.RoomStateTTL;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 종료된 방의 최종 결과를 인스턴스 메모리에 둔다
+// 최종 결과는 한 번 정해지면 바뀌지 않으므로 invalidation 없이 ENDED 상태의 TTL 동안만 보관한다
+@Slf4j
+@Component
+public class FinalResultCache {
+	private final long maxAgeMillis = RoomStateTTL.ENDED.getTtl().toMillis();
+	private final Map<String, CachedRoom> rooms = new ConcurrentHashMap<>();
+
+	public FinalResultRecord get(String roomCode, String userId) {
+		CachedRoom cached = rooms.get(roomCode);
+		if (cached == null || System.currentTimeMillis() - cached.createdAt() >= maxAgeMillis) {
+			return null;
+		}
+		return cached.results().get(userId);
+	}
+
+	public void putAll(String roomCode, Map<String, FinalResultRecord> results) {
+		rooms.computeIfAbsent(roomCode, code -> new CachedRoom(new ConcurrentHashMap<>(), System.currentTimeMillis()))
+			.results().putAll(results);
+	}
+
+	public void put(String roomCode, String userId, FinalResultRecord result) {
+		putAll(roomCode, Map.of(userId, result));
+	}
+
+	public void remove(String roomCode) {
+		rooms.remove(roomCode);
+	}
+
+	@Scheduled(fixedRate = 60_000)
+	public void evictExpired() {
+		long now = System.currentTimeMillis();
+		rooms.entrySet().removeIf(entry -> now - entry.getValue().createdAt() >= maxAgeMillis);
+		log.debug("[FinalResultCache] rooms={}", rooms.size());
+	}
+
+	private record CachedRoom(Map<String, FinalResultRecord> results, long createdAt) {
+	}
+}
@@ -0,0 +1,121 @@
+package com.party.backbone.room.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.model.RoomMetadata;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 인스턴스마다 두는 방 메타데이터 near-cache
+// 방 상태를 바꾸는 쪽이 metadataVersion 을 올리고 채널에 "roomCode:version" 을 발행하면 모든 인스턴스가 해당 방을 비운다
+// pub/sub 메시지가 유실되는 경우에 대비해 항목은 maxAge 가 지나면 다시 읽는다
+@Slf4j
+@Component
+public class RoomMetadataCache implements MessageListener {
+	public static final String INVALIDATION_CHANNEL = "room:metadata:invalidation";
+	// 방이 삭제되었음을 알리는 version
+	public static final long DELETED_VERSION = -1;
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final long maxAgeMillis;
+
+	private final Map<String, CachedMetadata> entries = new ConcurrentHashMap<>();
+	// pub/sub 으로 받은 방별 최신 version. 이보다 오래된 version 을 읽어온 결과는 캐시하지 않는다
+	private final Map<String, Long> latestVersions = new ConcurrentHashMap<>();
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	public RoomMetadataCache(RedisTemplate<String, String> redisTemplate,
+		RedisMessageListenerContainer listenerContainer,
+		@Value("${backbone.room.metadata-cache.max-age-ms:30000}") long maxAgeMillis) {
+		this.redisTemplate = redisTemplate;
+		this.maxAgeMillis = maxAgeMillis;
+		listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+	}
+
+	public RoomMetadata get(String roomCode, Function<String, RoomMetadata> loader) {
+		long now = System.currentTimeMillis();
+		CachedMetadata cached = entries.get(roomCode);
+		if (cached != null && now - cached.loadedAt() < maxAgeMillis) {
+			hitCount.incrementAndGet();
+			return cached.metadata();
+		}
+
+		missCount.incrementAndGet();
+		RoomMetadata loaded = loader.apply(roomCode);
+		if (loaded != null && loaded.exists()) {
+			entries.compute(roomCode, (code, current) -> {
+				if (loaded.version() < latestVersions.getOrDefault(code, 0L)) {
+					return current;
+				}
+				if (current != null && current.metadata().version() > loaded.version()) {
+					return current;
+				}
+				return new CachedMetadata(loaded, now);
+			});
+		}
+		return loaded;
+	}
+
+	// Redis 를 읽지 않고 캐시에 있는 값만 본다. 오래됐을 수 있으므로 스크립트가 다시 확인하는 추정값으로만 쓴다
+	public RoomMetadata peek(String roomCode) {
+		CachedMetadata cached = entries.get(roomCode);
+		return cached == null ? null : cached.metadata();
+	}
+
+	// 로컬 캐시를 즉시 비우고 다른 인스턴스에도 알린다
+	public void invalidate(String roomCode, long version) {
+		evict(roomCode, version);
+		redisTemplate.convertAndSend(INVALIDATION_CHANNEL, roomCode + ":" + version);
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String body = new String(message.getBody());
+		int separator = body.lastIndexOf(':');
+		if (separator < 0) {
+			log.warn("[RoomMetadataCache] invalid invalidation message: {}", body);
+			return;
+		}
+		evict(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+	}
+
+	public double getHitRatio() {
+		long hits = hitCount.get();
+		long total = hits + missCount.get();
+		return total == 0 ? 0 : (double)hits / total;
+	}
+
+	@Scheduled(fixedRate = 60_000)
+	public void logStats() {
+		log.info("[RoomMetadataCache] rooms={} hits={} misses={} hitRatio={}", entries.size(), hitCount.get(),
+			missCount.get(), String.format("%.3f", getHitRatio()));
+	}
+
+	private void evict(String roomCode, long version) {
+		if (version == DELETED_VERSION) {
+			entries.remove(roomCode);
+			latestVersions.remove(roomCode);
+			return;
+		}
+		latestVersions.merge(roomCode, version, Math::max);
+		entries.computeIfPresent(roomCode,
+			(code, current) -> current.metadata().version() >= version ? current : null);
+	}
+
+	private record CachedMetadata(RoomMetadata metadata, long loadedAt) {
+	}
+}
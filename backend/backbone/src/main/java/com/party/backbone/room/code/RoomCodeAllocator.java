@@ -0,0 +1,186 @@
+package com.party.backbone.room.code;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.util.RoomKeyUtils;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// 비어 있는 방 코드를 미리 섞어 list 에 담아 두고 LPOP 한 번으로 할당한다
+// 반환된 코드는 list 끝에 붙으므로 방금 끝난 방의 코드가 바로 재사용되지 않는다
+// pool 과 할당 set 은 같은 hash tag 를 써서 cluster 에서도 한 스크립트로 다룰 수 있다
+@Slf4j
+@Component
+public class RoomCodeAllocator {
+	// 이미 할당된 코드가 pool 에 섞여 있을 때 건너뛸 최대 횟수
+	private static final int MAX_SKIPS = 16;
+	private static final int INIT_BATCH_SIZE = 10_000;
+	private static final Duration INIT_LOCK_TTL = Duration.ofMinutes(1);
+	// 다른 인스턴스가 pool 을 만드는 동안 다시 확인하는 간격
+	private static final long INIT_POLL_INTERVAL_MS = 100;
+	private static final RedisScript<String> ALLOCATE_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/allocate_room_code.lua"), String.class);
+	private static final RedisScript<Long> RELEASE_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/release_room_code.lua"), Long.class);
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final int spaceSize;
+	private final List<String> keys;
+	private final String initializedKey;
+	private final String initLockKey;
+
+	public RoomCodeAllocator(RedisTemplate<String, String> redisTemplate,
+		@Value("${backbone.room.code.space-size:1000000}") int spaceSize,
+		@Value("${backbone.room.code.namespace:roomCodes}") String namespace) {
+		if (spaceSize <= 0 || spaceSize > 1_000_000) {
+			throw new IllegalArgumentException("Room code space size must be between 1 and 1000000: " + spaceSize);
+		}
+		this.redisTemplate = redisTemplate;
+		this.spaceSize = spaceSize;
+		String prefix = "{" + namespace + "}";
+		this.keys = List.of(prefix + ":pool", prefix + ":allocated");
+		this.initializedKey = prefix + ":initialized";
+		this.initLockKey = prefix + ":initLock";
+	}
+
+	// 첫 createRoom 이 pool 을 만드느라 기다리지 않도록 기동할 때 미리 만든다
+	@PostConstruct
+	void preparePool() {
+		try {
+			if (!isInitialized()) {
+				tryInitializePool();
+			}
+		} catch (RuntimeException e) {
+			log.warn("[RoomCodeAllocator] pool preparation failed, will retry on first allocation: {}",
+				e.getMessage());
+		}
+	}
+
+	public String allocate() {
+		String code = redisTemplate.execute(ALLOCATE_SCRIPT, keys, String.valueOf(MAX_SKIPS));
+		if (code == null && !isInitialized()) {
+			awaitPool();
+			code = redisTemplate.execute(ALLOCATE_SCRIPT, keys, String.valueOf(MAX_SKIPS));
+		}
+		if (code == null) {
+			throw new IllegalStateException("No free room code left in the pool");
+		}
+		return code;
+	}
+
+	// 할당되지 않은 코드면 아무 일도 하지 않는다
+	public boolean release(String roomCode) {
+		Long released = redisTemplate.execute(RELEASE_SCRIPT, keys, roomCode);
+		return released != null && released == 1;
+	}
+
+	public long getFreeCount() {
+		return Objects.requireNonNullElse(redisTemplate.opsForList().size(keys.get(0)), 0L);
+	}
+
+	// 다른 인스턴스가 만드는 중이면 끝날 때까지 기다린다
+	// 그 인스턴스가 도중에 죽으면 lock 이 만료된 뒤 이 인스턴스가 이어서 만든다
+	private void awaitPool() {
+		long deadline = System.currentTimeMillis() + INIT_LOCK_TTL.toMillis() + INIT_POLL_INTERVAL_MS;
+		while (!isInitialized() && !tryInitializePool()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException("Room code pool is not initialized yet");
+			}
+			try {
+				Thread.sleep(INIT_POLL_INTERVAL_MS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the room code pool", e);
+			}
+		}
+	}
+
+	private boolean isInitialized() {
+		return Boolean.TRUE.equals(redisTemplate.hasKey(initializedKey));
+	}
+
+	// pool 은 최초 한 번만 만든다. 이미 떠 있는 방의 코드는 할당된 것으로 표시하고 pool 에서 뺀다
+	// return 이 호출이 만들었거나 이미 만들어져 있으면 true, 다른 인스턴스가 만드는 중이면 false
+	private boolean tryInitializePool() {
+		if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(initLockKey, "1", INIT_LOCK_TTL))) {
+			log.info("[RoomCodeAllocator] pool is being initialized by another instance");
+			return false;
+		}
+		try {
+			if (isInitialized()) {
+				return true;
+			}
+			Set<String> liveCodes = scanLiveRoomCodes();
+			// 코드 문자열 목록 대신 int 배열을 섞고, 문자열은 한 번에 보내는 batch 만큼만 만든다
+			int[] order = new int[spaceSize];
+			for (int i = 0; i < spaceSize; i++) {
+				order[i] = i;
+			}
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for (int i = spaceSize - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int swapped = order[i];
+				order[i] = order[j];
+				order[j] = swapped;
+			}
+
+			redisTemplate.delete(keys);
+			int freeCount = 0;
+			List<String> batch = new ArrayList<>(INIT_BATCH_SIZE);
+			for (int i = 0; i < spaceSize; i++) {
+				String code = String.format("%06d", order[i]);
+				if (liveCodes.contains(code)) {
+					continue;
+				}
+				batch.add(code);
+				if (batch.size() == INIT_BATCH_SIZE) {
+					redisTemplate.opsForList().rightPushAll(keys.get(0), batch);
+					freeCount += batch.size();
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) {
+				redisTemplate.opsForList().rightPushAll(keys.get(0), batch);
+				freeCount += batch.size();
+			}
+			if (!liveCodes.isEmpty()) {
+				redisTemplate.opsForSet().add(keys.get(1), liveCodes.toArray(String[]::new));
+			}
+			redisTemplate.opsForValue().set(initializedKey, String.valueOf(spaceSize));
+			log.info("[RoomCodeAllocator] pool initialized with {} free codes ({} in use)", freeCount,
+				liveCodes.size());
+			return true;
+		} finally {
+			redisTemplate.delete(initLockKey);
+		}
+	}
+
+	private Set<String> scanLiveRoomCodes() {
+		Set<String> liveCodes = new HashSet<>();
+		ScanOptions options = ScanOptions.scanOptions().match("room:{*}").count(1_000).build();
+		try (Cursor<String> cursor = redisTemplate.scan(options)) {
+			cursor.forEachRemaining(key -> {
+				String code = RoomKeyUtils.parseRoomCode(key);
+				if (code != null) {
+					liveCodes.add(code);
+				}
+			});
+		}
+		return liveCodes;
+	}
+}
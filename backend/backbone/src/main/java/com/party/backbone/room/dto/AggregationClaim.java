@@ -0,0 +1,11 @@
+package com.party.backbone.room.dto;
+
+// attempt 는 이번 라운드의 시도 횟수로, 꺼내지 못했으면 0
+// round 는 startGame 이 집계 대기에 넣으며 기록한 라운드. 게임 서버가 넣은 방처럼 모르면 0
+public record AggregationClaim(int attempt, int round) {
+	public static final AggregationClaim NONE = new AggregationClaim(0, 0);
+
+	public boolean claimed() {
+		return attempt > 0;
+	}
+}
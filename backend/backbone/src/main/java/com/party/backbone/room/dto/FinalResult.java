@@ -1,8 +0,0 @@
-package com.party.backbone.room.dto;
-
-public record FinalResult(
-	String userId,
-	String nickname,
-	int score
-) {
-}
@@ -1,5 +1,6 @@
 package com.party.backbone.room.dto;
 
+import java.util.List;
 import java.util.Map;
 
 import com.party.backbone.websocket.model.GameType;
@@ -14,7 +15,12 @@ public record ScoreAggregationResult(
 	int totalPlayerCount,
 	GameType gameType,
 	Map<String, Integer> roundScoreMap,
+	// 라운드 점수 내림차순, 동점이면 userId 내림차순
+	List<Map.Entry<String, Integer>> sortedRoundScores,
 	Map<String, Integer> totalScoreMap,
+	Map<String, Integer> overallRankMap,
+	Map<String, Integer> roundRankMap,
+	Map<String, String> rankRecordMap,
 	Map<String, String> nicknameMap
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.party.backbone.room.dto;
+
+public record ScoreIncrement(String userId, int round, long roundScore, long weightedScore) {
+}
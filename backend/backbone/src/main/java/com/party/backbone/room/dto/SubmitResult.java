@@ -0,0 +1,10 @@
+package com.party.backbone.room.dto;
+
+import com.party.backbone.room.model.SubmitStatus;
+
+// roundCompleted 는 이 제출로 모든 플레이어가 이번 라운드에 한 번 이상 제출했는지
+public record SubmitResult(SubmitStatus status, int round, boolean roundCompleted) {
+	public SubmitResult(SubmitStatus status, int round) {
+		this(status, round, false);
+	}
+}
@@ -0,0 +1,229 @@
+package com.party.backbone.room.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.party.backbone.room.model.RoomStateTTL;
+import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
+import com.party.backbone.websocket.model.GameType;
+
+// 인메모리 엔진의 방 하나. 플레이어는 입장 순서대로 index 를 받고 점수는 index 로 접근하는 primitive 배열에 둔다
+// 모든 접근은 InMemoryRoomRepository 의 방 단위 lock 안에서 일어나므로 스스로 동기화하지 않는다
+class InMemoryRoom {
+	private static final int INITIAL_CAPACITY = 16;
+
+	final String roomCode;
+	final String administratorId;
+	final long createdAt;
+	RoomStateTTL state;
+	int currentRound;
+	// 마지막으로 시작한 라운드. 0 이면 아직 시작하지 않음
+	// currentRound 가 이보다 크면 그 라운드는 이미 집계돼 넘어간 것이다
+	int startedRound;
+	int totalRound;
+	List<GameType> games = List.of();
+	// 이 시각이 지나면 snapshot key 가 만료되고 RoomExpirationListener 가 방을 정리한다
+	long expiresAt;
+	// 집계 대기 중인 라운드의 종료 시각. 0 이면 대기 중이 아님
+	long pendingEndAt;
+
+	private final Map<String, Integer> indexByUserId = new HashMap<>();
+	String[] userIds = new String[INITIAL_CAPACITY];
+	String[] nicknames = new String[INITIAL_CAPACITY];
+	// 라운드 가중치가 반영된 누적 점수
+	int[] totalScores = new int[INITIAL_CAPACITY];
+	// 현재 라운드 원점수. 가중치는 집계 때 곱한다
+	int[] roundScores = new int[INITIAL_CAPACITY];
+	boolean[] submitted = new boolean[INITIAL_CAPACITY];
+	String[] rankRecords = new String[INITIAL_CAPACITY];
+	// 0 이면 아직 최종 순위가 정해지지 않음
+	int[] finalRanks = new int[INITIAL_CAPACITY];
+	int playerCount;
+	// 이번 라운드 제출자를 라운드 점수 순으로, 전체 플레이어를 누적 점수 순으로 제출마다 갱신해 둔다
+	// 라운드가 끝났을 때 정렬 없이 앞에서부터 읽기만 하면 순위, top-k, 1등과 꼴등이 나온다
+	// TreeSet 안에 있는 동안 점수를 바꾸면 순서가 깨지므로 점수는 addScore 로만 바꾼다
+	final TreeSet<Integer> roundStandings = new TreeSet<>(this::compareRoundScores);
+	final TreeSet<Integer> totalStandings = new TreeSet<>(this::compareTotalScores);
+	// 반영된 submit requestId -> 반영 시각(ms), 반영 순서. Redis 모드의 idempotency key 처럼 TTL 이 지나면 잊어서
+	// 제출이 쌓여도 snapshot 크기가 최근 TTL 동안의 제출 수를 넘지 않는다
+	private final LinkedHashMap<String, Long> requestIds = new LinkedHashMap<>();
+	// 마지막 snapshot 이후 바뀐 게 있는지
+	boolean dirty = true;
+
+	InMemoryRoom(String roomCode, String administratorId, long createdAt) {
+		this.roomCode = roomCode;
+		this.administratorId = administratorId;
+		this.createdAt = createdAt;
+	}
+
+	void changeState(RoomStateTTL state) {
+		this.state = state;
+		this.expiresAt = System.currentTimeMillis() + state.getTtl().toMillis();
+		dirty = true;
+	}
+
+	int indexOf(String userId) {
+		Integer index = indexByUserId.get(userId);
+		return index == null ? -1 : index;
+	}
+
+	// 재입장이면 기존 index 를 그대로 쓰고 누적 점수도 유지한다
+	boolean addPlayer(String userId, String nickname) {
+		int index = indexOf(userId);
+		if (index >= 0) {
+			nicknames[index] = nickname;
+			dirty = true;
+			return false;
+		}
+		if (playerCount == userIds.length) {
+			grow(playerCount * 2);
+		}
+		index = playerCount++;
+		indexByUserId.put(userId, index);
+		userIds[index] = userId;
+		nicknames[index] = nickname;
+		rankRecords[index] = "";
+		totalStandings.add(index);
+		dirty = true;
+		return true;
+	}
+
+	// rawScore 는 라운드 원점수, weightedScore 는 라운드 가중치를 곱한 누적 점수 증가분
+	void addScore(int index, int rawScore, int weightedScore) {
+		roundStandings.remove(index);
+		totalStandings.remove(index);
+		roundScores[index] += rawScore;
+		totalScores[index] += weightedScore;
+		submitted[index] = true;
+		roundStandings.add(index);
+		totalStandings.add(index);
+		dirty = true;
+	}
+
+	boolean hasRequestId(String requestId, long now) {
+		expireRequestIds(now);
+		return requestIds.containsKey(requestId);
+	}
+
+	void addRequestId(String requestId, long now) {
+		expireRequestIds(now);
+		requestIds.put(requestId, now);
+		dirty = true;
+	}
+
+	private void expireRequestIds(long now) {
+		long ttl = IdempotencyRedisRepository.IDEMPOTENCY_TTL.toMillis();
+		Iterator<Long> claimedAts = requestIds.values().iterator();
+		while (claimedAts.hasNext() && now - claimedAts.next() >= ttl) {
+			claimedAts.remove();
+		}
+	}
+
+	List<String> getUserIds() {
+		return Arrays.asList(Arrays.copyOf(userIds, playerCount));
+	}
+
+	List<Map.Entry<String, Integer>> sortedTotalEntries(int limit) {
+		List<Map.Entry<String, Integer>> entries = new ArrayList<>(Math.min(limit, playerCount));
+		for (int index : totalStandings) {
+			if (entries.size() == limit) {
+				break;
+			}
+			entries.add(Map.entry(userIds[index], totalScores[index]));
+		}
+		return entries;
+	}
+
+	// 자신보다 누적 점수가 높은 플레이어 수 + 1. 앞에서부터 자신의 점수에 닿을 때까지만 센다
+	int overallRankOf(int index) {
+		int higher = 0;
+		for (int other : totalStandings) {
+			if (totalScores[other] <= totalScores[index]) {
+				break;
+			}
+			higher++;
+		}
+		return higher + 1;
+	}
+
+	// 점수 내림차순, 동점이면 userId 내림차순. Redis ZREVRANGE 와 같은 순서
+	private int compareRoundScores(Integer a, Integer b) {
+		return roundScores[a] != roundScores[b]
+			? Integer.compare(roundScores[b], roundScores[a])
+			: userIds[b].compareTo(userIds[a]);
+	}
+
+	private int compareTotalScores(Integer a, Integer b) {
+		return totalScores[a] != totalScores[b]
+			? Integer.compare(totalScores[b], totalScores[a])
+			: userIds[b].compareTo(userIds[a]);
+	}
+
+	void resetRound() {
+		roundStandings.clear();
+		Arrays.fill(roundScores, 0, playerCount, 0);
+		Arrays.fill(submitted, 0, playerCount, false);
+	}
+
+	RoomSnapshot toSnapshot() {
+		expireRequestIds(System.currentTimeMillis());
+		dirty = false;
+		return new RoomSnapshot(roomCode, administratorId, createdAt, state, currentRound, startedRound, totalRound,
+			games, expiresAt, pendingEndAt,
+			Arrays.copyOf(userIds, playerCount), Arrays.copyOf(nicknames, playerCount),
+			Arrays.copyOf(totalScores, playerCount), Arrays.copyOf(roundScores, playerCount),
+			Arrays.copyOf(submitted, playerCount), Arrays.copyOf(rankRecords, playerCount),
+			Arrays.copyOf(finalRanks, playerCount), new LinkedHashMap<>(requestIds));
+	}
+
+	static InMemoryRoom fromSnapshot(RoomSnapshot snapshot) {
+		InMemoryRoom room = new InMemoryRoom(snapshot.roomCode(), snapshot.administratorId(), snapshot.createdAt());
+		room.state = snapshot.state();
+		room.currentRound = snapshot.currentRound();
+		room.startedRound = snapshot.startedRound();
+		room.totalRound = snapshot.totalRound();
+		room.games = snapshot.games() == null ? List.of() : List.copyOf(snapshot.games());
+		room.expiresAt = snapshot.expiresAt();
+		room.pendingEndAt = snapshot.pendingEndAt();
+		int count = snapshot.userIds().length;
+		room.grow(Math.max(INITIAL_CAPACITY, count));
+		for (int index = 0; index < count; index++) {
+			room.indexByUserId.put(snapshot.userIds()[index], index);
+		}
+		System.arraycopy(snapshot.userIds(), 0, room.userIds, 0, count);
+		System.arraycopy(snapshot.nicknames(), 0, room.nicknames, 0, count);
+		System.arraycopy(snapshot.totalScores(), 0, room.totalScores, 0, count);
+		System.arraycopy(snapshot.roundScores(), 0, room.roundScores, 0, count);
+		System.arraycopy(snapshot.submitted(), 0, room.submitted, 0, count);
+		System.arraycopy(snapshot.rankRecords(), 0, room.rankRecords, 0, count);
+		System.arraycopy(snapshot.finalRanks(), 0, room.finalRanks, 0, count);
+		room.playerCount = count;
+		for (int index = 0; index < count; index++) {
+			room.totalStandings.add(index);
+			if (room.submitted[index]) {
+				room.roundStandings.add(index);
+			}
+		}
+		if (snapshot.requestIds() != null) {
+			room.requestIds.putAll(snapshot.requestIds());
+		}
+		room.dirty = false;
+		return room;
+	}
+
+	private void grow(int capacity) {
+		userIds = Arrays.copyOf(userIds, capacity);
+		nicknames = Arrays.copyOf(nicknames, capacity);
+		totalScores = Arrays.copyOf(totalScores, capacity);
+		roundScores = Arrays.copyOf(roundScores, capacity);
+		submitted = Arrays.copyOf(submitted, capacity);
+		rankRecords = Arrays.copyOf(rankRecords, capacity);
+		finalRanks = Arrays.copyOf(finalRanks, capacity);
+	}
+}
@@ -0,0 +1,632 @@
+package com.party.backbone.room.memory;
+
+import static com.party.backbone.room.RoomRedisRepositoryImpl.*;
+import static com.party.backbone.room.util.RedisPipelineUtils.*;
+import static com.party.backbone.room.util.RoomKeyUtils.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.room.RoomRedisRepository;
+import com.party.backbone.room.RoomRedisRepositoryImpl;
+import com.party.backbone.room.code.RoomCodeAllocator;
+import com.party.backbone.room.dto.AggregationClaim;
+import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.dto.SubmitResult;
+import com.party.backbone.room.model.FinalResultRecord;
+import com.party.backbone.room.model.RedisAccessMode;
+import com.party.backbone.room.model.RoomStateTTL;
+import com.party.backbone.room.model.SubmitStatus;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.room.util.RankingUtils;
+import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
+import com.party.backbone.websocket.model.GameType;
+import com.party.backbone.websocket.model.RankingInfo;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// 한 대로 충분한 행사용 방 저장소. 방 상태를 인스턴스 메모리에 두고 Redis 는 복구용 snapshot 에만 쓴다
+// snapshot 은 주기적으로 비동기 기록되므로 인스턴스가 죽으면 마지막 snapshot 이후의 변경은 잃는다
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "backbone.room.engine", havingValue = "in-memory")
+public class InMemoryRoomRepository implements RoomRedisRepository {
+	// 같은 방의 연산은 같은 lock 으로 직렬화하고, 다른 방끼리는 stripe 수만큼 동시에 처리한다
+	private static final int LOCK_STRIPES = 256;
+	// snapshot 이 있는 방 목록. 재시작 시 이 set 으로 복구할 방을 찾는다
+	private static final String SNAPSHOT_INDEX_KEY = "inMemoryRooms";
+	private static final String SNAPSHOT_FIELD = "snapshot";
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final RoomCodeAllocator roomCodeAllocator;
+	private final ObjectMapper objectMapper;
+	private final AggregationShards aggregationShards;
+	private final Map<String, InMemoryRoom> rooms = new ConcurrentHashMap<>();
+	// getDueRooms 가 모든 방의 lock 을 잡지 않도록 집계 대기 방만 따로 둔다
+	private final Map<String, Long> pendingRooms = new ConcurrentHashMap<>();
+	// 집계 중인 방 -> lease 만료 시각. 인스턴스가 죽으면 함께 사라지지만 방의 pendingEndAt 이 남아 복구 때 다시 pending 이 된다
+	private final Map<String, Long> aggregationLeases = new ConcurrentHashMap<>();
+	// 방 -> 이번 라운드 집계 시도 횟수
+	private final Map<String, Integer> aggregationAttempts = new ConcurrentHashMap<>();
+	// 방 -> startGame 이 집계 대기에 넣은 라운드. claim 한 쪽은 이 라운드만 집계한다
+	private final Map<String, Integer> aggregationRounds = new ConcurrentHashMap<>();
+	// pending, lease, 시도 횟수를 함께 옮길 때 잡는다
+	private final Object aggregationLock = new Object();
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+	public InMemoryRoomRepository(RedisTemplate<String, String> redisTemplate, RoomCodeAllocator roomCodeAllocator,
+		ObjectMapper objectMapper, AggregationShards aggregationShards,
+		@Value("${backbone.redis.access-mode:blocking}") String redisAccessMode) {
+		// reactive 경로는 Redis 의 방 key 를 직접 읽으므로 인메모리 방을 보지 못한다
+		if (RedisAccessMode.fromProperty(redisAccessMode) == RedisAccessMode.REACTIVE) {
+			throw new IllegalStateException("in-memory room engine requires backbone.redis.access-mode=blocking");
+		}
+		this.redisTemplate = redisTemplate;
+		this.roomCodeAllocator = roomCodeAllocator;
+		this.objectMapper = objectMapper;
+		this.aggregationShards = aggregationShards;
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	@PostConstruct
+	public void restore() {
+		Set<String> roomCodes = Optional.ofNullable(redisTemplate.opsForSet().members(SNAPSHOT_INDEX_KEY))
+			.orElse(Set.of());
+		for (String roomCode : roomCodes) {
+			Object json = redisTemplate.opsForHash().get(getRoomKey(roomCode), SNAPSHOT_FIELD);
+			if (json == null) {
+				// snapshot 이 만료된 방은 이미 정리 대상이다
+				redisTemplate.opsForSet().remove(SNAPSHOT_INDEX_KEY, roomCode);
+				continue;
+			}
+			try {
+				InMemoryRoom room = InMemoryRoom.fromSnapshot(objectMapper.readValue(json.toString(), RoomSnapshot.class));
+				rooms.put(roomCode, room);
+				if (room.pendingEndAt > 0) {
+					pendingRooms.put(roomCode, room.pendingEndAt);
+				}
+			} catch (JsonProcessingException e) {
+				log.error("[InMemoryRoom] failed to restore room {}", roomCode, e);
+			}
+		}
+		log.info("[InMemoryRoom] restored {} rooms from snapshots", rooms.size());
+	}
+
+	@Override
+	public void createRoom(String roomCode, String administratorId) {
+		InMemoryRoom room = new InMemoryRoom(roomCode, administratorId, System.currentTimeMillis());
+		room.changeState(RoomStateTTL.CREATED);
+		withRoom(roomCode, existing -> rooms.put(roomCode, room));
+		log.info("[createRoom] room {} created in memory", roomCode);
+	}
+
+	@Override
+	public String generateUniqueRoomCode() {
+		return roomCodeAllocator.allocate();
+	}
+
+	@Override
+	public void deleteRoom(String roomCode) {
+		withRoom(roomCode, room -> rooms.remove(roomCode));
+		pendingRooms.remove(roomCode);
+		aggregationLeases.remove(roomCode);
+		aggregationAttempts.remove(roomCode);
+		aggregationRounds.remove(roomCode);
+		redisTemplate.unlink(List.of(getRoomKey(roomCode), getSequencesKey(roomCode)));
+		redisTemplate.opsForSet().remove(SNAPSHOT_INDEX_KEY, roomCode);
+		roomCodeAllocator.release(roomCode);
+		log.info("[deleteRoom] room {} removed from memory", roomCode);
+	}
+
+	@Override
+	public void initializeRoom(String roomCode, List<GameType> games, int totalRound) {
+		withExistingRoom(roomCode, room -> {
+			room.totalRound = totalRound;
+			room.currentRound = 1;
+			room.startedRound = 0;
+			room.games = List.copyOf(games);
+			room.changeState(RoomStateTTL.WAITING);
+			return null;
+		});
+	}
+
+	@Override
+	public boolean exists(String roomCode) {
+		return rooms.containsKey(roomCode);
+	}
+
+	@Override
+	public void addPlayer(String roomCode, String userId, String nickname) {
+		withExistingRoom(roomCode, room -> room.addPlayer(userId, nickname));
+	}
+
+	@Override
+	public List<String> getUserIds(String roomCode) {
+		return withRoom(roomCode, room -> room == null ? List.of() : room.getUserIds());
+	}
+
+	@Override
+	public String getAdministratorIdOfRoom(String roomCode) {
+		return withRoom(roomCode, room -> room == null ? null : room.administratorId);
+	}
+
+	@Override
+	public int getUserCount(String roomCode) {
+		return withRoom(roomCode, room -> room == null ? 0 : room.playerCount);
+	}
+
+	@Override
+	public RoundInfo startGame(String roomCode) {
+		return withExistingRoom(roomCode, room -> {
+			if (room.state != RoomStateTTL.WAITING) {
+				throw new IllegalStateException("[startGame] 현재 상태가 WAITING이 아닙니다: " + room.state);
+			}
+			GameType gameType = gameAt(room, room.currentRound);
+			long currentMs = System.currentTimeMillis();
+			long startAt = currentMs + DEFAULT_GAME_START_OFFSET;
+			long duration = gameType.getDuration();
+			long endAt = startAt + duration;
+
+			room.changeState(RoomStateTTL.PLAYING);
+			room.startedRound = room.currentRound;
+			room.resetRound();
+			room.pendingEndAt = endAt;
+			// 이전 라운드의 lease 와 시도 횟수를 지워 남은 재시도가 새 라운드를 건드리지 못하게 한다
+			synchronized (aggregationLock) {
+				pendingRooms.put(roomCode, endAt);
+				aggregationLeases.remove(roomCode);
+				aggregationAttempts.remove(roomCode);
+				aggregationRounds.put(roomCode, room.startedRound);
+			}
+			return new RoundInfo(gameType, startAt, duration, currentMs);
+		});
+	}
+
+	@Override
+	public void updateScore(String roomCode, String userId, int score) {
+		withExistingRoom(roomCode, room -> {
+			if (room.state != RoomStateTTL.PLAYING) {
+				log.error("[updateScore] Room {} is not in PLAYING state. Skipping score update.", roomCode);
+				throw new IllegalStateException("Room is not in PLAYING state");
+			}
+			int index = room.indexOf(userId);
+			if (index < 0) {
+				throw new IllegalArgumentException("[updateScore] Unknown userId : " + userId + " for room : " + roomCode);
+			}
+			applyScore(room, index, score);
+			return null;
+		});
+	}
+
+	// submit.lua 와 같은 순서로 검증한다
+	@Override
+	public SubmitResult submitScore(String roomCode, String userId, String requestId, GameType gameType, int score) {
+		return withRoom(roomCode, room -> {
+			if (room == null) {
+				return new SubmitResult(SubmitStatus.NOT_PLAYER, 0);
+			}
+			long now = System.currentTimeMillis();
+			if (requestId != null && room.hasRequestId(requestId, now)) {
+				return new SubmitResult(SubmitStatus.DUPLICATE, 0);
+			}
+			int index = room.indexOf(userId);
+			if (index < 0) {
+				return new SubmitResult(SubmitStatus.NOT_PLAYER, 0);
+			}
+			int round = room.currentRound;
+			if (round < 1 || round > room.games.size()) {
+				return new SubmitResult(SubmitStatus.NOT_PLAYING, round);
+			}
+			if (room.games.get(round - 1) != gameType) {
+				return new SubmitResult(SubmitStatus.GAME_MISMATCH, round);
+			}
+			if (room.state != RoomStateTTL.PLAYING) {
+				return new SubmitResult(SubmitStatus.NOT_PLAYING, round);
+			}
+			boolean firstSubmit = !room.submitted[index];
+			applyScore(room, index, score);
+			if (requestId != null) {
+				room.addRequestId(requestId, now);
+			}
+			return new SubmitResult(SubmitStatus.ACCEPTED, round,
+				firstSubmit && room.roundStandings.size() == room.playerCount);
+		});
+	}
+
+	// 점수는 메모리에 바로 반영되므로 비울 버퍼가 없다
+	@Override
+	public void flushBufferedScores(String roomCode) {
+	}
+
+	@Override
+	public Map<String, Long> getDueRooms(int shard, long currentTimeMillis, int limit) {
+		Map<String, Long> dueRooms = new LinkedHashMap<>();
+		pendingRooms.entrySet().stream()
+			.filter(entry -> entry.getValue() <= currentTimeMillis)
+			.filter(entry -> aggregationShards.shardOf(entry.getKey()) == shard)
+			.sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+			.limit(limit)
+			.forEach(entry -> dueRooms.put(entry.getKey(), entry.getValue()));
+		return dueRooms;
+	}
+
+	@Override
+	public AggregationClaim claimAggregation(String roomCode, long now, long leaseUntil) {
+		synchronized (aggregationLock) {
+			Long dueAt = pendingRooms.get(roomCode);
+			if (dueAt == null || dueAt > now || !pendingRooms.remove(roomCode, dueAt)) {
+				return AggregationClaim.NONE;
+			}
+			aggregationLeases.put(roomCode, leaseUntil);
+			return new AggregationClaim(aggregationAttempts.merge(roomCode, 1, Integer::sum),
+				aggregationRounds.getOrDefault(roomCode, 0));
+		}
+	}
+
+	@Override
+	public boolean expediteAggregation(String roomCode, long dueAt) {
+		synchronized (aggregationLock) {
+			Long current = pendingRooms.get(roomCode);
+			if (current == null || current <= dueAt) {
+				return false;
+			}
+			pendingRooms.put(roomCode, dueAt);
+		}
+		updatePendingEndAt(roomCode, dueAt);
+		return true;
+	}
+
+	@Override
+	public boolean completeAggregation(String roomCode, int attempt) {
+		if (!releaseAggregationLease(roomCode, attempt, true)) {
+			return false;
+		}
+		updatePendingEndAt(roomCode, 0);
+		return true;
+	}
+
+	@Override
+	public boolean retryAggregation(String roomCode, int attempt, long retryAt) {
+		synchronized (aggregationLock) {
+			if (!releaseAggregationLease(roomCode, attempt, false)) {
+				return false;
+			}
+			pendingRooms.put(roomCode, retryAt);
+		}
+		updatePendingEndAt(roomCode, retryAt);
+		return true;
+	}
+
+	@Override
+	public boolean deadLetterAggregation(String roomCode, int attempt) {
+		if (!releaseAggregationLease(roomCode, attempt, true)) {
+			return false;
+		}
+		updatePendingEndAt(roomCode, 0);
+		return true;
+	}
+
+	@Override
+	public List<String> requeueExpiredAggregations(int shard, long now) {
+		List<String> requeued = new ArrayList<>();
+		synchronized (aggregationLock) {
+			aggregationLeases.forEach((roomCode, leaseUntil) -> {
+				if (leaseUntil <= now && aggregationShards.shardOf(roomCode) == shard) {
+					requeued.add(roomCode);
+				}
+			});
+			for (String roomCode : requeued) {
+				aggregationLeases.remove(roomCode);
+				pendingRooms.put(roomCode, now);
+			}
+		}
+		return requeued;
+	}
+
+	// attempt 번째 시도가 아직 lease 를 갖고 있을 때만 lease 를 놓는다
+	private boolean releaseAggregationLease(String roomCode, int attempt, boolean finished) {
+		synchronized (aggregationLock) {
+			Integer currentAttempt = aggregationAttempts.get(roomCode);
+			if (currentAttempt == null || currentAttempt != attempt || aggregationLeases.remove(roomCode) == null) {
+				return false;
+			}
+			if (finished) {
+				aggregationAttempts.remove(roomCode);
+				aggregationRounds.remove(roomCode);
+			}
+			return true;
+		}
+	}
+
+	private void updatePendingEndAt(String roomCode, long pendingEndAt) {
+		withRoom(roomCode, room -> {
+			if (room != null) {
+				room.pendingEndAt = pendingEndAt;
+				room.dirty = true;
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public ScoreAggregationResult aggregateScores(String roomCode, int expectedRound) {
+		return withExistingRoom(roomCode, room -> {
+			if (expectedRound > 0 && room.startedRound != expectedRound) {
+				log.warn("[aggregateScores] room {} already started the round after {}, skipping", roomCode,
+					expectedRound);
+				return null;
+			}
+			room.changeState(RoomStateTTL.WAITING);
+			// 이전 시도가 라운드를 넘긴 뒤 메시지 전송에서 실패했어도 같은 라운드를 다시 집계한다
+			// 라운드 점수는 다음 startGame 에서야 지워지므로 같은 결과가 다시 만들어진다
+			int currentRound = room.startedRound > 0 ? room.startedRound : room.currentRound;
+			boolean committed = room.currentRound > currentRound;
+			GameType gameType = gameAt(room, currentRound);
+
+			Map<String, Integer> roundScoreMap = new HashMap<>();
+			Map<String, String> nicknameMap = new HashMap<>();
+			List<Map.Entry<String, Integer>> sortedRoundScores = new ArrayList<>();
+			// 제출할 때마다 정렬 상태로 유지해 온 순서를 그대로 읽는다
+			for (int index : room.roundStandings) {
+				String userId = room.userIds[index];
+				int roundScore = applyRoundMultiplier(room.roundScores[index], currentRound);
+				roundScoreMap.put(userId, roundScore);
+				nicknameMap.put(userId, room.nicknames[index]);
+				sortedRoundScores.add(Map.entry(userId, roundScore));
+			}
+			Map<String, Integer> roundRankMap = RankingUtils.calculateRanks(sortedRoundScores);
+
+			// 미제출자는 0 으로 기록한다
+			Map<String, String> rankRecordMap = new HashMap<>();
+			for (int index = 0; index < room.playerCount; index++) {
+				String userId = room.userIds[index];
+				rankRecordMap.put(userId, committed ? room.rankRecords[index]
+					: appendRankRecord(room, index, roundRankMap.getOrDefault(userId, 0)));
+			}
+
+			var sortedTotalScores = room.sortedTotalEntries(room.playerCount);
+			Map<String, Integer> totalScoreMap = new HashMap<>();
+			sortedTotalScores.forEach(entry -> totalScoreMap.put(entry.getKey(), entry.getValue()));
+			Map<String, Integer> overallRankMap = RankingUtils.calculateRanks(sortedTotalScores);
+
+			int roundPlayerCount = sortedRoundScores.size();
+			room.currentRound = currentRound + 1;
+			log.info("[aggregateScores] room {} round {} {} {} players in memory", roomCode, currentRound,
+				committed ? "re-aggregated" : "aggregated", room.playerCount);
+			return ScoreAggregationResult.builder()
+				.currentRound(currentRound)
+				.totalRound(room.totalRound)
+				.gameType(gameType)
+				.roundScoreMap(roundScoreMap)
+				.sortedRoundScores(sortedRoundScores)
+				.totalScoreMap(totalScoreMap)
+				.overallRankMap(overallRankMap)
+				.roundRankMap(roundRankMap)
+				.rankRecordMap(rankRecordMap)
+				.nicknameMap(nicknameMap)
+				.roundPlayerCount(roundPlayerCount)
+				.totalPlayerCount(room.playerCount)
+				.build();
+		});
+	}
+
+	@Override
+	public String updateRankRecord(String roomCode, String userId, int roundRank) {
+		return appendRankRecords(roomCode, Map.of(userId, roundRank)).get(userId);
+	}
+
+	@Override
+	public Map<String, String> appendRankRecords(String roomCode, Map<String, Integer> roundRanks) {
+		return withExistingRoom(roomCode, room -> {
+			Map<String, String> rankRecords = new HashMap<>();
+			roundRanks.forEach((userId, rank) -> {
+				int index = room.indexOf(userId);
+				if (index >= 0) {
+					rankRecords.put(userId, appendRankRecord(room, index, rank));
+				}
+			});
+			return rankRecords;
+		});
+	}
+
+	@Override
+	public GameType getGame(String roomCode, int round) {
+		return withExistingRoom(roomCode, room -> gameAt(room, round));
+	}
+
+	@Override
+	public List<RankingInfo> getFinalResults(String roomCode) {
+		return withExistingRoom(roomCode, room -> {
+			List<RankingInfo> finalRanks = toRankingInfos(room, room.sortedTotalEntries(room.playerCount));
+			for (RankingInfo rankInfo : finalRanks) {
+				room.finalRanks[room.indexOf(rankInfo.userId())] = rankInfo.rank();
+			}
+			room.dirty = true;
+			return finalRanks;
+		});
+	}
+
+	@Override
+	public List<RankingInfo> getOverallTopK(String roomCode, int k) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k must be positive");
+		}
+		return withExistingRoom(roomCode, room -> toRankingInfos(room, room.sortedTotalEntries(k)));
+	}
+
+	@Override
+	public Integer getOverallRank(String roomCode, String userId) {
+		return withRoom(roomCode, room -> {
+			int index = room == null ? -1 : room.indexOf(userId);
+			if (index < 0) {
+				return null;
+			}
+			return room.overallRankOf(index);
+		});
+	}
+
+	// 종료 시점의 순위를 고정해 두고 이후 CHECK_ENDED 는 배열만 읽는다
+	@Override
+	public void endGame(String roomCode) {
+		withExistingRoom(roomCode, room -> {
+			var sortedTotalScores = room.sortedTotalEntries(room.playerCount);
+			RankingUtils.calculateRanks(sortedTotalScores)
+				.forEach((userId, rank) -> room.finalRanks[room.indexOf(userId)] = rank);
+			room.changeState(RoomStateTTL.ENDED);
+			return null;
+		});
+	}
+
+	@Override
+	public Boolean hasPlayer(String roomCode, String userId) {
+		return withRoom(roomCode, room -> room != null && room.indexOf(userId) >= 0);
+	}
+
+	@Override
+	public Boolean validateSubmit(String roomCode, GameType gameType) {
+		return withExistingRoom(roomCode, room -> gameAt(room, room.currentRound) == gameType);
+	}
+
+	@Override
+	public CheckEndedAckMessage checkEnded(String roomCode, String userId) {
+		return withExistingRoom(roomCode, room -> {
+			int index = room.indexOf(userId);
+			if (index < 0) {
+				throw RoomRedisRepositoryImpl.unknownPlayer(roomCode, userId);
+			}
+			if (room.state == RoomStateTTL.ENDED) {
+				return new FinalResultRecord(room.rankRecords[index], room.totalScores[index], room.finalRanks[index],
+					room.playerCount).toAckMessage();
+			}
+			Integer finalRank = room.finalRanks[index] == 0 ? null : room.finalRanks[index];
+			return new CheckEndedAckMessage(false, room.rankRecords[index], room.totalScores[index], finalRank,
+				room.playerCount);
+		});
+	}
+
+	// 바뀐 방만 모아 한 번의 pipeline 으로 기록한다. snapshot key 의 만료가 곧 방의 만료이므로
+	// Redis 엔진과 같이 RoomExpirationListener 가 방을 정리한다
+	@Scheduled(fixedDelayString = "${backbone.room.in-memory.snapshot-interval-ms:500}")
+	public void snapshot() {
+		Map<String, RoomSnapshot> snapshots = new HashMap<>();
+		for (String roomCode : rooms.keySet()) {
+			RoomSnapshot snapshot = withRoom(roomCode,
+				room -> room != null && room.dirty ? room.toSnapshot() : null);
+			if (snapshot != null) {
+				snapshots.put(roomCode, snapshot);
+			}
+		}
+		if (snapshots.isEmpty()) {
+			return;
+		}
+
+		Map<String, String> encoded = new HashMap<>();
+		snapshots.forEach((roomCode, snapshot) -> {
+			try {
+				encoded.put(roomCode, objectMapper.writeValueAsString(snapshot));
+			} catch (JsonProcessingException e) {
+				log.error("[InMemoryRoom] failed to encode snapshot of room {}", roomCode, e);
+			}
+		});
+		try {
+			pipelined(redisTemplate, operations -> encoded.forEach((roomCode, json) -> {
+				String roomKey = getRoomKey(roomCode);
+				RoomSnapshot snapshot = snapshots.get(roomCode);
+				operations.opsForHash().putAll(roomKey, Map.of(
+					"roomCode", roomCode,
+					"state", snapshot.state().name(),
+					SNAPSHOT_FIELD, json));
+				operations.expireAt(roomKey, Instant.ofEpochMilli(snapshot.expiresAt()));
+				operations.opsForSet().add(SNAPSHOT_INDEX_KEY, roomCode);
+			}));
+		} catch (RuntimeException e) {
+			// 다음 주기에 다시 기록한다
+			snapshots.keySet().forEach(roomCode -> withRoom(roomCode, room -> {
+				if (room != null) {
+					room.dirty = true;
+				}
+				return null;
+			}));
+			log.warn("[InMemoryRoom] failed to write {} snapshots, will retry", snapshots.size(), e);
+			return;
+		}
+		log.debug("[InMemoryRoom] wrote {} snapshots", encoded.size());
+	}
+
+	private void applyScore(InMemoryRoom room, int index, int score) {
+		room.addScore(index, score, applyRoundMultiplier(score, room.currentRound));
+	}
+
+	// append_rank_records.lua 와 같은 형식
+	private static String appendRankRecord(InMemoryRoom room, int index, int rank) {
+		String prev = room.rankRecords[index];
+		String updated = prev == null || prev.isEmpty() ? String.valueOf(rank) : prev + "|" + rank;
+		room.rankRecords[index] = updated;
+		room.dirty = true;
+		return updated;
+	}
+
+	private static GameType gameAt(InMemoryRoom room, int round) {
+		int roundIndex = round - 1;
+		if (roundIndex < 0 || roundIndex >= room.games.size()) {
+			throw new IllegalStateException(
+				"No game type found at index " + roundIndex + " for room " + room.roomCode);
+		}
+		return room.games.get(roundIndex);
+	}
+
+	private static List<RankingInfo> toRankingInfos(InMemoryRoom room, List<Map.Entry<String, Integer>> sortedEntries) {
+		Map<String, Integer> ranks = RankingUtils.calculateRanks(sortedEntries);
+		List<RankingInfo> rankings = new ArrayList<>(sortedEntries.size());
+		for (var entry : sortedEntries) {
+			String nickname = room.nicknames[room.indexOf(entry.getKey())];
+			if (nickname == null) {
+				log.warn("[toRankingInfos] Missing nickname for userId: {}", entry.getKey());
+				continue;
+			}
+			rankings.add(new RankingInfo(entry.getKey(), nickname, entry.getValue(), ranks.get(entry.getKey())));
+		}
+		return rankings;
+	}
+
+	private <T> T withRoom(String roomCode, Function<InMemoryRoom, T> action) {
+		ReentrantLock lock = locks[Math.floorMod(roomCode.hashCode(), LOCK_STRIPES)];
+		lock.lock();
+		try {
+			return action.apply(rooms.get(roomCode));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private <T> T withExistingRoom(String roomCode, Function<InMemoryRoom, T> action) {
+		return withRoom(roomCode, room -> {
+			if (room == null) {
+				throw new IllegalStateException("[InMemoryRoom] room " + roomCode + " does not exist");
+			}
+			return action.apply(room);
+		});
+	}
+}
@@ -0,0 +1,32 @@
+package com.party.backbone.room.memory;
+
+import java.util.List;
+import java.util.LinkedHashMap;
+
+import com.party.backbone.room.model.RoomStateTTL;
+import com.party.backbone.websocket.model.GameType;
+
+// 인메모리 방을 재시작 후 복구하기 위해 room:{code} hash 의 snapshot field 에 JSON 으로 남기는 상태
+// 배열은 모두 플레이어 index 순서이고 길이는 플레이어 수와 같다
+public record RoomSnapshot(
+	String roomCode,
+	String administratorId,
+	long createdAt,
+	RoomStateTTL state,
+	int currentRound,
+	int startedRound,
+	int totalRound,
+	List<GameType> games,
+	long expiresAt,
+	long pendingEndAt,
+	String[] userIds,
+	String[] nicknames,
+	int[] totalScores,
+	int[] roundScores,
+	boolean[] submitted,
+	String[] rankRecords,
+	int[] finalRanks,
+	// requestId -> 반영 시각(ms). 반영 순서를 지키도록 LinkedHashMap 으로 읽고 쓴다
+	LinkedHashMap<String, Long> requestIds
+) {
+}
@@ -0,0 +1,32 @@
+package com.party.backbone.room.model;
+
+import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
+
+// 게임 종료 시점에 고정되는 플레이어별 최종 결과. room:{code}:finalResults hash 에 한 field 로 저장된다
+public record FinalResultRecord(
+	String rankRecord,
+	int totalScore,
+	int finalRank,
+	int totalPlayerCount
+) {
+	private static final String SEPARATOR = ":";
+
+	// rankRecord 는 '|' 구분자를 포함하므로 마지막에 둔다
+	public String encode() {
+		return finalRank + SEPARATOR + totalScore + SEPARATOR + totalPlayerCount + SEPARATOR
+			+ (rankRecord == null ? "" : rankRecord);
+	}
+
+	public static FinalResultRecord decode(String encoded) {
+		String[] parts = encoded.split(SEPARATOR, 4);
+		if (parts.length != 4) {
+			throw new IllegalArgumentException("Invalid final result record: " + encoded);
+		}
+		return new FinalResultRecord(parts[3], Integer.parseInt(parts[1]), Integer.parseInt(parts[0]),
+			Integer.parseInt(parts[2]));
+	}
+
+	public CheckEndedAckMessage toAckMessage() {
+		return new CheckEndedAckMessage(true, rankRecord, totalScore, finalRank, totalPlayerCount);
+	}
+}
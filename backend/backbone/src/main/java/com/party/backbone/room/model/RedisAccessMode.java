@@ -0,0 +1,26 @@
+package com.party.backbone.room.model;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+@Getter
+public enum RedisAccessMode {
+	// 핸들러가 컨테이너 스레드에서 Redis 응답을 기다린다
+	BLOCKING("blocking"),
+	// SUBMIT, CHECK_ENDED 처럼 자주 오는 메시지는 reactive 경로로 처리하고 스레드를 바로 돌려준다
+	REACTIVE("reactive");
+
+	private final String propertyValue;
+
+	RedisAccessMode(String propertyValue) {
+		this.propertyValue = propertyValue;
+	}
+
+	public static RedisAccessMode fromProperty(String value) {
+		return Arrays.stream(values())
+			.filter(mode -> mode.propertyValue.equalsIgnoreCase(value))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown redis access mode: " + value));
+	}
+}
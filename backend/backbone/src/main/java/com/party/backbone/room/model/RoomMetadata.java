@@ -0,0 +1,19 @@
+package com.party.backbone.room.model;
+
+import java.util.List;
+
+import com.party.backbone.websocket.model.GameType;
+
+// 메시지마다 다시 읽던 방 메타데이터. version 은 방 hash 의 metadataVersion 으로, 변경될 때마다 증가한다
+public record RoomMetadata(
+	String administratorId,
+	List<GameType> games,
+	int totalRound,
+	int currentRound,
+	String state,
+	long version
+) {
+	public boolean exists() {
+		return state != null;
+	}
+}
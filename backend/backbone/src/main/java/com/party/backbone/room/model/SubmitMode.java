@@ -0,0 +1,28 @@
+package com.party.backbone.room.model;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+@Getter
+public enum SubmitMode {
+	// 제출마다 스크립트가 점수까지 바로 반영
+	DIRECT("direct"),
+	// 스크립트는 검증/멱등성만 처리하고, 점수는 메모리에 모았다가 주기적으로 한 번에 반영
+	WRITE_BEHIND("write-behind"),
+	// 제출은 shard 별 Redis Stream 에 적재만 하고, consumer group worker 가 모아서 반영
+	STREAM("stream");
+
+	private final String propertyValue;
+
+	SubmitMode(String propertyValue) {
+		this.propertyValue = propertyValue;
+	}
+
+	public static SubmitMode fromProperty(String value) {
+		return Arrays.stream(values())
+			.filter(mode -> mode.propertyValue.equalsIgnoreCase(value))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown submit mode: " + value));
+	}
+}
@@ -0,0 +1,29 @@
+package com.party.backbone.room.model;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+@Getter
+public enum SubmitStatus {
+	ACCEPTED(1),
+	DUPLICATE(0),
+	NOT_PLAYER(-1),
+	GAME_MISMATCH(-2),
+	NOT_PLAYING(-3),
+	// 스크립트에 넘긴 라운드 key 가 현재 라운드의 것이 아니어서 반영하지 않았다. repository 가 현재 라운드로 다시 보낸다
+	ROUND_CHANGED(-4);
+
+	private final int code;
+
+	SubmitStatus(int code) {
+		this.code = code;
+	}
+
+	public static SubmitStatus fromCode(int code) {
+		return Arrays.stream(values())
+			.filter(status -> status.code == code)
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown submit status code: " + code));
+	}
+}
@@ -0,0 +1,140 @@
+package com.party.backbone.room.shard;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+// 살아 있는 backbone 인스턴스끼리 집계 shard 를 나눠 갖는다
+// 인스턴스는 heartbeat 마다 aggregationInstances zset 에 자신을 갱신하고, 살아 있는 인스턴스 목록으로
+// rendezvous hashing 을 해 자기 몫의 shard lease 만 잡는다. 자기 몫이 아니게 된 shard 는 놓아 준다
+// 인스턴스가 들어오거나 나가면 몫이 바뀐 shard 만 옮겨 가고, 죽은 인스턴스의 lease 는 만료되면 다른 인스턴스가 가져간다
+// 집계를 한 번만 하는 건 여전히 pending 에서 먼저 꺼낸 쪽이 정하므로, lease 가 잠깐 겹치거나 비어도 결과는 같다
+@Slf4j
+@Component
+public class AggregationShardOwnership {
+	public static final String INSTANCES_KEY = "aggregationInstances";
+	public static final String LEASE_KEY_PREFIX = "aggregationShardLease:";
+	private static final RedisScript<Long> RENEW_LEASE_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/renew_lease.lua"), Long.class);
+	private static final RedisScript<Long> RELEASE_LEASE_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/release_lease.lua"), Long.class);
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final AggregationShards aggregationShards;
+	// heartbeat 가 이 시간 동안 없으면 죽은 인스턴스로 보고, lease 도 같은 시간 뒤에 만료된다
+	private final long leaseMillis;
+	@Getter
+	private final String instanceId = UUID.randomUUID().toString();
+	private final Set<Integer> ownedShards = ConcurrentHashMap.newKeySet();
+
+	public AggregationShardOwnership(RedisTemplate<String, String> redisTemplate,
+		AggregationShards aggregationShards,
+		@Value("${backbone.aggregation.shard-lease-ms:6000}") long leaseMillis) {
+		this.redisTemplate = redisTemplate;
+		this.aggregationShards = aggregationShards;
+		this.leaseMillis = leaseMillis;
+	}
+
+	public Set<Integer> getOwnedShards() {
+		return Set.copyOf(ownedShards);
+	}
+
+	@Scheduled(fixedRateString = "${backbone.aggregation.heartbeat-interval-ms:2000}")
+	public void heartbeat() {
+		try {
+			long now = System.currentTimeMillis();
+			redisTemplate.opsForZSet().add(INSTANCES_KEY, instanceId, now);
+			redisTemplate.opsForZSet().removeRangeByScore(INSTANCES_KEY, 0, now - leaseMillis);
+			Set<String> liveInstances = redisTemplate.opsForZSet().range(INSTANCES_KEY, 0, -1);
+			List<String> instances = liveInstances == null ? List.of(instanceId) : new ArrayList<>(liveInstances);
+
+			Set<Integer> before = new TreeSet<>(ownedShards);
+			for (int shard = 0; shard < aggregationShards.getShardCount(); shard++) {
+				if (instanceId.equals(ownerOf(instances, shard))) {
+					holdLease(shard);
+				} else if (ownedShards.remove(shard)) {
+					releaseLease(shard);
+				}
+			}
+			if (!before.equals(ownedShards)) {
+				log.info("[AggregationShard] {} of {} live instances owns shards {}", instanceId, instances.size(),
+					new TreeSet<>(ownedShards));
+			}
+		} catch (Exception e) {
+			log.error("[AggregationShard] heartbeat failed", e);
+		}
+	}
+
+	// 종료할 때 lease 를 바로 놓아 다른 인스턴스가 만료를 기다리지 않고 가져가게 한다
+	@PreDestroy
+	public void stop() {
+		for (Integer shard : getOwnedShards()) {
+			releaseLease(shard);
+		}
+		ownedShards.clear();
+		redisTemplate.opsForZSet().remove(INSTANCES_KEY, instanceId);
+	}
+
+	private void holdLease(int shard) {
+		String leaseKey = LEASE_KEY_PREFIX + shard;
+		boolean held = false;
+		if (ownedShards.contains(shard)) {
+			Long renewed = redisTemplate.execute(RENEW_LEASE_SCRIPT, List.of(leaseKey), instanceId,
+				String.valueOf(leaseMillis));
+			held = renewed != null && renewed == 1;
+		}
+		if (!held) {
+			// 이전 주인이 아직 놓지 않았으면 다음 heartbeat 에 다시 시도한다
+			held = Boolean.TRUE.equals(
+				redisTemplate.opsForValue().setIfAbsent(leaseKey, instanceId, Duration.ofMillis(leaseMillis)));
+		}
+		if (held) {
+			ownedShards.add(shard);
+		} else {
+			ownedShards.remove(shard);
+		}
+	}
+
+	private void releaseLease(int shard) {
+		redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(LEASE_KEY_PREFIX + shard), instanceId);
+	}
+
+	// 모든 인스턴스가 같은 목록으로 같은 답을 내고, 인스턴스 하나가 빠지거나 더해져도 그 인스턴스 몫의 shard 만 움직인다
+	static String ownerOf(List<String> instances, int shard) {
+		String owner = null;
+		long maxWeight = Long.MIN_VALUE;
+		for (String instance : instances) {
+			long weight = weight(instance, shard);
+			if (owner == null || weight > maxWeight || (weight == maxWeight && instance.compareTo(owner) > 0)) {
+				owner = instance;
+				maxWeight = weight;
+			}
+		}
+		return owner;
+	}
+
+	private static long weight(String instance, int shard) {
+		long hash = instance.hashCode() * 0x9E3779B97F4A7C15L + shard;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,51 @@
+package com.party.backbone.room.shard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+
+// 집계 대기 방을 roomCode 로 정해지는 shard 별 zset(pendingAggregationRooms:{shard})에 나눠 둔다
+// shard 하나는 AggregationShardOwnership 의 lease 를 가진 인스턴스 하나만 polling 한다
+// 한 shard 의 key 는 모두 {shard} hash tag 를 가져 Lua 스크립트로 함께 옮길 수 있다
+@Component
+public class AggregationShards {
+	private static final String PENDING_KEY_PREFIX = "pendingAggregationRooms:";
+	// 집계 중인 방 -> lease 만료 시각
+	private static final String LEASE_KEY_PREFIX = "aggregationLeases:";
+	// 방 -> 이번 라운드 집계 시도 횟수
+	private static final String ATTEMPTS_KEY_PREFIX = "aggregationAttempts:";
+	// 재시도를 다 쓴 방 -> 포기한 시각
+	private static final String DEAD_LETTER_KEY_PREFIX = "aggregationDeadLetter:";
+
+	@Getter
+	private final int shardCount;
+
+	public AggregationShards(@Value("${backbone.aggregation.shards:16}") int shardCount) {
+		this.shardCount = shardCount;
+	}
+
+	public String getPendingKey(int shard) {
+		return PENDING_KEY_PREFIX + "{" + shard + "}";
+	}
+
+	public String getLeaseKey(int shard) {
+		return LEASE_KEY_PREFIX + "{" + shard + "}";
+	}
+
+	public String getAttemptsKey(int shard) {
+		return ATTEMPTS_KEY_PREFIX + "{" + shard + "}";
+	}
+
+	public String getDeadLetterKey(int shard) {
+		return DEAD_LETTER_KEY_PREFIX + "{" + shard + "}";
+	}
+
+	public String getPendingKey(String roomCode) {
+		return getPendingKey(shardOf(roomCode));
+	}
+
+	public int shardOf(String roomCode) {
+		return Math.floorMod(roomCode.hashCode(), shardCount);
+	}
+}
@@ -0,0 +1,62 @@
+package com.party.backbone.room.shard;
+
+import java.util.Set;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// shard 로 나누기 전의 단일 pendingAggregationRooms 에 남은 방을 shard 별 zset 으로 옮긴다
+// 시작할 때 한 번 옮기고, 배포 중 아직 예전 key 에 쓰는 게임 서버가 남아 있을 수 있어 주기적으로 다시 본다
+@Slf4j
+@Component
+public class LegacyPendingMigration {
+	static final String LEGACY_PENDING_KEY = "pendingAggregationRooms";
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final AggregationShards aggregationShards;
+
+	public LegacyPendingMigration(RedisTemplate<String, String> redisTemplate, AggregationShards aggregationShards) {
+		this.redisTemplate = redisTemplate;
+		this.aggregationShards = aggregationShards;
+	}
+
+	@PostConstruct
+	public void migrateOnStart() {
+		try {
+			migrate();
+		} catch (RuntimeException e) {
+			log.warn("[LegacyPendingMigration] failed to drain {} on start", LEGACY_PENDING_KEY, e);
+		}
+	}
+
+	@Scheduled(fixedDelay = 60_000)
+	public void migrateRemaining() {
+		try {
+			migrate();
+		} catch (RuntimeException e) {
+			log.warn("[LegacyPendingMigration] failed to drain {}", LEGACY_PENDING_KEY, e);
+		}
+	}
+
+	// 옮긴 방 수. shard 에 이미 있는 방은 그쪽 집계 시각을 유지한다
+	int migrate() {
+		Set<ZSetOperations.TypedTuple<String>> rooms =
+			redisTemplate.opsForZSet().rangeWithScores(LEGACY_PENDING_KEY, 0, -1);
+		if (rooms == null || rooms.isEmpty()) {
+			return 0;
+		}
+		for (ZSetOperations.TypedTuple<String> room : rooms) {
+			String roomCode = room.getValue();
+			String pendingKey = aggregationShards.getPendingKey(roomCode);
+			redisTemplate.opsForZSet().addIfAbsent(pendingKey, roomCode, room.getScore());
+			redisTemplate.opsForZSet().remove(LEGACY_PENDING_KEY, roomCode);
+		}
+		log.info("[LegacyPendingMigration] moved {} rooms from {} to shard keys", rooms.size(), LEGACY_PENDING_KEY);
+		return rooms.size();
+	}
+}
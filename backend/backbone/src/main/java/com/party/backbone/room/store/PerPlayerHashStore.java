@@ -0,0 +1,97 @@
+package com.party.backbone.room.store;
+
+import static com.party.backbone.room.util.RedisPipelineUtils.*;
+import static com.party.backbone.room.util.RoomKeyUtils.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// 플레이어마다 room:{code}:player:{userId} hash 하나를 두는 기본 저장 방식
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "backbone.room.player-storage", havingValue = "per-player", matchIfMissing = true)
+public class PerPlayerHashStore implements PlayerStore {
+	private static final Duration PLAYER_BASE_TTL = Duration.ofHours(2);
+
+	private final RedisTemplate<String, String> redisTemplate;
+
+	@Override
+	public void addPlayer(String roomCode, String userId, String nickname) {
+		String playerKey = getPlayerKey(roomCode, userId);
+		Map<String, String> playerData = Map.of(
+			"userId", userId,
+			PlayerField.NICKNAME.getFieldName(), nickname,
+			PlayerField.SCORE.getFieldName(), "0",
+			PlayerField.RANK_RECORD.getFieldName(), ""
+		);
+
+		pipelined(redisTemplate, operations -> {
+			operations.opsForHash().putAll(playerKey, playerData);
+			operations.expire(playerKey, PLAYER_BASE_TTL);
+		});
+	}
+
+	@Override
+	public Map<String, Map<PlayerField, String>> getFields(String roomCode, Collection<String> userIds,
+		PlayerField... fields) {
+		List<String> orderedUserIds = List.copyOf(userIds);
+		List<Object> hashFields = Arrays.stream(fields).map(field -> (Object)field.getFieldName()).toList();
+		List<Object> results = pipelined(redisTemplate, operations -> {
+			for (String userId : orderedUserIds) {
+				operations.opsForHash().multiGet(getPlayerKey(roomCode, userId), hashFields);
+			}
+		});
+
+		Map<String, Map<PlayerField, String>> fieldsByUserId = new HashMap<>();
+		for (int i = 0; i < orderedUserIds.size(); i++) {
+			List<?> values = (List<?>)results.get(i);
+			Map<PlayerField, String> valueByField = new EnumMap<>(PlayerField.class);
+			for (int j = 0; j < fields.length; j++) {
+				Object value = values.get(j);
+				valueByField.put(fields[j], value == null ? null : value.toString());
+			}
+			fieldsByUserId.put(orderedUserIds.get(i), valueByField);
+		}
+		return fieldsByUserId;
+	}
+
+	@Override
+	public void putField(String roomCode, PlayerField field, Map<String, String> valueByUserId) {
+		if (valueByUserId.isEmpty()) {
+			return;
+		}
+		pipelined(redisTemplate, operations -> valueByUserId.forEach((userId, value) ->
+			operations.opsForHash().put(getPlayerKey(roomCode, userId), field.getFieldName(), value)));
+	}
+
+	@Override
+	public void incrementScore(String roomCode, String userId, long delta) {
+		redisTemplate.opsForHash().increment(getPlayerKey(roomCode, userId), PlayerField.SCORE.getFieldName(), delta);
+	}
+
+	@Override
+	public String getHashKey(String roomCode, String userId, PlayerField field) {
+		return getPlayerKey(roomCode, userId);
+	}
+
+	@Override
+	public String getHashField(String userId, PlayerField field) {
+		return field.getFieldName();
+	}
+
+	@Override
+	public List<String> getKeys(String roomCode, Collection<String> userIds) {
+		return userIds.stream().map(userId -> getPlayerKey(roomCode, userId)).toList();
+	}
+}
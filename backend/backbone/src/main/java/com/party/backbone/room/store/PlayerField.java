@@ -0,0 +1,17 @@
+package com.party.backbone.room.store;
+
+import lombok.Getter;
+
+@Getter
+public enum PlayerField {
+	NICKNAME("nickname"),
+	SCORE("score"),
+	RANK_RECORD("rankRecord"),
+	FINAL_RANK("finalRank");
+
+	private final String fieldName;
+
+	PlayerField(String fieldName) {
+		this.fieldName = fieldName;
+	}
+}
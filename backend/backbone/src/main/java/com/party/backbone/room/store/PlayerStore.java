@@ -0,0 +1,25 @@
+package com.party.backbone.room.store;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// 방에 속한 플레이어 정보(nickname, score, rankRecord, finalRank)의 저장 방식
+// 모든 bulk 연산은 플레이어 수와 무관하게 한 번의 왕복으로 처리한다
+public interface PlayerStore {
+	void addPlayer(String roomCode, String userId, String nickname);
+
+	Map<String, Map<PlayerField, String>> getFields(String roomCode, Collection<String> userIds,
+		PlayerField... fields);
+
+	void putField(String roomCode, PlayerField field, Map<String, String> valueByUserId);
+
+	void incrementScore(String roomCode, String userId, long delta);
+
+	// 스크립트에서 플레이어의 필드를 직접 읽고 쓸 때 쓰는 hash key 와 그 안의 field
+	String getHashKey(String roomCode, String userId, PlayerField field);
+
+	String getHashField(String userId, PlayerField field);
+
+	List<String> getKeys(String roomCode, Collection<String> userIds);
+}
@@ -0,0 +1,100 @@
+package com.party.backbone.room.store;
+
+import static com.party.backbone.room.util.RedisPipelineUtils.*;
+import static com.party.backbone.room.util.RoomKeyUtils.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// 필드마다 room:{code}:{field}s hash 하나에 userId 를 field 로 모아 두는 저장 방식
+// 플레이어 수와 관계없이 방마다 key 가 4개로 고정되고, 작은 hash 는 listpack 으로 인코딩되어 메모리가 줄어든다
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "backbone.room.player-storage", havingValue = "per-room")
+public class RoomHashPlayerStore implements PlayerStore {
+	private static final Duration PLAYER_BASE_TTL = Duration.ofHours(2);
+
+	private final RedisTemplate<String, String> redisTemplate;
+
+	@Override
+	public void addPlayer(String roomCode, String userId, String nickname) {
+		pipelined(redisTemplate, operations -> {
+			operations.opsForHash().put(getFieldKey(roomCode, PlayerField.NICKNAME), userId, nickname);
+			operations.opsForHash().put(getFieldKey(roomCode, PlayerField.SCORE), userId, "0");
+			operations.opsForHash().put(getFieldKey(roomCode, PlayerField.RANK_RECORD), userId, "");
+			for (PlayerField field : List.of(PlayerField.NICKNAME, PlayerField.SCORE, PlayerField.RANK_RECORD)) {
+				operations.expire(getFieldKey(roomCode, field), PLAYER_BASE_TTL);
+			}
+		});
+	}
+
+	@Override
+	public Map<String, Map<PlayerField, String>> getFields(String roomCode, Collection<String> userIds,
+		PlayerField... fields) {
+		List<Object> orderedUserIds = List.copyOf(userIds);
+		Map<String, Map<PlayerField, String>> fieldsByUserId = new HashMap<>();
+		if (orderedUserIds.isEmpty()) {
+			return fieldsByUserId;
+		}
+
+		List<Object> results = pipelined(redisTemplate, operations -> Arrays.stream(fields).forEach(field ->
+			operations.opsForHash().multiGet(getFieldKey(roomCode, field), orderedUserIds)));
+
+		for (int i = 0; i < orderedUserIds.size(); i++) {
+			Map<PlayerField, String> valueByField = new EnumMap<>(PlayerField.class);
+			for (int j = 0; j < fields.length; j++) {
+				Object value = ((List<?>)results.get(j)).get(i);
+				valueByField.put(fields[j], value == null ? null : value.toString());
+			}
+			fieldsByUserId.put(orderedUserIds.get(i).toString(), valueByField);
+		}
+		return fieldsByUserId;
+	}
+
+	@Override
+	public void putField(String roomCode, PlayerField field, Map<String, String> valueByUserId) {
+		if (valueByUserId.isEmpty()) {
+			return;
+		}
+		String key = getFieldKey(roomCode, field);
+		pipelined(redisTemplate, operations -> {
+			operations.opsForHash().putAll(key, valueByUserId);
+			operations.expire(key, PLAYER_BASE_TTL);
+		});
+	}
+
+	@Override
+	public void incrementScore(String roomCode, String userId, long delta) {
+		redisTemplate.opsForHash().increment(getFieldKey(roomCode, PlayerField.SCORE), userId, delta);
+	}
+
+	@Override
+	public String getHashKey(String roomCode, String userId, PlayerField field) {
+		return getFieldKey(roomCode, field);
+	}
+
+	@Override
+	public String getHashField(String userId, PlayerField field) {
+		return userId;
+	}
+
+	@Override
+	public List<String> getKeys(String roomCode, Collection<String> userIds) {
+		return Arrays.stream(PlayerField.values()).map(field -> getFieldKey(roomCode, field)).toList();
+	}
+
+	private String getFieldKey(String roomCode, PlayerField field) {
+		return getRoomKey(roomCode) + ":" + field.getFieldName() + "s";
+	}
+}
@@ -0,0 +1,31 @@
+package com.party.backbone.room.submit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.RoomRedisRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScoreFlushScheduler {
+	private final RoomRedisRepository roomRepository;
+	private final ScoreWriteBuffer scoreWriteBuffer;
+
+	@Scheduled(fixedDelayString = "${backbone.submit.write-behind.flush-interval-ms:50}")
+	public void flushBufferedScores() {
+		if (!scoreWriteBuffer.isEnabled()) {
+			return;
+		}
+		for (String roomCode : scoreWriteBuffer.getBufferedRooms()) {
+			try {
+				roomRepository.flushBufferedScores(roomCode);
+			} catch (Exception e) {
+				log.error("[ScoreFlushScheduler] flush failed for room {}", roomCode, e);
+			}
+		}
+	}
+}
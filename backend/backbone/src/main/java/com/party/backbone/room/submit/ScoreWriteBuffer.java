@@ -0,0 +1,88 @@
+package com.party.backbone.room.submit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.dto.ScoreIncrement;
+import com.party.backbone.room.model.SubmitMode;
+
+import lombok.Getter;
+
+// write-behind 모드에서 방/라운드/유저별 점수 증가분을 모아 두는 버퍼
+// 같은 유저의 여러 제출은 하나의 증가분으로 합쳐지고, flush 주기(flushIntervalMillis)가 곧 유실 가능한 최대 구간이다
+@Component
+public class ScoreWriteBuffer {
+	@Getter
+	private final boolean enabled;
+	@Getter
+	private final long flushIntervalMillis;
+	private final Map<String, RoomBuffer> rooms = new ConcurrentHashMap<>();
+
+	public ScoreWriteBuffer(
+		@Value("${backbone.submit.mode:direct}") String submitMode,
+		@Value("${backbone.submit.write-behind.flush-interval-ms:50}") long flushIntervalMillis) {
+		this.enabled = SubmitMode.fromProperty(submitMode) == SubmitMode.WRITE_BEHIND;
+		this.flushIntervalMillis = flushIntervalMillis;
+	}
+
+	public void add(String roomCode, int round, String userId, long roundScore, long weightedScore) {
+		rooms.computeIfAbsent(roomCode, code -> new RoomBuffer()).add(round, userId, roundScore, weightedScore);
+	}
+
+	// 버퍼에 쌓인 증가분을 꺼내고 비운다
+	public List<ScoreIncrement> drain(String roomCode) {
+		RoomBuffer buffer = rooms.get(roomCode);
+		return buffer == null ? List.of() : buffer.drain();
+	}
+
+	// flush 에 실패한 증가분을 다음 flush 때 다시 반영하도록 되돌린다
+	public void restore(String roomCode, List<ScoreIncrement> increments) {
+		for (ScoreIncrement increment : increments) {
+			add(roomCode, increment.round(), increment.userId(), increment.roundScore(), increment.weightedScore());
+		}
+	}
+
+	public Set<String> getBufferedRooms() {
+		return rooms.keySet();
+	}
+
+	public void remove(String roomCode) {
+		rooms.remove(roomCode);
+	}
+
+	// 다른 인스턴스가 flush 중인 증가분까지 반영되도록 집계를 flush 두 주기만큼 늦춘다
+	public long getAggregationDelayMillis() {
+		return enabled ? flushIntervalMillis * 2 : 0;
+	}
+
+	private static class RoomBuffer {
+		private Map<BufferKey, long[]> increments = new HashMap<>();
+
+		synchronized void add(int round, String userId, long roundScore, long weightedScore) {
+			long[] sums = increments.computeIfAbsent(new BufferKey(round, userId), key -> new long[2]);
+			sums[0] += roundScore;
+			sums[1] += weightedScore;
+		}
+
+		synchronized List<ScoreIncrement> drain() {
+			if (increments.isEmpty()) {
+				return List.of();
+			}
+			List<ScoreIncrement> drained = new ArrayList<>(increments.size());
+			increments.forEach((key, sums) ->
+				drained.add(new ScoreIncrement(key.userId(), key.round(), sums[0], sums[1])));
+			increments = new HashMap<>();
+			return drained;
+		}
+	}
+
+	private record BufferKey(int round, String userId) {
+	}
+}
@@ -0,0 +1,151 @@
+package com.party.backbone.room.submit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.model.SubmitMode;
+import com.party.backbone.websocket.model.GameType;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+// stream 모드에서 SUBMIT 을 shard 별 Redis Stream(submitStream:{shard})에 적재하고,
+// 집계 전에 적재된 제출이 모두 반영됐는지 consumer group 의 진행 상황으로 판단한다
+// 방은 roomCode 로 shard 가 정해지므로 한 방의 제출은 항상 같은 stream 에 순서대로 쌓인다
+@Slf4j
+@Component
+public class SubmitStream {
+	public static final String CONSUMER_GROUP = "submit-workers";
+	public static final String FIELD_ROOM = "room";
+	public static final String FIELD_USER = "user";
+	public static final String FIELD_REQUEST = "request";
+	public static final String FIELD_GAME = "game";
+	public static final String FIELD_SCORE = "score";
+	public static final String FIELD_ROUND = "round";
+	private static final String STREAM_KEY_PREFIX = "submitStream:";
+
+	private final RedisTemplate<String, String> redisTemplate;
+	@Getter
+	private final boolean enabled;
+	@Getter
+	private final int shardCount;
+
+	private final AtomicLong appendedCount = new AtomicLong();
+	private final AtomicLong appliedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+	// 적재부터 반영까지 걸린 최대 시간. 통계를 남길 때마다 초기화한다
+	private final AtomicLong maxApplyLagMillis = new AtomicLong();
+
+	public SubmitStream(RedisTemplate<String, String> redisTemplate,
+		@Value("${backbone.submit.mode:direct}") String submitMode,
+		@Value("${backbone.submit.stream.shards:8}") int shardCount) {
+		this.redisTemplate = redisTemplate;
+		this.enabled = SubmitMode.fromProperty(submitMode) == SubmitMode.STREAM;
+		this.shardCount = shardCount;
+	}
+
+	public String getStreamKey(int shard) {
+		return STREAM_KEY_PREFIX + shard;
+	}
+
+	public int shardOf(String roomCode) {
+		return Math.floorMod(roomCode.hashCode(), shardCount);
+	}
+
+	// round 는 적재할 때 확인한 라운드로, worker 는 현재 라운드와 다르면 반영하지 않고 버린다
+	public RecordId append(String roomCode, String userId, String requestId, int round, GameType gameType,
+		int score) {
+		Map<String, String> fields = new HashMap<>();
+		fields.put(FIELD_ROOM, roomCode);
+		fields.put(FIELD_USER, userId);
+		fields.put(FIELD_ROUND, String.valueOf(round));
+		fields.put(FIELD_GAME, gameType.name());
+		fields.put(FIELD_SCORE, String.valueOf(score));
+		// sequence 로 중복을 거른 제출은 requestId 없이 적재된다
+		if (requestId != null) {
+			fields.put(FIELD_REQUEST, requestId);
+		}
+		RecordId recordId = redisTemplate.opsForStream().add(getStreamKey(shardOf(roomCode)), fields);
+		appendedCount.incrementAndGet();
+		return recordId;
+	}
+
+	// upToMillis(라운드의 집계 기한) 이전에 적재된 제출이 모두 worker 에게 전달되고 ack 됐으면 true
+	// 기한 뒤에 계속 들어오는 제출 때문에 집계가 밀리지 않도록 기한까지만 본다
+	// 한 stream 안에서는 적재 순서대로 전달되므로 마지막 전달 id 와 가장 오래된 미처리 id 만 보면 된다
+	public boolean isDrained(String roomCode, long upToMillis) {
+		String streamKey = getStreamKey(shardOf(roomCode));
+		StreamInfo.XInfoGroup group = findGroup(streamKey);
+		if (group == null) {
+			log.warn("[SubmitStream] consumer group is missing on {}", streamKey);
+			return false;
+		}
+		RecordId lastDelivered = RecordId.of(group.lastDeliveredId());
+		RecordId lastGenerated = RecordId.of(redisTemplate.opsForStream().info(streamKey).lastGeneratedId());
+		boolean delivered = compare(lastDelivered, lastGenerated) >= 0 || lastDelivered.getTimestamp() > upToMillis;
+		if (!delivered) {
+			return false;
+		}
+		if (group.pendingCount() == 0) {
+			return true;
+		}
+		PendingMessagesSummary pending = redisTemplate.opsForStream().pending(streamKey, CONSUMER_GROUP);
+		String oldestPending = pending.minMessageId();
+		return oldestPending == null || RecordId.of(oldestPending).getTimestamp() > upToMillis;
+	}
+
+	public void recordApplied(int applied, int rejected, long oldestAppendedAt) {
+		appliedCount.addAndGet(applied);
+		rejectedCount.addAndGet(rejected);
+		maxApplyLagMillis.accumulateAndGet(System.currentTimeMillis() - oldestAppendedAt, Math::max);
+	}
+
+	@Scheduled(fixedRate = 10_000)
+	public void logLag() {
+		if (!enabled) {
+			return;
+		}
+		List<String> shards = new ArrayList<>(shardCount);
+		for (int shard = 0; shard < shardCount; shard++) {
+			String streamKey = getStreamKey(shard);
+			try {
+				StreamInfo.XInfoGroup group = findGroup(streamKey);
+				StreamInfo.XInfoStream info = redisTemplate.opsForStream().info(streamKey);
+				RecordId lastGenerated = RecordId.of(info.lastGeneratedId());
+				RecordId lastDelivered = group == null ? RecordId.of("0-0") : RecordId.of(group.lastDeliveredId());
+				// 아직 어떤 worker 도 읽지 않은 가장 최근 제출이 얼마나 밀려 있는지
+				long deliveryLagMillis = compare(lastDelivered, lastGenerated) >= 0
+					? 0 : lastGenerated.getTimestamp() - lastDelivered.getTimestamp();
+				shards.add(shard + "(len=" + info.streamLength() + ", pending="
+					+ (group == null ? 0 : group.pendingCount()) + ", lag=" + deliveryLagMillis + "ms)");
+			} catch (RuntimeException e) {
+				shards.add(shard + "(unavailable)");
+			}
+		}
+		log.info("[SubmitStream] appended={} applied={} rejected={} maxApplyLag={}ms shards={}",
+			appendedCount.get(), appliedCount.get(), rejectedCount.get(), maxApplyLagMillis.getAndSet(0), shards);
+	}
+
+	private StreamInfo.XInfoGroup findGroup(String streamKey) {
+		return redisTemplate.opsForStream().groups(streamKey).stream()
+			.filter(group -> CONSUMER_GROUP.equals(group.groupName()))
+			.findFirst()
+			.orElse(null);
+	}
+
+	static int compare(RecordId a, RecordId b) {
+		int byTimestamp = Long.compare(a.getTimestamp(), b.getTimestamp());
+		return byTimestamp != 0 ? byTimestamp : Long.compare(a.getSequence(), b.getSequence());
+	}
+}
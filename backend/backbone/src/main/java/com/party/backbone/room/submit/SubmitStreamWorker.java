@@ -0,0 +1,355 @@
+package com.party.backbone.room.submit;
+
+import static com.party.backbone.room.util.RoomKeyUtils.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.RoundAggregationTimer;
+import com.party.backbone.room.store.PlayerField;
+import com.party.backbone.room.store.PlayerStore;
+import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// submitStream 을 consumer group 으로 읽어 방 단위로 모아 반영하는 worker
+// shard 는 worker 스레드에 나눠 배정하고, 여러 인스턴스의 worker 는 같은 group 에서 제출을 나눠 가진다
+@Slf4j
+@Component
+public class SubmitStreamWorker {
+	private static final Duration READ_BLOCK = Duration.ofMillis(100);
+	// 이 시간 넘게 ack 되지 않은 제출은 worker 가 죽은 것으로 보고 가져와 다시 반영한다
+	// reclaim 주기(2초)를 더해도 집계가 stream 을 기다리는 최대 시간(max-drain-wait-ms, 10초)보다 짧아야
+	// 죽은 worker 가 들고 있던 제출이 집계 전에 반영된다
+	private static final Duration RECLAIM_IDLE = Duration.ofSeconds(3);
+	// 스크립트 한 번에 반영할 최대 제출 수. 스크립트가 Redis 를 오래 붙잡지 않게 나눈다
+	private static final int APPLY_BATCH_SIZE = 200;
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> APPLY_SUBMITS_SCRIPT =
+		RedisScript.of(new ClassPathResource("scripts/apply_submits.lua"), List.class);
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final SubmitStream submitStream;
+	private final PlayerStore playerStore;
+	private final RoundAggregationTimer roundAggregationTimer;
+	private final int workerCount;
+	private final int readCount;
+	private final String consumerPrefix = "worker-" + UUID.randomUUID();
+	private ExecutorService executor;
+	private volatile boolean running;
+
+	public SubmitStreamWorker(RedisTemplate<String, String> redisTemplate, SubmitStream submitStream,
+		PlayerStore playerStore, RoundAggregationTimer roundAggregationTimer,
+		@Value("${backbone.submit.stream.workers:4}") int workerCount,
+		@Value("${backbone.submit.stream.read-count:500}") int readCount) {
+		this.redisTemplate = redisTemplate;
+		this.submitStream = submitStream;
+		this.playerStore = playerStore;
+		this.roundAggregationTimer = roundAggregationTimer;
+		this.workerCount = Math.min(workerCount, submitStream.getShardCount());
+		this.readCount = readCount;
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!submitStream.isEnabled()) {
+			return;
+		}
+		for (int shard = 0; shard < submitStream.getShardCount(); shard++) {
+			createGroup(submitStream.getStreamKey(shard));
+		}
+		running = true;
+		AtomicInteger threadIndex = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(workerCount,
+			runnable -> new Thread(runnable, "SubmitStream-" + threadIndex.getAndIncrement()));
+		for (int worker = 0; worker < workerCount; worker++) {
+			int assigned = worker;
+			executor.execute(() -> consume(assigned));
+		}
+		log.info("[SubmitStreamWorker] started {} workers on {} shards", workerCount, submitStream.getShardCount());
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		if (executor != null) {
+			executor.shutdown();
+			executor.awaitTermination(READ_BLOCK.toMillis() * 10, TimeUnit.MILLISECONDS);
+			for (int shard = 0; shard < submitStream.getShardCount(); shard++) {
+				deleteConsumers(submitStream.getStreamKey(shard));
+			}
+		}
+	}
+
+	// ack 되지 않고 오래 남은 제출을 가져와 반영하고, 모두 처리된 앞부분은 stream 에서 잘라낸다
+	@Scheduled(fixedDelay = 2_000)
+	public void reclaimAndTrim() {
+		if (!running) {
+			return;
+		}
+		for (int shard = 0; shard < submitStream.getShardCount(); shard++) {
+			String streamKey = submitStream.getStreamKey(shard);
+			try {
+				reclaim(streamKey);
+				trim(streamKey);
+			} catch (RuntimeException e) {
+				log.error("[SubmitStreamWorker] reclaim failed on {}", streamKey, e);
+			}
+		}
+	}
+
+	private void consume(int worker) {
+		Consumer consumer = Consumer.from(SubmitStream.CONSUMER_GROUP, consumerPrefix + "-" + worker);
+		List<StreamOffset<String>> offsets = new ArrayList<>();
+		for (int shard = worker; shard < submitStream.getShardCount(); shard += workerCount) {
+			offsets.add(StreamOffset.create(submitStream.getStreamKey(shard), ReadOffset.lastConsumed()));
+		}
+		@SuppressWarnings("unchecked")
+		StreamOffset<String>[] streams = offsets.toArray(StreamOffset[]::new);
+		StreamReadOptions readOptions = StreamReadOptions.empty().count(readCount).block(READ_BLOCK);
+
+		while (running) {
+			try {
+				List<MapRecord<String, Object, Object>> records =
+					redisTemplate.opsForStream().read(consumer, readOptions, streams);
+				if (records != null && !records.isEmpty()) {
+					apply(records);
+				}
+			} catch (RuntimeException e) {
+				if (!running) {
+					break;
+				}
+				if (isRedisError(e, "NOGROUP")) {
+					// stream 이나 group 이 지워졌으면 다시 만들고 처음부터 읽는다
+					log.warn("[SubmitStreamWorker] consumer group is missing on worker {}, recreating", worker);
+					try {
+						offsets.forEach(offset -> createGroup(offset.getKey()));
+					} catch (RuntimeException createError) {
+						log.error("[SubmitStreamWorker] failed to recreate consumer group", createError);
+						pause();
+					}
+					continue;
+				}
+				log.error("[SubmitStreamWorker] read failed on worker {}", worker, e);
+				pause();
+			}
+		}
+	}
+
+	// 방과 라운드 단위로 묶어 스크립트로 반영하고, 반영된 제출만 ack 한다. 실패한 방의 제출은 reclaim 때 다시 시도한다
+	// 현재 라운드가 아닌 제출은 스크립트가 거절하고 ack 해서 버린다
+	void apply(List<MapRecord<String, Object, Object>> records) {
+		Map<RoomRound, List<MapRecord<String, Object, Object>>> byRound = new LinkedHashMap<>();
+		for (MapRecord<String, Object, Object> record : records) {
+			byRound.computeIfAbsent(RoomRound.of(record), roomRound -> new ArrayList<>()).add(record);
+		}
+
+		Map<String, List<RecordId>> acks = new HashMap<>();
+		int applied = 0;
+		int rejected = 0;
+		long oldestAppendedAt = Long.MAX_VALUE;
+		for (var entry : byRound.entrySet()) {
+			String roomCode = entry.getKey().roomCode();
+			int round = entry.getKey().round();
+			List<MapRecord<String, Object, Object>> roundRecords = entry.getValue();
+			for (int from = 0; from < roundRecords.size(); from += APPLY_BATCH_SIZE) {
+				var batch = roundRecords.subList(from, Math.min(from + APPLY_BATCH_SIZE, roundRecords.size()));
+				List<?> statuses;
+				try {
+					statuses = applyBatch(roomCode, round, batch);
+				} catch (RuntimeException e) {
+					log.error("[SubmitStreamWorker] failed to apply {} submits of room {}", batch.size(), roomCode, e);
+					continue;
+				}
+				for (int i = 0; i < batch.size(); i++) {
+					MapRecord<String, Object, Object> record = batch.get(i);
+					if (((Number)statuses.get(i)).intValue() == 1) {
+						applied++;
+					} else {
+						rejected++;
+						log.debug("[SubmitStreamWorker] submit {} of room {} rejected with status {}",
+							record.getId(), roomCode, statuses.get(i));
+					}
+					oldestAppendedAt = Math.min(oldestAppendedAt, record.getId().getTimestamp());
+					acks.computeIfAbsent(record.getStream(), key -> new ArrayList<>()).add(record.getId());
+				}
+				// 마지막 원소는 이 묶음으로 모든 플레이어가 제출했는지
+				if (((Number)statuses.get(batch.size())).intValue() == 1) {
+					roundAggregationTimer.expedite(roomCode);
+				}
+			}
+		}
+
+		acks.forEach((streamKey, recordIds) ->
+			redisTemplate.opsForStream().acknowledge(streamKey, SubmitStream.CONSUMER_GROUP,
+				recordIds.toArray(RecordId[]::new)));
+		if (applied + rejected > 0) {
+			submitStream.recordApplied(applied, rejected, oldestAppendedAt);
+		}
+	}
+
+	private List<?> applyBatch(String roomCode, int round, List<MapRecord<String, Object, Object>> batch) {
+		List<String> keys = new ArrayList<>(6 + batch.size() * 2);
+		keys.add(getRoomKey(roomCode));
+		keys.add(getPlayerIdsKey(roomCode));
+		keys.add(getGamesKey(roomCode));
+		keys.add(getLeaderboardKey(roomCode));
+		// 적재된 라운드의 key 다. 스크립트는 현재 라운드가 아닌 제출을 거절하므로 다른 라운드 key 에 쓰지 않는다
+		keys.add(getRoundScoreKey(roomCode, round));
+		keys.add(getRoundSubmittedKey(roomCode, round));
+		List<String> args = new ArrayList<>(2 + batch.size() * 5);
+		args.add(String.valueOf(IdempotencyRedisRepository.IDEMPOTENCY_TTL.toSeconds()));
+		args.add(String.valueOf(round));
+		for (MapRecord<String, Object, Object> record : batch) {
+			Map<Object, Object> fields = record.getValue();
+			String userId = String.valueOf(fields.get(SubmitStream.FIELD_USER));
+			Object requestId = fields.get(SubmitStream.FIELD_REQUEST);
+			keys.add(getIdempotencyKey(roomCode, requestId == null ? "" : requestId.toString()));
+			keys.add(playerStore.getHashKey(roomCode, userId, PlayerField.SCORE));
+			args.add(userId);
+			args.add(String.valueOf(fields.get(SubmitStream.FIELD_GAME)));
+			args.add(String.valueOf(fields.get(SubmitStream.FIELD_SCORE)));
+			args.add(playerStore.getHashField(userId, PlayerField.SCORE));
+			args.add(requestId == null ? "0" : "1");
+		}
+		List<?> statuses = redisTemplate.execute(APPLY_SUBMITS_SCRIPT, keys, args.toArray());
+		if (statuses == null || statuses.size() != batch.size() + 1) {
+			throw new IllegalStateException("[applyBatch] unexpected script result for room " + roomCode);
+		}
+		return statuses;
+	}
+
+	private void reclaim(String streamKey) {
+		PendingMessages pending = redisTemplate.opsForStream()
+			.pending(streamKey, SubmitStream.CONSUMER_GROUP, Range.unbounded(), readCount);
+		List<RecordId> idle = new ArrayList<>();
+		for (PendingMessage message : pending) {
+			if (message.getElapsedTimeSinceLastDelivery().compareTo(RECLAIM_IDLE) >= 0) {
+				idle.add(message.getId());
+			}
+		}
+		if (idle.isEmpty()) {
+			return;
+		}
+		List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream()
+			.claim(streamKey, SubmitStream.CONSUMER_GROUP, consumerPrefix + "-reclaim", RECLAIM_IDLE,
+				idle.toArray(RecordId[]::new));
+		log.warn("[SubmitStreamWorker] reclaimed {} idle submits on {}", claimed.size(), streamKey);
+		if (!claimed.isEmpty()) {
+			apply(claimed);
+		}
+	}
+
+	// 전달됐고 ack 까지 끝난 구간만 잘라낸다. MAXLEN 과 달리 밀려 있는 제출은 지우지 않는다
+	private void trim(String streamKey) {
+		var group = redisTemplate.opsForStream().groups(streamKey).stream()
+			.filter(info -> SubmitStream.CONSUMER_GROUP.equals(info.groupName()))
+			.findFirst()
+			.orElse(null);
+		if (group == null) {
+			return;
+		}
+		RecordId minId = RecordId.of(group.lastDeliveredId());
+		if (group.pendingCount() > 0) {
+			String oldestPending = redisTemplate.opsForStream().pending(streamKey, SubmitStream.CONSUMER_GROUP)
+				.minMessageId();
+			if (oldestPending != null && SubmitStream.compare(RecordId.of(oldestPending), minId) < 0) {
+				minId = RecordId.of(oldestPending);
+			}
+		}
+		String trimTo = minId.getValue();
+		redisTemplate.execute((RedisCallback<Object>)connection -> trim(connection, streamKey, trimTo));
+	}
+
+	private static Object trim(RedisConnection connection, String streamKey, String minId) {
+		return connection.execute("XTRIM", bytes(streamKey), bytes("MINID"), bytes("~"), bytes(minId));
+	}
+
+	// stream 이 없으면 MKSTREAM 으로 함께 만든다. 이미 group 이 있을 때의 BUSYGROUP 만 무시한다
+	private void createGroup(String streamKey) {
+		try {
+			redisTemplate.execute((RedisCallback<String>)connection -> connection.streamCommands()
+				.xGroupCreate(bytes(streamKey), SubmitStream.CONSUMER_GROUP, ReadOffset.from("0"), true));
+		} catch (RuntimeException e) {
+			if (!isRedisError(e, "BUSYGROUP")) {
+				throw e;
+			}
+			log.debug("[SubmitStreamWorker] consumer group already exists on {}", streamKey);
+		}
+	}
+
+	// 종료할 때 이 인스턴스의 consumer 를 지운다. 처리 중이던 제출이 남은 consumer 는 reclaim 되도록 남긴다
+	private void deleteConsumers(String streamKey) {
+		try {
+			redisTemplate.opsForStream().consumers(streamKey, SubmitStream.CONSUMER_GROUP).stream()
+				.filter(consumer -> consumer.consumerName().startsWith(consumerPrefix))
+				.filter(consumer -> consumer.pendingCount() == 0)
+				.map(StreamInfo.XInfoConsumer::consumerName)
+				.forEach(name -> redisTemplate.opsForStream().deleteConsumer(streamKey,
+					Consumer.from(SubmitStream.CONSUMER_GROUP, name)));
+		} catch (RuntimeException e) {
+			log.warn("[SubmitStreamWorker] failed to delete consumers on {}", streamKey, e);
+		}
+	}
+
+	private static boolean isRedisError(Throwable e, String code) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause.getMessage() != null && cause.getMessage().contains(code)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private record RoomRound(String roomCode, int round) {
+		// round 가 없는 제출은 0 으로 두어 스크립트가 거절하게 한다
+		static RoomRound of(MapRecord<String, Object, Object> record) {
+			Object round = record.getValue().get(SubmitStream.FIELD_ROUND);
+			return new RoomRound(String.valueOf(record.getValue().get(SubmitStream.FIELD_ROOM)),
+				round == null ? 0 : Integer.parseInt(round.toString()));
+		}
+	}
+
+	private static void pause() {
+		try {
+			Thread.sleep(1_000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.party.backbone.room.util;
+
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 지연 시간을 고정 bucket 으로 센다. 로그로 분포를 보는 용도라 정확한 값 대신 bucket 상한으로 percentile 을 낸다
+public class LatencyHistogram {
+	private static final long[] BOUNDS_MILLIS = {10, 25, 50, 100, 250, 500, 1_000, 2_000, 5_000};
+
+	private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong maxMillis = new AtomicLong();
+
+	public void record(long millis) {
+		long value = Math.max(0, millis);
+		int bucket = 0;
+		while (bucket < BOUNDS_MILLIS.length && value > BOUNDS_MILLIS[bucket]) {
+			bucket++;
+		}
+		counts.incrementAndGet(bucket);
+		totalCount.incrementAndGet();
+		maxMillis.accumulateAndGet(value, Math::max);
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	// percentile 이 속한 bucket 의 상한. 마지막 bucket 이면 최댓값
+	public long percentile(double percentile) {
+		long total = totalCount.get();
+		if (total == 0) {
+			return 0;
+		}
+		long target = (long)Math.ceil(total * percentile / 100.0);
+		long seen = 0;
+		for (int bucket = 0; bucket < BOUNDS_MILLIS.length; bucket++) {
+			seen += counts.get(bucket);
+			if (seen >= target) {
+				return BOUNDS_MILLIS[bucket];
+			}
+		}
+		return maxMillis.get();
+	}
+
+	public String summary() {
+		StringJoiner buckets = new StringJoiner(", ", "{", "}");
+		for (int bucket = 0; bucket <= BOUNDS_MILLIS.length; bucket++) {
+			String label = bucket < BOUNDS_MILLIS.length
+				? "<=" + BOUNDS_MILLIS[bucket]
+				: ">" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1];
+			buckets.add(label + "ms=" + counts.get(bucket));
+		}
+		return "count=" + totalCount.get() + " p50<=" + percentile(50) + "ms p90<=" + percentile(90) + "ms p99<="
+			+ percentile(99) + "ms max=" + maxMillis.get() + "ms " + buckets;
+	}
+}
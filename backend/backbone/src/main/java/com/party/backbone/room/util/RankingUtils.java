@@ -1,14 +1,11 @@
 package com.party.backbone.room.util;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
-import com.party.backbone.room.dto.FinalResult;
 import com.party.backbone.websocket.model.RankingInfo;
 
 public class RankingUtils {
@@ -19,7 +16,7 @@ public class RankingUtils {
 			.collect(Collectors.toList());
 	}
 
-	public static Map<String, Integer> calculateRanks(List<Entry<String, ? extends Number>> sortedEntries) {
+	public static Map<String, Integer> calculateRanks(List<? extends Entry<String, ? extends Number>> sortedEntries) {
 		Map<String, Integer> result = new HashMap<>();
 		int rank = 1;
 		int count = 0;
@@ -36,31 +33,6 @@ public class RankingUtils {
 		return result;
 	}
 
-	public static List<RankingInfo> calculateFinalRanks(List<FinalResult> results) {
-		List<FinalResult> sorted = new ArrayList<>(results);
-		sorted.sort((a, b) -> Integer.compare(b.score(), a.score()));
-
-		List<RankingInfo> rankingList = new ArrayList<>();
-		int rank = 1;
-
-		for (int i = 0; i < sorted.size(); i++) {
-			FinalResult current = sorted.get(i);
-
-			if (i > 0 && current.score() != sorted.get(i - 1).score()) {
-				rank = i + 1;
-			}
-
-			rankingList.add(new RankingInfo(
-				current.userId(),
-				current.nickname(),
-				current.score(),
-				rank
-			));
-		}
-
-		return rankingList;
-	}
-
 	public static List<RankingInfo> buildTopK(List<Entry<String, ? extends Number>> sortedEntries,
 		Map<String, Integer> rankMap,
 		Map<String, String> nickMap,
@@ -81,18 +53,4 @@ public class RankingUtils {
 			})
 			.collect(Collectors.toList());
 	}
-
-	public static String getFirstByRank(Map<String, Integer> ranks) {
-		return ranks.entrySet().stream()
-			.min(Comparator.comparingInt(Entry::getValue))
-			.map(Entry::getKey)
-			.orElse(null);
-	}
-
-	public static String getLastByRank(Map<String, Integer> ranks) {
-		return ranks.entrySet().stream()
-			.max(Comparator.comparingInt(Entry::getValue))
-			.map(Entry::getKey)
-			.orElse(null);
-	}
 }
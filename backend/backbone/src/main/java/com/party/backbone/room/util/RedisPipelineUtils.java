@@ -0,0 +1,24 @@
+package com.party.backbone.room.util;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+public class RedisPipelineUtils {
+
+	// 여러 명령을 한 번의 왕복으로 보내고, 명령 순서대로 역직렬화된 결과를 받는다
+	public static List<Object> pipelined(RedisTemplate<String, String> redisTemplate,
+		Consumer<RedisOperations<String, String>> commands) {
+		return redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public <K, V> Object execute(RedisOperations<K, V> operations) {
+				commands.accept((RedisOperations<String, String>)operations);
+				return null;
+			}
+		});
+	}
+}
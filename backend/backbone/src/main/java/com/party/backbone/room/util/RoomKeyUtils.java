@@ -0,0 +1,79 @@
+package com.party.backbone.room.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 방의 모든 key 는 {roomCode} hash tag 를 포함해 Redis Cluster 에서 같은 slot 에 배치된다
+// 덕분에 DEL, Lua 스크립트 같은 multi-key 연산을 한 방의 key 들에 대해 안전하게 사용할 수 있다
+public class RoomKeyUtils {
+	private static final Pattern ROOM_KEY_PATTERN = Pattern.compile("^room:\\{(\\d{6})}$");
+
+	public static String getRoomKey(String roomCode) {
+		return "room:{" + roomCode + "}";
+	}
+
+	public static String getPlayerKey(String roomCode, String userId) {
+		return getRoomKey(roomCode) + ":player:" + userId;
+	}
+
+	public static String getPlayerIdsKey(String roomCode) {
+		return getRoomKey(roomCode) + ":playerIds";
+	}
+
+	public static String getAdministratorIdKey(String roomCode) {
+		return getRoomKey(roomCode) + ":administratorId";
+	}
+
+	public static String getGamesKey(String roomCode) {
+		return getRoomKey(roomCode) + ":games";
+	}
+
+	public static String getRoundScoreKey(String roomCode, int round) {
+		return getRoomKey(roomCode) + ":round:" + round + ":scores";
+	}
+
+	// 라운드에 한 번 이상 제출한 userId. 모두 제출했는지 볼 때 쓴다
+	public static String getRoundSubmittedKey(String roomCode, int round) {
+		return getRoomKey(roomCode) + ":round:" + round + ":submitted";
+	}
+
+	// 방 전체 누적 점수(라운드 가중치 반영) 순위표
+	public static String getLeaderboardKey(String roomCode) {
+		return getRoomKey(roomCode) + ":leaderboard";
+	}
+
+	// 게임 종료 시 고정되는 플레이어별 최종 결과 (userId -> FinalResultRecord)
+	public static String getFinalResultsKey(String roomCode) {
+		return getRoomKey(roomCode) + ":finalResults";
+	}
+
+	// 방에 딸린 key 목록. 방을 정리할 때 key 를 찾아다니지 않고 이 set 만 읽는다
+	public static String getKeyRegistryKey(String roomCode) {
+		return getRoomKey(roomCode) + ":keys";
+	}
+
+	// sequence 모드의 유저별 중복 판단 window checkpoint
+	public static String getSequencesKey(String roomCode) {
+		return getRoomKey(roomCode) + ":sequences";
+	}
+
+	// 플레이어별로 rankRecord 에 마지막으로 덧붙인 라운드. 집계를 다시 시도해도 같은 라운드를 두 번 덧붙이지 않게 한다
+	public static String getRankRecordRoundsKey(String roomCode) {
+		return getRoomKey(roomCode) + ":rankRecordRounds";
+	}
+
+	// 방 MinIO bucket 을 확인/생성해 둔 표시. START_GAME 을 받지 않은 인스턴스도 집계 때 MinIO 를 기다리지 않는다
+	public static String getBucketReadyKey(String roomCode) {
+		return "bucketReady:{" + roomCode + "}";
+	}
+
+	public static String getIdempotencyKey(String roomCode, String requestId) {
+		return "idempotency:{" + roomCode + "}:" + requestId;
+	}
+
+	// 방 hash key 자체일 때만 roomCode 를 반환하고, 방에 딸린 하위 key 면 null
+	public static String parseRoomCode(String key) {
+		Matcher matcher = ROOM_KEY_PATTERN.matcher(key);
+		return matcher.matches() ? matcher.group(1) : null;
+	}
+}
@@ -0,0 +1,27 @@
+package com.party.backbone.util;
+
+import java.time.Duration;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.util.RoomKeyUtils;
+
+// 방 bucket 이 준비됐다는 표시를 Redis 에 남겨 모든 인스턴스가 같이 본다
+// 집계는 shard 를 가진 인스턴스나 fallback poll 을 돈 인스턴스에서 일어나므로 START_GAME 을 받은 인스턴스와 다를 수 있다
+@Component
+public class BucketReadiness {
+	private final RedisTemplate<String, String> redisTemplate;
+
+	public BucketReadiness(RedisTemplate<String, String> redisTemplate) {
+		this.redisTemplate = redisTemplate;
+	}
+
+	public boolean isReady(String roomCode) {
+		return Boolean.TRUE.equals(redisTemplate.hasKey(RoomKeyUtils.getBucketReadyKey(roomCode)));
+	}
+
+	public void markReady(String roomCode, Duration ttl) {
+		redisTemplate.opsForValue().set(RoomKeyUtils.getBucketReadyKey(roomCode), "1", ttl);
+	}
+}
@@ -3,13 +3,24 @@ package com.party.backbone.util;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.party.backbone.room.model.RoomStateTTL;
+
 import io.minio.BucketExistsArgs;
 import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MakeBucketArgs;
@@ -23,20 +34,79 @@ import io.minio.errors.XmlParserException;
 import io.minio.http.Method;
 import lombok.extern.slf4j.Slf4j;
 
+// 라운드가 시작될 때 prepareBucket 으로 방 bucket 확인/생성을 백그라운드에서 끝내 두고, 확인된 bucket 은 기억해 둔다
+// 준비된 표시는 Redis 에도 남겨 START_GAME 을 받지 않은 인스턴스에서 집계해도 MinIO 를 기다리지 않는다
 @Component
 @Slf4j
 public class MinioClientUtil {
+	// 이 시간 동안 URL 발급에 쓰이지 않은 bucket 은 잊는다. 방이 WAITING/PLAYING 을 오가는 동안은 남는다
+	private static final long READY_BUCKET_IDLE_MILLIS =
+		RoomStateTTL.WAITING.getTtl().plus(RoomStateTTL.PLAYING.getTtl()).toMillis();
+
 	@Value("${BUCKET_BASE_URL}")
 	private String bucketBaseUrl;
+	// 준비가 늦었을 때 집계가 기다리는 최대 시간. 넘으면 확인 없이 서명하고 준비는 백그라운드에서 계속된다
+	private final long prepareWaitMillis;
 	private final MinioClient minioInternalClient;
+	private final Executor executor;
+	// 있는 것을 확인한 bucket 의 roomCode -> 마지막으로 쓴 시각
+	private final Map<String, Long> readyBuckets = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<Void>> preparing = new ConcurrentHashMap<>();
+	private final BucketReadiness bucketReadiness;
+	// 한 번 기다렸는데도 준비되지 않은 방의 roomCode -> 그 라운드. 같은 라운드의 나머지 URL 발급은 기다리지 않는다
+	private final Map<String, LateRound> lateRooms = new ConcurrentHashMap<>();
 
 	Map<String, String> reqParams = new HashMap<String, String>();
 
-	public MinioClientUtil(MinioClient minioInternalClient) {
+	public MinioClientUtil(MinioClient minioInternalClient, @Qualifier("asyncTaskExecutor") Executor executor,
+		BucketReadiness bucketReadiness, @Value("${backbone.minio.prepare-wait-ms:200}") long prepareWaitMillis) {
 		this.minioInternalClient = minioInternalClient;
+		this.executor = executor;
+		this.bucketReadiness = bucketReadiness;
+		this.prepareWaitMillis = prepareWaitMillis;
 		reqParams.put("response-content-type", "video/webm");
 	}
 
+	// 방 bucket 을 확인하고 없으면 만든다. 같은 방의 준비가 진행 중이면 그 작업을 같이 기다린다
+	public CompletableFuture<Void> prepareBucket(String roomCode) {
+		if (readyBuckets.containsKey(roomCode)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> preparation = new CompletableFuture<>();
+		CompletableFuture<Void> inProgress = preparing.putIfAbsent(roomCode, preparation);
+		if (inProgress != null) {
+			return inProgress;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					ensureBucket(roomCode);
+					// 처음 서명할 때 하는 bucket region 조회도 미리 해 둔다
+					minioInternalClient.getPresignedObjectUrl(
+						getPresignedObjectUrlArgs(roomCode, "0", "_", Method.GET));
+					preparing.remove(roomCode, preparation);
+					preparation.complete(null);
+				} catch (Exception e) {
+					log.warn("[Minio] failed to prepare bucket of room {}", roomCode, e);
+					// 실패를 본 호출이 바로 다시 준비할 수 있도록 결과를 알리기 전에 지운다
+					preparing.remove(roomCode, preparation);
+					preparation.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			preparing.remove(roomCode, preparation);
+			preparation.completeExceptionally(e);
+		}
+		return preparation;
+	}
+
+	@Scheduled(fixedRate = 60_000)
+	public void evictIdleBuckets() {
+		long now = System.currentTimeMillis();
+		readyBuckets.entrySet().removeIf(entry -> now - entry.getValue() >= READY_BUCKET_IDLE_MILLIS);
+		lateRooms.entrySet().removeIf(entry -> now - entry.getValue().markedAt() >= READY_BUCKET_IDLE_MILLIS);
+	}
+
 	//Bucket의 min String length는 3임
 
 	public GetPresignedObjectUrlArgs getPresignedObjectUrlArgs(String bucket, String round, String userId,
@@ -60,11 +130,7 @@ public class MinioClientUtil {
 		InvalidResponseException,
 		XmlParserException,
 		InternalException {
-		BucketExistsArgs bucketExistsArgs = BucketExistsArgs.builder().bucket("room" + roomCode).build();
-
-		if (!minioInternalClient.bucketExists(bucketExistsArgs)) {
-			minioInternalClient.makeBucket(MakeBucketArgs.builder().bucket("room" + roomCode).build());
-		}
+		awaitBucket(roomCode, roundNum);
 		String putPresignedUrl = minioInternalClient.getPresignedObjectUrl(
 			getPresignedObjectUrlArgs(roomCode, roundNum.toString(), userId, Method.PUT));
 		String replaced = replaceUrl(putPresignedUrl);
@@ -82,21 +148,83 @@ public class MinioClientUtil {
 		InvalidResponseException,
 		XmlParserException,
 		InternalException {
+		awaitBucket(roomCode, roundNum);
+		String getPresignedUrl = minioInternalClient.getPresignedObjectUrl(
+			getPresignedObjectUrlArgs(roomCode, roundNum.toString(), userId, Method.GET));
+		String replaced = replaceUrl(getPresignedUrl);
+		log.info("get presigned url 발급 :{}", replaced);
+		return replaced;
+	}
+
+	// 준비가 끝났으면 바로 돌아가고, 아니면 prepareWaitMillis 까지만 기다린다
+	// 서명은 bucket 이 없어도 만들어지고, 업로드는 준비가 끝난 뒤에 일어나므로 그대로 쓸 수 있다
+	// 한 라운드에서 기다리는 건 처음 한 번뿐이다. 그 뒤로는 준비만 다시 걸어 두고 바로 서명한다
+	private void awaitBucket(String roomCode, int round) {
+		if (readyBuckets.computeIfPresent(roomCode, (code, usedAt) -> System.currentTimeMillis()) != null) {
+			return;
+		}
+		if (isPreparedElsewhere(roomCode)) {
+			readyBuckets.put(roomCode, System.currentTimeMillis());
+			return;
+		}
+		CompletableFuture<Void> preparation = prepareBucket(roomCode);
+		LateRound late = lateRooms.get(roomCode);
+		if (late != null && late.round() == round) {
+			return;
+		}
+		try {
+			preparation.get(prepareWaitMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			lateRooms.put(roomCode, new LateRound(round, System.currentTimeMillis()));
+			log.warn("[Minio] bucket of room {} not prepared within {}ms, signing without it", roomCode,
+				prepareWaitMillis);
+		} catch (ExecutionException e) {
+			lateRooms.put(roomCode, new LateRound(round, System.currentTimeMillis()));
+			log.warn("[Minio] bucket of room {} could not be prepared, signing without it", roomCode);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// 다른 인스턴스가 START_GAME 을 받아 준비를 끝냈는지 본다. Redis 를 못 읽으면 직접 준비하는 쪽으로 넘어간다
+	private boolean isPreparedElsewhere(String roomCode) {
+		try {
+			return bucketReadiness.isReady(roomCode);
+		} catch (RuntimeException e) {
+			log.warn("[Minio] could not read bucket readiness of room {}: {}", roomCode, e.getMessage());
+			return false;
+		}
+	}
 
+	private void ensureBucket(String roomCode) throws
+		ServerException,
+		InsufficientDataException,
+		ErrorResponseException,
+		IOException,
+		NoSuchAlgorithmException,
+		InvalidKeyException,
+		InvalidResponseException,
+		XmlParserException,
+		InternalException {
 		BucketExistsArgs bucketExistsArgs = BucketExistsArgs.builder().bucket("room" + roomCode).build();
 
 		if (!minioInternalClient.bucketExists(bucketExistsArgs)) {
 			minioInternalClient.makeBucket(MakeBucketArgs.builder().bucket("room" + roomCode).build());
 		}
-		String getPresignedUrl = minioInternalClient.getPresignedObjectUrl(
-			getPresignedObjectUrlArgs(roomCode, roundNum.toString(), userId, Method.GET));
-		String replaced = replaceUrl(getPresignedUrl);
-		log.info("get presigned url 발급 :{}", replaced);
-		return replaced;
+		readyBuckets.put(roomCode, System.currentTimeMillis());
+		try {
+			bucketReadiness.markReady(roomCode, Duration.ofMillis(READY_BUCKET_IDLE_MILLIS));
+		} catch (RuntimeException e) {
+			// 표시를 못 남겨도 bucket 은 준비됐다. 다른 인스턴스는 한 번 직접 확인한다
+			log.warn("[Minio] could not record bucket readiness of room {}: {}", roomCode, e.getMessage());
+		}
 	}
 
 	public String replaceUrl(String url) {
 		//replacement를 bucket api로 변경
 		return url.replace("http://minio-bucket:9000", bucketBaseUrl);
 	}
+
+	private record LateRound(int round, long markedAt) {
+	}
 }
@@ -4,8 +4,13 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
@@ -14,30 +19,85 @@ import org.springframework.web.socket.WebSocketSession;
 
 import lombok.extern.slf4j.Slf4j;
 
+// 세션마다 보낼 메시지를 줄 세워 executor 스레드 하나가 순서대로 보낸다
+// 서로 다른 세션은 병렬로 보내지고, 한 세션에는 보낸 순서대로 한 번에 하나씩만 전송된다
 @Slf4j
 @Component
 public class AsyncMessageSender {
 	private final Executor executor;
+	// 보내는 중인 세션의 대기열. 대기열이 비면 항목을 지우고, 다음 send 가 새로 전송을 시작한다
+	private final Map<String, Queue<PendingMessage>> queues = new ConcurrentHashMap<>();
 
-	public AsyncMessageSender(@Qualifier("asyncTaskExecutor") Executor executor) {
+	public AsyncMessageSender(@Qualifier("messageFanOutExecutor") Executor executor) {
 		this.executor = executor;
 	}
 
-	public void send(WebSocketSession session, String payloadText) {
-		CompletableFuture.runAsync(() -> {
-			long start = System.currentTimeMillis();
+	// return 전송을 마친 시각(ms). 세션이 닫혀 있거나 실패했으면 -1
+	public CompletableFuture<Long> send(WebSocketSession session, String payloadText) {
+		PendingMessage message = new PendingMessage(payloadText, new CompletableFuture<>());
+		boolean[] idle = {false};
+		queues.compute(session.getId(), (id, queue) -> {
+			if (queue == null) {
+				queue = new ArrayDeque<>();
+				idle[0] = true;
+			}
+			queue.add(message);
+			return queue;
+		});
+		if (idle[0]) {
 			try {
-				if (session.isOpen()) {
-					session.sendMessage(new TextMessage(payloadText));
-				}
-			} catch (IOException e) {
-				log.error("[SendAsync] send failed. sessionId={}, error={}", session.getId(), e.getMessage());
-			} finally {
-				long end = System.currentTimeMillis();
-				log.info("[SendAsync] sessionId={} sendDuration={}ms finishedAt={}",
-					session.getId(), (end - start),
-					LocalDateTime.ofInstant(Instant.ofEpochMilli(end), ZoneId.systemDefault()));
+				executor.execute(() -> drain(session));
+			} catch (RejectedExecutionException e) {
+				// executor 가 종료 중일 때만 거절된다. 호출한 스레드에서 보내지 않고 대기 중인 메시지를 실패로 끝낸다
+				log.warn("[SendAsync] fan-out executor rejected. sessionId={}", session.getId());
+				discard(session);
+			}
+		}
+		return message.sentAt();
+	}
+
+	private void drain(WebSocketSession session) {
+		while (true) {
+			PendingMessage[] next = new PendingMessage[1];
+			queues.computeIfPresent(session.getId(), (id, queue) -> {
+				next[0] = queue.poll();
+				return next[0] == null ? null : queue;
+			});
+			if (next[0] == null) {
+				return;
 			}
-		}, executor);
+			next[0].sentAt().complete(sendNow(session, next[0].payloadText()));
+		}
+	}
+
+	private void discard(WebSocketSession session) {
+		Queue<PendingMessage> queue = queues.remove(session.getId());
+		if (queue == null) {
+			return;
+		}
+		queue.forEach(pending -> pending.sentAt().complete(-1L));
+	}
+
+	private long sendNow(WebSocketSession session, String payloadText) {
+		long start = System.currentTimeMillis();
+		long end = start;
+		boolean sent = false;
+		try {
+			if (session.isOpen()) {
+				session.sendMessage(new TextMessage(payloadText));
+				sent = true;
+			}
+		} catch (IOException | RuntimeException e) {
+			log.error("[SendAsync] send failed. sessionId={}, error={}", session.getId(), e.getMessage());
+		} finally {
+			end = System.currentTimeMillis();
+			log.info("[SendAsync] sessionId={} sendDuration={}ms finishedAt={}",
+				session.getId(), (end - start),
+				LocalDateTime.ofInstant(Instant.ofEpochMilli(end), ZoneId.systemDefault()));
+		}
+		return sent ? end : -1;
+	}
+
+	private record PendingMessage(String payloadText, CompletableFuture<Long> sentAt) {
 	}
 }
@@ -7,22 +7,33 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.room.ReactiveRoomRedisRepository;
 import com.party.backbone.room.RoomRedisRepository;
 import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
+import com.party.backbone.websocket.dispatch.repository.ReactiveIdempotencyRedisRepository;
 import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
 import com.party.backbone.websocket.message.user.CheckEndedMessage;
 import com.party.backbone.websocket.model.UserMessageType;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 @Component
 public class CheckEndedMessageHandler extends GameMessageHandler<CheckEndedMessage> implements UserMessageHandler {
 	private ObjectMapper objectMapper;
+	private final ReactiveIdempotencyRedisRepository reactiveIdempotencyRepository;
+	private final ReactiveRoomRedisRepository reactiveRoomRepository;
 
 	protected CheckEndedMessageHandler(
 		IdempotencyRedisRepository idempotencyRedisRepository,
 		RoomRedisRepository roomRepository,
-		ObjectMapper objectMapper) {
+		ObjectMapper objectMapper,
+		ReactiveIdempotencyRedisRepository reactiveIdempotencyRepository,
+		ReactiveRoomRedisRepository reactiveRoomRepository) {
 		super(idempotencyRedisRepository, roomRepository);
 		this.objectMapper = objectMapper;
+		this.reactiveIdempotencyRepository = reactiveIdempotencyRepository;
+		this.reactiveRoomRepository = reactiveRoomRepository;
 	}
 
 	@Override
@@ -31,6 +42,39 @@ public class CheckEndedMessageHandler extends GameMessageHandler<CheckEndedMessa
 		session.sendMessage(new TextMessage(objectMapper.writeValueAsString(ackMessage)));
 	}
 
+	// handle 과 같은 순서(claim → 사용자 검증 → 처리, 실패하면 claim 해제)를 Redis 응답을 기다리지 않고 이어 붙인다
+	@Override
+	public Mono<Void> handleReactive(CheckEndedMessage message, String roomCode, WebSocketSession session) {
+		String requestId = message.getRequestId();
+		String userId = message.getUserId();
+		// sequence window 는 메모리에서 판정하고, 메모리에 없을 때만 checkpoint 를 논블로킹으로 읽는다
+		boolean bySequence = idempotencyRedisRepository.usesSequence(userId, message);
+		Mono<Boolean> claim = bySequence
+			? reactiveIdempotencyRepository.claim(roomCode, userId, message.getSequence())
+			: reactiveIdempotencyRepository.claim(roomCode, requestId);
+		Mono<Boolean> release = bySequence
+			? Mono.fromCallable(() -> {
+				idempotencyRedisRepository.release(roomCode, userId, message);
+				return true;
+			})
+			: reactiveIdempotencyRepository.release(roomCode, requestId);
+		return claim
+			.flatMap(claimed -> claimed
+				? reactiveRoomRepository.hasPlayer(roomCode, userId)
+					.flatMap(isPlayer -> Boolean.TRUE.equals(isPlayer)
+						? reactiveRoomRepository.checkEnded(roomCode, userId)
+						: Mono.<CheckEndedAckMessage>error(wrongUser(userId, roomCode)))
+					// 웹소켓 전송은 blocking I/O 이므로 Redis 이벤트 루프가 아닌 스레드에서 한다
+					.publishOn(Schedulers.boundedElastic())
+					.flatMap(ackMessage -> Mono.fromCallable(() -> {
+						session.sendMessage(new TextMessage(objectMapper.writeValueAsString(ackMessage)));
+						return ackMessage;
+					}))
+					.onErrorResume(e -> release.then(Mono.error(e)))
+				: Mono.<CheckEndedAckMessage>error(duplicateRequest(requestId)))
+			.then();
+	}
+
 	@Override
 	public UserMessageType getMessageType() {
 		return UserMessageType.CHECK_ENDED;
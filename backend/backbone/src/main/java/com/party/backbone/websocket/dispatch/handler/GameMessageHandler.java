@@ -13,6 +13,8 @@ import com.party.backbone.websocket.message.admin.AdminMessage;
 import com.party.backbone.websocket.message.user.UserMessage;
 import com.sun.jdi.request.DuplicateRequestException;
 
+import reactor.core.publisher.Mono;
+
 public abstract class GameMessageHandler<T extends GameMessage> {
 	protected final IdempotencyRedisRepository idempotencyRedisRepository;
 	protected final RoomRedisRepository roomRepository;
@@ -24,11 +26,34 @@ public abstract class GameMessageHandler<T extends GameMessage> {
 	}
 
 	public final void handle(T message, String roomCode, WebSocketSession session) throws IOException {
-		checkIdempotencyBefore(message, roomCode);
-		validateAdministrator(message, roomCode);
-		validateUser(message, roomCode);
-		doHandle(message, roomCode, session);
-		markProcessedAfter(message, roomCode);
+		rejectRecentDuplicate(message, roomCode);
+		if (isGuardedByRepository()) {
+			doHandle(message, roomCode, session);
+			rememberClaimed(message, roomCode);
+			return;
+		}
+		claim(message, roomCode);
+		try {
+			validateAdministrator(message, roomCode);
+			validateUser(message, roomCode);
+			doHandle(message, roomCode, session);
+		} catch (IOException | RuntimeException e) {
+			releaseClaim(message, roomCode);
+			throw e;
+		}
+	}
+
+	// reactive 모드에서 호출된다. 논블로킹 경로가 없는 핸들러는 호출한 스레드에서 handle 을 그대로 실행한다
+	public Mono<Void> handleReactive(T message, String roomCode, WebSocketSession session) {
+		return Mono.fromCallable(() -> {
+			handle(message, roomCode, session);
+			return true;
+		}).then();
+	}
+
+	// 멱등성 체크와 사용자 검증을 repository 호출 한 번에 원자적으로 처리하는 핸들러는 true 를 반환
+	protected boolean isGuardedByRepository() {
+		return false;
 	}
 
 	private void validateAdministrator(T message, String roomCode) {
@@ -48,26 +73,60 @@ public abstract class GameMessageHandler<T extends GameMessage> {
 			return;
 		}
 		if (Boolean.FALSE.equals(roomRepository.hasPlayer(roomCode, userMessage.getUserId()))) {
-			throw new IllegalArgumentException(
-				"[validateUser] Wrong userId : " + userMessage.getUserId() + " for room : "
-					+ roomCode);
+			throw wrongUser(userMessage.getUserId(), roomCode);
+		}
+	}
+
+	// 클라이언트 재전송은 이 인스턴스 메모리에서 바로 거절한다
+	protected void rejectRecentDuplicate(T message, String roomCode) {
+		// sequence window 를 쓰는 메시지는 claim 자체가 메모리에서 끝나므로 따로 볼 필요가 없다
+		if (message instanceof IdempotentMessage idempotentMessage
+			&& !idempotencyRedisRepository.usesSequence(getSenderId(message), idempotentMessage)
+			&& idempotencyRedisRepository.isRecentlyClaimed(roomCode, idempotentMessage.getRequestId())) {
+			throw duplicateRequest(idempotentMessage.getRequestId());
 		}
 	}
 
-	private void checkIdempotencyBefore(T message, String roomCode) {
+	protected void claim(T message, String roomCode) {
 		if (!(message instanceof IdempotentMessage idempotentMessage)) {
 			return;
 		}
-		if (idempotencyRedisRepository.isRequestIdProcessed(roomCode, idempotentMessage.getRequestId())) {
-			throw new DuplicateRequestException("Request already processed: " + idempotentMessage.getRequestId());
+		if (!idempotencyRedisRepository.claim(roomCode, getSenderId(message), idempotentMessage)) {
+			throw duplicateRequest(idempotentMessage.getRequestId());
 		}
 	}
 
-	private void markProcessedAfter(T message, String roomCode) {
+	protected void releaseClaim(T message, String roomCode) {
 		if (!(message instanceof IdempotentMessage idempotentMessage)) {
 			return;
 		}
-		idempotencyRedisRepository.markRequestIdProcessed(roomCode, idempotentMessage.getRequestId());
+		idempotencyRedisRepository.release(roomCode, getSenderId(message), idempotentMessage);
+	}
+
+	// sequence window 의 주인. 유저 메시지는 userId, 관리자 메시지는 administratorId
+	protected static String getSenderId(GameMessage message) {
+		if (message instanceof UserMessage userMessage) {
+			return userMessage.getUserId();
+		}
+		if (message instanceof AdminMessage adminMessage) {
+			return adminMessage.getAdministratorId();
+		}
+		return null;
+	}
+
+	private void rememberClaimed(T message, String roomCode) {
+		if (!(message instanceof IdempotentMessage idempotentMessage)) {
+			return;
+		}
+		idempotencyRedisRepository.rememberClaimed(roomCode, getSenderId(message), idempotentMessage);
+	}
+
+	protected static DuplicateRequestException duplicateRequest(String requestId) {
+		return new DuplicateRequestException("Request already processed: " + requestId);
+	}
+
+	protected static IllegalArgumentException wrongUser(String userId, String roomCode) {
+		return new IllegalArgumentException("[validateUser] Wrong userId : " + userId + " for room : " + roomCode);
 	}
 
 	protected abstract void doHandle(T message, String roomCode, WebSocketSession session) throws IOException;
@@ -8,7 +8,9 @@ import org.springframework.web.socket.WebSocketSession;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.party.backbone.room.RoomRedisRepository;
+import com.party.backbone.room.RoundAggregationTimer;
 import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.util.MinioClientUtil;
 import com.party.backbone.websocket.broadcast.Broadcaster;
 import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
 import com.party.backbone.websocket.handler.SessionRegistry;
@@ -25,23 +27,32 @@ public class StartGameMessageHandler extends GameMessageHandler<StartGameMessage
 	private final ObjectMapper objectMapper;
 	private final SessionRegistry sessionRegistry;
 	private final Broadcaster broadcaster;
+	private final RoundAggregationTimer roundAggregationTimer;
+	private final MinioClientUtil minioClientUtil;
 
 	StartGameMessageHandler(
 		RoomRedisRepository roomRepository,
 		ObjectMapper objectMapper,
 		SessionRegistry sessionRegistry,
 		IdempotencyRedisRepository idempotencyRedisRepository,
-		Broadcaster broadcaster) {
+		Broadcaster broadcaster,
+		RoundAggregationTimer roundAggregationTimer,
+		MinioClientUtil minioClientUtil) {
 		super(idempotencyRedisRepository, roomRepository);
 		this.roomRepository = roomRepository;
 		this.objectMapper = objectMapper;
 		this.sessionRegistry = sessionRegistry;
 		this.broadcaster = broadcaster;
+		this.roundAggregationTimer = roundAggregationTimer;
+		this.minioClientUtil = minioClientUtil;
 	}
 
 	@Override
 	public void doHandle(StartGameMessage message, String roomCode, WebSocketSession session) throws IOException {
 		RoundInfo roundInfo = roomRepository.startGame(roomCode);
+		roundAggregationTimer.arm(roomCode, roundInfo.startAt() + roundInfo.duration());
+		// 집계 때 하이라이트 URL 발급이 MinIO 를 기다리지 않도록 라운드가 도는 동안 bucket 을 준비해 둔다
+		minioClientUtil.prepareBucket(roomCode);
 		var waitMessage = new WaitMessage(roundInfo);
 		try {
 			String payload = objectMapper.writeValueAsString(waitMessage);
@@ -6,29 +6,112 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketSession;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.room.ReactiveRoomRedisRepository;
 import com.party.backbone.room.RoomRedisRepository;
+import com.party.backbone.room.RoundAggregationTimer;
+import com.party.backbone.room.dto.SubmitResult;
+import com.party.backbone.room.submit.SubmitStream;
 import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
+import com.party.backbone.websocket.dispatch.repository.ReactiveIdempotencyRedisRepository;
 import com.party.backbone.websocket.handler.SessionRegistry;
 import com.party.backbone.websocket.message.user.SubmitMessage;
 import com.party.backbone.websocket.model.UserMessageType;
 
+import com.sun.jdi.request.DuplicateRequestException;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 @Component
 public class SubmitMessageHandler extends GameMessageHandler<SubmitMessage> implements UserMessageHandler {
 	private final RoomRedisRepository roomRepository;
+	private final ReactiveRoomRedisRepository reactiveRoomRepository;
+	private final ReactiveIdempotencyRedisRepository reactiveIdempotencyRepository;
+	private final SubmitStream submitStream;
+	private final RoundAggregationTimer roundAggregationTimer;
 
 	protected SubmitMessageHandler(IdempotencyRedisRepository idempotencyRedisRepository, ObjectMapper objectMapper,
-		RoomRedisRepository roomRepository, SessionRegistry sessionRegistry) {
+		RoomRedisRepository roomRepository, SessionRegistry sessionRegistry,
+		ReactiveRoomRedisRepository reactiveRoomRepository,
+		ReactiveIdempotencyRedisRepository reactiveIdempotencyRepository, SubmitStream submitStream,
+		RoundAggregationTimer roundAggregationTimer) {
 		super(idempotencyRedisRepository, roomRepository);
 		this.roomRepository = roomRepository;
+		this.reactiveRoomRepository = reactiveRoomRepository;
+		this.reactiveIdempotencyRepository = reactiveIdempotencyRepository;
+		this.submitStream = submitStream;
+		this.roundAggregationTimer = roundAggregationTimer;
+	}
+
+	@Override
+	protected boolean isGuardedByRepository() {
+		return true;
 	}
 
 	@Override
 	protected void doHandle(SubmitMessage message, String roomCode, WebSocketSession session) throws IOException {
-		if (!roomRepository.validateSubmit(roomCode, message.getGameType())) {
-			throw new IllegalStateException(
+		// sequence 로 중복을 거르면 스크립트는 requestId key 를 만들지 않는다
+		boolean bySequence = idempotencyRedisRepository.usesSequence(message.getUserId(), message);
+		if (bySequence) {
+			claim(message, roomCode);
+		}
+		try {
+			SubmitResult result = roomRepository.submitScore(roomCode, message.getUserId(),
+				bySequence ? null : message.getRequestId(), message.getGameType(), message.getScore());
+			verify(result, message, roomCode);
+			if (result.roundCompleted()) {
+				roundAggregationTimer.expedite(roomCode);
+			}
+		} catch (RuntimeException e) {
+			if (bySequence) {
+				releaseClaim(message, roomCode);
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public Mono<Void> handleReactive(SubmitMessage message, String roomCode, WebSocketSession session) {
+		// stream 적재는 XADD 한 번이라 blocking 경로를 그대로 쓴다
+		if (submitStream.isEnabled()) {
+			return super.handleReactive(message, roomCode, session);
+		}
+		boolean bySequence = idempotencyRedisRepository.usesSequence(message.getUserId(), message);
+		// sequence window 가 메모리에 없으면 checkpoint 를 논블로킹으로 읽어 claim 한다
+		Mono<Void> claim = bySequence
+			? reactiveIdempotencyRepository.claim(roomCode, message.getUserId(), message.getSequence())
+				.flatMap(claimed -> claimed ? Mono.<Void>empty() : Mono.error(duplicateRequest(message.getRequestId())))
+			: Mono.empty();
+		return Mono.fromRunnable(() -> rejectRecentDuplicate(message, roomCode))
+			.then(claim)
+			.then(reactiveRoomRepository.submitScore(roomCode, message.getUserId(),
+				bySequence ? null : message.getRequestId(), message.getGameType(), message.getScore()))
+			.doOnNext(result -> {
+				verify(result, message, roomCode);
+				idempotencyRedisRepository.rememberClaimed(roomCode, message.getUserId(), message);
+			})
+			// 집계를 앞당기는 건 blocking Redis 호출이라 응답을 처리하는 스레드에서 돌리지 않는다
+			.filter(SubmitResult::roundCompleted)
+			.flatMap(result -> Mono.fromRunnable(() -> roundAggregationTimer.expedite(roomCode))
+				.subscribeOn(Schedulers.boundedElastic()))
+			.doOnError(e -> {
+				if (bySequence && !(e instanceof DuplicateRequestException)) {
+					releaseClaim(message, roomCode);
+				}
+			})
+			.then();
+	}
+
+	private void verify(SubmitResult result, SubmitMessage message, String roomCode) {
+		switch (result.status()) {
+			case ACCEPTED -> {
+			}
+			case DUPLICATE -> throw duplicateRequest(message.getRequestId());
+			case NOT_PLAYER -> throw wrongUser(message.getUserId(), roomCode);
+			case GAME_MISMATCH -> throw new IllegalStateException(
 				"[Submit] gameType: " + message.getGameType().name() + " is not matched with current round");
+			case NOT_PLAYING -> throw new IllegalStateException("Room is not in PLAYING state");
 		}
-		roomRepository.updateScore(roomCode, message.getUserId(), message.getScore());
 	}
 
 	@Override
@@ -41,6 +41,8 @@ public class UserReconnectMessageHandler extends GameMessageHandler<UserReconnec
 				"[UserReconnect] existing session is still active userId :" + userId);
 		}
 		sessionRegistry.register(userId, session);
+		// 새 세션의 클라이언트는 sequence 를 1 부터 다시 보낸다
+		idempotencyRedisRepository.resetSequence(roomCode, userId);
 		var userReconnectedMessage = new UserReconnectedMessage(message.getRequestId(), userId);
 		log.info("[UserReconnected] user reconnected for roomCode: {} id: {}", roomCode, userId);
 		session.sendMessage(new TextMessage(objectMapper.writeValueAsString(userReconnectedMessage)));
@@ -5,25 +5,86 @@ import java.time.Duration;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
+import com.party.backbone.room.util.RoomKeyUtils;
+import com.party.backbone.websocket.dispatch.sequence.SequenceDedupRegistry;
+import com.party.backbone.websocket.message.IdempotentMessage;
+
 @Component
 public class IdempotencyRedisRepository {
+	public static final Duration IDEMPOTENCY_TTL = Duration.ofMinutes(10);
 	private final RedisTemplate<String, String> redisTemplate;
+	private final RecentRequestCache recentRequestCache;
+	private final SequenceDedupRegistry sequenceDedupRegistry;
 
-	public IdempotencyRedisRepository(RedisTemplate<String, String> redisTemplate) {
+	public IdempotencyRedisRepository(RedisTemplate<String, String> redisTemplate,
+		RecentRequestCache recentRequestCache, SequenceDedupRegistry sequenceDedupRegistry) {
 		this.redisTemplate = redisTemplate;
+		this.recentRequestCache = recentRequestCache;
+		this.sequenceDedupRegistry = sequenceDedupRegistry;
+	}
+
+	// 확인과 기록을 SET NX 한 번으로 처리한다. 같은 요청이 동시에 와도 하나만 true 를 받는다
+	public boolean claim(String roomCode, String requestId) {
+		if (recentRequestCache.checkDuplicate(roomCode, requestId)) {
+			return false;
+		}
+		Boolean claimed = redisTemplate.opsForValue().setIfAbsent(buildKey(roomCode, requestId), "1",
+			IDEMPOTENCY_TTL);
+		recentRequestCache.remember(roomCode, requestId);
+		if (!Boolean.TRUE.equals(claimed)) {
+			recentRequestCache.recordRedisDuplicate();
+			return false;
+		}
+		recentRequestCache.recordClaim();
+		return true;
+	}
+
+	// sequence 모드에서 sequence 를 보낸 메시지면 window 로, 아니면 requestId 로 claim 한다
+	public boolean claim(String roomCode, String ownerId, IdempotentMessage message) {
+		if (usesSequence(ownerId, message)) {
+			return sequenceDedupRegistry.accept(roomCode, ownerId, message.getSequence());
+		}
+		return claim(roomCode, message.getRequestId());
+	}
+
+	public void release(String roomCode, String ownerId, IdempotentMessage message) {
+		if (usesSequence(ownerId, message)) {
+			sequenceDedupRegistry.release(roomCode, ownerId, message.getSequence());
+			return;
+		}
+		release(roomCode, message.getRequestId());
+	}
+
+	// 재접속한 유저는 sequence 를 처음부터 다시 센다
+	public void resetSequence(String roomCode, String ownerId) {
+		if (sequenceDedupRegistry.isEnabled()) {
+			sequenceDedupRegistry.reset(roomCode, ownerId);
+		}
+	}
+
+	public boolean usesSequence(String ownerId, IdempotentMessage message) {
+		return sequenceDedupRegistry.isEnabled() && ownerId != null && message.getSequence() != null;
+	}
+
+	// 처리에 실패한 요청은 claim 을 풀어 클라이언트가 다시 보낼 수 있게 한다
+	public void release(String roomCode, String requestId) {
+		recentRequestCache.forget(roomCode, requestId);
+		redisTemplate.delete(buildKey(roomCode, requestId));
 	}
 
-	public boolean isRequestIdProcessed(String roomCode, String requestId) {
-		String key = buildKey(roomCode, requestId);
-		return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+	// Redis 를 거치지 않고 이 인스턴스가 최근에 처리한 요청인지만 본다
+	public boolean isRecentlyClaimed(String roomCode, String requestId) {
+		return requestId != null && recentRequestCache.checkDuplicate(roomCode, requestId);
 	}
 
-	public void markRequestIdProcessed(String roomCode, String requestId) {
-		String key = buildKey(roomCode, requestId);
-		redisTemplate.opsForValue().set(key, "1", Duration.ofMinutes(10));
+	// 스크립트처럼 다른 경로로 claim 된 요청을 메모리에도 기억한다. sequence 로 거른 요청은 window 가 이미 기억한다
+	public void rememberClaimed(String roomCode, String ownerId, IdempotentMessage message) {
+		if (message.getRequestId() != null && !usesSequence(ownerId, message)) {
+			recentRequestCache.remember(roomCode, message.getRequestId());
+		}
 	}
 
 	private String buildKey(String roomCode, String requestId) {
-		return "idempotency:" + roomCode + ":" + requestId;
+		return RoomKeyUtils.getIdempotencyKey(roomCode, requestId);
 	}
 }
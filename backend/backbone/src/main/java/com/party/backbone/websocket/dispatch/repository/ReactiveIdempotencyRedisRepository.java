@@ -0,0 +1,57 @@
+package com.party.backbone.websocket.dispatch.repository;
+
+import static com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository.*;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.util.RoomKeyUtils;
+import com.party.backbone.websocket.dispatch.sequence.SequenceDedupRegistry;
+
+import reactor.core.publisher.Mono;
+
+@Component
+public class ReactiveIdempotencyRedisRepository {
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final RecentRequestCache recentRequestCache;
+	private final SequenceDedupRegistry sequenceDedupRegistry;
+
+	public ReactiveIdempotencyRedisRepository(ReactiveStringRedisTemplate redisTemplate,
+		RecentRequestCache recentRequestCache, SequenceDedupRegistry sequenceDedupRegistry) {
+		this.redisTemplate = redisTemplate;
+		this.recentRequestCache = recentRequestCache;
+		this.sequenceDedupRegistry = sequenceDedupRegistry;
+	}
+
+	// IdempotencyRedisRepository.claim 과 같은 SET NX 기반 claim
+	public Mono<Boolean> claim(String roomCode, String requestId) {
+		if (recentRequestCache.checkDuplicate(roomCode, requestId)) {
+			return Mono.just(false);
+		}
+		return redisTemplate.opsForValue()
+			.setIfAbsent(buildKey(roomCode, requestId), "1", IDEMPOTENCY_TTL)
+			.map(claimed -> {
+				recentRequestCache.remember(roomCode, requestId);
+				if (!Boolean.TRUE.equals(claimed)) {
+					recentRequestCache.recordRedisDuplicate();
+					return false;
+				}
+				recentRequestCache.recordClaim();
+				return true;
+			});
+	}
+
+	// sequence window 로 claim 한다. window 가 메모리에 없을 때만 checkpoint 를 읽는다
+	public Mono<Boolean> claim(String roomCode, String ownerId, long sequence) {
+		return sequenceDedupRegistry.acceptReactive(roomCode, ownerId, sequence);
+	}
+
+	public Mono<Boolean> release(String roomCode, String requestId) {
+		recentRequestCache.forget(roomCode, requestId);
+		return redisTemplate.delete(buildKey(roomCode, requestId)).map(deleted -> deleted > 0);
+	}
+
+	private String buildKey(String roomCode, String requestId) {
+		return RoomKeyUtils.getIdempotencyKey(roomCode, requestId);
+	}
+}
@@ -0,0 +1,86 @@
+package com.party.backbone.websocket.dispatch.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.util.RoomKeyUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 이 인스턴스가 최근에 claim 한 requestId 를 기억해 클라이언트 재전송을 Redis 까지 가지 않고 거절한다
+// 크기를 넘으면 오래된 것부터 버리며, 버려진 requestId 는 Redis 의 claim key 가 여전히 막아 준다
+@Slf4j
+@Component
+public class RecentRequestCache {
+	private final long ttlMillis = IdempotencyRedisRepository.IDEMPOTENCY_TTL.toMillis();
+	// requestId key -> 만료 시각
+	private final Map<String, Long> entries;
+
+	private final AtomicLong claimCount = new AtomicLong();
+	private final AtomicLong memoryDuplicateCount = new AtomicLong();
+	private final AtomicLong redisDuplicateCount = new AtomicLong();
+
+	public RecentRequestCache(@Value("${backbone.idempotency.recent-cache-size:100000}") int maxSize) {
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<>() {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	// 최근에 claim 된 요청이면 중복으로 세고 true
+	public boolean checkDuplicate(String roomCode, String requestId) {
+		String key = RoomKeyUtils.getIdempotencyKey(roomCode, requestId);
+		Long expiresAt = entries.get(key);
+		if (expiresAt == null) {
+			return false;
+		}
+		if (expiresAt < System.currentTimeMillis()) {
+			entries.remove(key);
+			return false;
+		}
+		memoryDuplicateCount.incrementAndGet();
+		return true;
+	}
+
+	public void remember(String roomCode, String requestId) {
+		entries.put(RoomKeyUtils.getIdempotencyKey(roomCode, requestId), System.currentTimeMillis() + ttlMillis);
+	}
+
+	public void forget(String roomCode, String requestId) {
+		entries.remove(RoomKeyUtils.getIdempotencyKey(roomCode, requestId));
+	}
+
+	public void recordClaim() {
+		claimCount.incrementAndGet();
+	}
+
+	public void recordRedisDuplicate() {
+		redisDuplicateCount.incrementAndGet();
+	}
+
+	public long getClaimCount() {
+		return claimCount.get();
+	}
+
+	public long getDuplicateCount() {
+		return memoryDuplicateCount.get() + redisDuplicateCount.get();
+	}
+
+	public long getMemoryDuplicateCount() {
+		return memoryDuplicateCount.get();
+	}
+
+	@Scheduled(fixedRate = 60_000)
+	public void logStats() {
+		log.info("[RecentRequestCache] size={} claims={} duplicates(memory)={} duplicates(redis)={}", entries.size(),
+			claimCount.get(), memoryDuplicateCount.get(), redisDuplicateCount.get());
+	}
+}
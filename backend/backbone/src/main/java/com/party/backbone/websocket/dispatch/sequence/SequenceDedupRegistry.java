@@ -0,0 +1,161 @@
+package com.party.backbone.websocket.dispatch.sequence;
+
+import static com.party.backbone.room.util.RedisPipelineUtils.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.party.backbone.room.util.RoomKeyUtils;
+import com.party.backbone.websocket.model.IdempotencyMode;
+
+import reactor.core.publisher.Mono;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+// sequence 모드의 중복 판단. 유저는 한 인스턴스의 웹소켓에 붙어 있으므로 window 는 메모리에서 관리하고,
+// 다른 인스턴스로 재접속하는 경우를 위해 방마다 hash 하나(room:{code}:sequences)에 주기적으로 기록한다
+// 마지막 기록 이후 받은 sequence 는 인스턴스가 죽으면 잊히므로 checkpoint 주기가 재수락될 수 있는 최대 구간이다
+// 클라이언트는 재접속하면 sequence 를 1 부터 다시 세므로, 재접속을 처리할 때 그 유저의 window 를 비운다
+@Slf4j
+@Component
+public class SequenceDedupRegistry {
+	private static final Duration CHECKPOINT_TTL = Duration.ofHours(2);
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	@Getter
+	private final boolean enabled;
+	private final Map<String, RoomWindows> rooms = new ConcurrentHashMap<>();
+
+	public SequenceDedupRegistry(RedisTemplate<String, String> redisTemplate,
+		ReactiveStringRedisTemplate reactiveRedisTemplate,
+		@Value("${backbone.idempotency.mode:request-id}") String idempotencyMode) {
+		this.redisTemplate = redisTemplate;
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.enabled = IdempotencyMode.fromProperty(idempotencyMode) == IdempotencyMode.SEQUENCE;
+	}
+
+	public boolean accept(String roomCode, String ownerId, long sequence) {
+		RoomWindows room = room(roomCode);
+		SequenceWindow window = room.cached(ownerId);
+		if (window == null) {
+			// map 의 lock 을 잡은 채 Redis 를 기다리지 않도록 먼저 읽고 나서 넣는다
+			Object checkpoint = redisTemplate.opsForHash().get(RoomKeyUtils.getSequencesKey(roomCode), ownerId);
+			window = room.putIfAbsent(ownerId, checkpoint == null ? null : checkpoint.toString());
+		}
+		return accept(room, ownerId, window, sequence);
+	}
+
+	// reactive 경로용. window 가 메모리에 없을 때만 checkpoint 를 논블로킹으로 읽는다
+	public Mono<Boolean> acceptReactive(String roomCode, String ownerId, long sequence) {
+		RoomWindows room = room(roomCode);
+		SequenceWindow window = room.cached(ownerId);
+		if (window != null) {
+			return Mono.just(accept(room, ownerId, window, sequence));
+		}
+		return reactiveRedisTemplate.<String, String>opsForHash()
+			.get(RoomKeyUtils.getSequencesKey(roomCode), ownerId)
+			.map(checkpoint -> room.putIfAbsent(ownerId, checkpoint))
+			.switchIfEmpty(Mono.fromSupplier(() -> room.putIfAbsent(ownerId, null)))
+			.map(loaded -> accept(room, ownerId, loaded, sequence));
+	}
+
+	// 메모리에 있는 window 만 되돌린다. 없으면 되돌릴 claim 도 없다
+	public void release(String roomCode, String ownerId, long sequence) {
+		RoomWindows room = rooms.get(roomCode);
+		SequenceWindow window = room == null ? null : room.cached(ownerId);
+		if (window != null) {
+			window.release(sequence);
+			room.markDirty(ownerId);
+		}
+	}
+
+	// 재접속한 유저의 window 와 checkpoint 를 지워 1 부터 다시 받는다
+	public void reset(String roomCode, String ownerId) {
+		RoomWindows room = rooms.get(roomCode);
+		if (room != null) {
+			room.remove(ownerId);
+		}
+		redisTemplate.opsForHash().delete(RoomKeyUtils.getSequencesKey(roomCode), ownerId);
+	}
+
+	private RoomWindows room(String roomCode) {
+		return rooms.computeIfAbsent(roomCode, code -> new RoomWindows());
+	}
+
+	private boolean accept(RoomWindows room, String ownerId, SequenceWindow window, long sequence) {
+		boolean accepted = window.accept(sequence);
+		if (accepted) {
+			room.markDirty(ownerId);
+		}
+		return accepted;
+	}
+
+	@Scheduled(fixedDelayString = "${backbone.idempotency.sequence.checkpoint-interval-ms:1000}")
+	public void checkpoint() {
+		long now = System.currentTimeMillis();
+		rooms.forEach((roomCode, room) -> {
+			Map<String, String> dirty = room.drainDirty();
+			if (!dirty.isEmpty()) {
+				String key = RoomKeyUtils.getSequencesKey(roomCode);
+				pipelined(redisTemplate, operations -> {
+					operations.opsForHash().putAll(key, dirty);
+					operations.expire(key, CHECKPOINT_TTL);
+				});
+			}
+			// 오래 쓰이지 않은 방은 메모리에서 내린다. 다시 쓰이면 checkpoint 에서 읽어 온다
+			if (now - room.lastAccessedAt >= CHECKPOINT_TTL.toMillis()) {
+				rooms.remove(roomCode);
+			}
+		});
+	}
+
+	private class RoomWindows {
+		private final Map<String, SequenceWindow> windows = new ConcurrentHashMap<>();
+		private final Set<String> dirtyOwners = ConcurrentHashMap.newKeySet();
+		private volatile long lastAccessedAt = System.currentTimeMillis();
+
+		SequenceWindow cached(String ownerId) {
+			lastAccessedAt = System.currentTimeMillis();
+			return windows.get(ownerId);
+		}
+
+		// 먼저 넣은 쪽의 window 를 돌려준다
+		SequenceWindow putIfAbsent(String ownerId, String checkpoint) {
+			SequenceWindow loaded = checkpoint == null ? new SequenceWindow() : SequenceWindow.decode(checkpoint);
+			SequenceWindow existing = windows.putIfAbsent(ownerId, loaded);
+			return existing != null ? existing : loaded;
+		}
+
+		void remove(String ownerId) {
+			dirtyOwners.remove(ownerId);
+			windows.remove(ownerId);
+		}
+
+		void markDirty(String ownerId) {
+			dirtyOwners.add(ownerId);
+		}
+
+		Map<String, String> drainDirty() {
+			Map<String, String> dirty = new HashMap<>();
+			for (String ownerId : dirtyOwners) {
+				dirtyOwners.remove(ownerId);
+				SequenceWindow window = windows.get(ownerId);
+				if (window != null) {
+					dirty.put(ownerId, window.encode());
+				}
+			}
+			return dirty;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.party.backbone.websocket.dispatch.sequence;
+
+// 한 유저가 보낸 sequence 의 최댓값(highWater)과 그 아래 WINDOW_SIZE 개의 수신 여부를 bitmap 으로 기억한다
+// bit i 는 highWater - i 를 받았는지를 뜻하고, window 보다 오래된 sequence 는 중복으로 본다
+public class SequenceWindow {
+	public static final int WINDOW_SIZE = Long.SIZE;
+
+	private long highWater;
+	private long bitmap;
+
+	public SequenceWindow() {
+		this(0, 0);
+	}
+
+	private SequenceWindow(long highWater, long bitmap) {
+		this.highWater = highWater;
+		this.bitmap = bitmap;
+	}
+
+	// 처음 보는 sequence 면 기록하고 true
+	public synchronized boolean accept(long sequence) {
+		if (sequence > highWater) {
+			long shift = sequence - highWater;
+			bitmap = shift >= WINDOW_SIZE ? 0 : bitmap << shift;
+			bitmap |= 1;
+			highWater = sequence;
+			return true;
+		}
+		long offset = highWater - sequence;
+		if (offset >= WINDOW_SIZE) {
+			return false;
+		}
+		long mask = 1L << offset;
+		if ((bitmap & mask) != 0) {
+			return false;
+		}
+		bitmap |= mask;
+		return true;
+	}
+
+	// 처리에 실패한 sequence 를 다시 받을 수 있게 되돌린다. highWater 는 그대로 둔다
+	public synchronized void release(long sequence) {
+		long offset = highWater - sequence;
+		if (offset >= 0 && offset < WINDOW_SIZE) {
+			bitmap &= ~(1L << offset);
+		}
+	}
+
+	public synchronized String encode() {
+		return highWater + ":" + Long.toUnsignedString(bitmap);
+	}
+
+	public static SequenceWindow decode(String encoded) {
+		int separator = encoded.indexOf(':');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid sequence window: " + encoded);
+		}
+		return new SequenceWindow(Long.parseLong(encoded.substring(0, separator)),
+			Long.parseUnsignedLong(encoded.substring(separator + 1)));
+	}
+}
@@ -3,6 +3,7 @@ package com.party.backbone.websocket.handler;
 import java.io.IOException;
 import java.net.URI;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -11,22 +12,32 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.party.backbone.room.RoomRedisRepository;
+import com.party.backbone.room.model.RedisAccessMode;
 import com.party.backbone.websocket.dispatch.registry.UserMessageHandlerRegistry;
 import com.party.backbone.websocket.message.GameMessage;
 import com.party.backbone.websocket.message.server.ErrorMessage;
 import com.party.backbone.websocket.model.UserMessageType;
 
-import lombok.RequiredArgsConstructor;
+import reactor.core.scheduler.Schedulers;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class UserWebSocketHandler extends TextWebSocketHandler {
 
 	private final ObjectMapper objectMapper;
 	private final UserMessageHandlerRegistry registry;
 	private final RoomRedisRepository roomRepository;
+	private final RedisAccessMode redisAccessMode;
+
+	public UserWebSocketHandler(ObjectMapper objectMapper, UserMessageHandlerRegistry registry,
+		RoomRedisRepository roomRepository, @Value("${backbone.redis.access-mode:blocking}") String redisAccessMode) {
+		this.objectMapper = objectMapper;
+		this.registry = registry;
+		this.roomRepository = roomRepository;
+		this.redisAccessMode = RedisAccessMode.fromProperty(redisAccessMode);
+	}
 
 	@Override
 	public void afterConnectionEstablished(WebSocketSession session) throws IOException {
@@ -61,13 +72,28 @@ public class UserWebSocketHandler extends TextWebSocketHandler {
 			String roomCode = (String)session.getAttributes().get("roomCode");
 			log.info("[USER_WEBSOCKET] message : {}", message);
 			UserMessageType type = UserMessageType.fromMessage(message);
+			if (redisAccessMode == RedisAccessMode.REACTIVE) {
+				// 응답을 기다리지 않고 컨테이너 스레드를 바로 돌려준다. 오류는 완료 시점에 같은 형식으로 보낸다
+				registry.getHandler(type).handleReactive(message, roomCode, session)
+					.publishOn(Schedulers.boundedElastic())
+					.subscribe(null, error -> sendError(session, error));
+				return;
+			}
 			registry.getHandler(type).handle(message, roomCode, session);
 		} catch (Exception e) {
-			var errorMessage = new ErrorMessage(e.getMessage());
-			log.error("[USER_WEBSOCKET] 예외 발생 {}", errorMessage);
+			sendError(session, e);
+		}
+	}
+
+	private void sendError(WebSocketSession session, Throwable e) {
+		var errorMessage = new ErrorMessage(e.getMessage());
+		log.error("[USER_WEBSOCKET] 예외 발생 {}", errorMessage);
+		try {
 			session.sendMessage(
 				new TextMessage(
 					objectMapper.writeValueAsString(errorMessage)));
+		} catch (IOException ioException) {
+			log.error("[USER_WEBSOCKET] failed to send error message to {}", session.getId(), ioException);
 		}
 	}
 
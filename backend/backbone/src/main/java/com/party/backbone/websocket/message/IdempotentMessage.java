@@ -2,4 +2,9 @@ package com.party.backbone.websocket.message;
 
 public interface IdempotentMessage extends GameMessage {
 	String getRequestId();
+
+	// sequence 모드에서 클라이언트 세션이 보내는 단조 증가 번호. 보내지 않으면 requestId 로 중복을 거른다
+	default Long getSequence() {
+		return null;
+	}
 }
@@ -2,6 +2,7 @@ package com.party.backbone.websocket.message.server;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.party.backbone.websocket.message.GameMessage;
 import com.party.backbone.websocket.model.GameType;
 import com.party.backbone.websocket.model.RankingInfo;
@@ -11,6 +12,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// 플레이어마다 같은 필드를 앞에 둔다. AggregatedUserMessageTemplate 이 첫 플레이어별 필드(currentScore)에서 잘라 쓴다
+@JsonPropertyOrder({"currentRound", "totalRound", "roundPlayerCount", "totalPlayerCount", "gameType", "roundRanking",
+	"overallRanking", "currentScore", "totalScore", "rankRecord", "roundRank", "overallRank", "videoUploadUrl"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,71 @@
+package com.party.backbone.websocket.message.server;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.websocket.model.GameType;
+import com.party.backbone.websocket.model.RankingInfo;
+
+// 한 라운드의 AggregatedUserMessage 는 top3 순위표, gameType, 라운드/플레이어 수가 모두 같고 플레이어별로 다른 필드는 몇 개뿐이다
+// 같은 부분은 라운드마다 한 번만 ObjectMapper 로 직렬화해 두고, 플레이어별 필드만 이어 붙여
+// ObjectMapper.writeValueAsString(AggregatedUserMessage) 와 같은 JSON 을 만든다
+public class AggregatedUserMessageTemplate {
+	private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+	// @JsonPropertyOrder 상 첫 플레이어별 필드. 문자열 값 안의 따옴표는 이스케이프되므로 값 안에서는 나오지 않는다
+	private static final String FIRST_PER_USER_FIELD = ",\"currentScore\":";
+
+	// {"type":"AGGREGATED_USER", ... ,"overallRanking":[...]
+	private final String sharedPart;
+
+	private AggregatedUserMessageTemplate(String sharedPart) {
+		this.sharedPart = sharedPart;
+	}
+
+	public static AggregatedUserMessageTemplate of(ObjectMapper objectMapper, int currentRound, int totalRound,
+		int roundPlayerCount, int totalPlayerCount, GameType gameType, List<RankingInfo> roundRanking,
+		List<RankingInfo> overallRanking) throws JsonProcessingException {
+		// 타입 id 와 필드 이름은 실제 직렬화 결과에서 가져온다
+		String json = objectMapper.writeValueAsString(AggregatedUserMessage.builder()
+			.currentRound(currentRound)
+			.totalRound(totalRound)
+			.roundPlayerCount(roundPlayerCount)
+			.totalPlayerCount(totalPlayerCount)
+			.gameType(gameType)
+			.roundRanking(roundRanking)
+			.overallRanking(overallRanking)
+			.build());
+		int cut = json.indexOf(FIRST_PER_USER_FIELD);
+		if (cut < 0) {
+			throw new IllegalStateException("per-user fields not found in AggregatedUserMessage json: " + json);
+		}
+		return new AggregatedUserMessageTemplate(json.substring(0, cut));
+	}
+
+	public String render(int currentScore, int totalScore, String rankRecord, int roundRank, int overallRank,
+		String videoUploadUrl) {
+		StringBuilder json = new StringBuilder(sharedPart.length() + 160
+			+ (rankRecord == null ? 0 : rankRecord.length()) + (videoUploadUrl == null ? 0 : videoUploadUrl.length()));
+		json.append(sharedPart)
+			.append(FIRST_PER_USER_FIELD).append(currentScore)
+			.append(",\"totalScore\":").append(totalScore)
+			.append(",\"rankRecord\":");
+		appendString(json, rankRecord);
+		json.append(",\"roundRank\":").append(roundRank)
+			.append(",\"overallRank\":").append(overallRank)
+			.append(",\"videoUploadUrl\":");
+		appendString(json, videoUploadUrl);
+		return json.append('}').toString();
+	}
+
+	private static void appendString(StringBuilder json, String value) {
+		if (value == null) {
+			json.append("null");
+			return;
+		}
+		json.append('"');
+		ENCODER.quoteAsString(value, json);
+		json.append('"');
+	}
+}
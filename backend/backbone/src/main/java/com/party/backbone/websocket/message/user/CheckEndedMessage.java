@@ -11,5 +11,6 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class CheckEndedMessage implements IdempotentMessage, UserMessage {
 	private String requestId;
+	private Long sequence;
 	private String userId;
 }
\ No newline at end of file
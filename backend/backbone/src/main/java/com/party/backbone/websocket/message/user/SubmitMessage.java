@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class SubmitMessage implements IdempotentMessage, UserMessage {
 	private String requestId;
+	private Long sequence;
 	private String userId;
 	private int score;
 	private GameType gameType;
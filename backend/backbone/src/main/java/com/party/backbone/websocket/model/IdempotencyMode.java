@@ -0,0 +1,26 @@
+package com.party.backbone.websocket.model;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+@Getter
+public enum IdempotencyMode {
+	// 요청마다 requestId key 를 Redis 에 남긴다
+	REQUEST_ID("request-id"),
+	// sequence 를 보낸 메시지는 유저별 sequence window 로 중복을 거르고, 보내지 않은 메시지만 requestId 로 처리
+	SEQUENCE("sequence");
+
+	private final String propertyValue;
+
+	IdempotencyMode(String propertyValue) {
+		this.propertyValue = propertyValue;
+	}
+
+	public static IdempotencyMode fromProperty(String value) {
+		return Arrays.stream(values())
+			.filter(mode -> mode.propertyValue.equalsIgnoreCase(value))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown idempotency mode: " + value));
+	}
+}
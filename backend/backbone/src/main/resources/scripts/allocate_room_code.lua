@@ -0,0 +1,15 @@
+-- 미리 섞어 둔 pool 에서 방 코드를 하나 꺼내 할당 목록에 올린다
+-- KEYS[1] 코드 pool list, KEYS[2] 할당된 코드 set
+-- ARGV[1] 이미 할당된 코드(중복 반환분)를 건너뛸 최대 횟수
+-- return 할당된 코드, pool 이 비었으면 nil
+for _ = 1, tonumber(ARGV[1]) do
+	local code = redis.call('LPOP', KEYS[1])
+	if not code then
+		return false
+	end
+	if redis.call('SADD', KEYS[2], code) == 1 then
+		return code
+	end
+end
+
+return false
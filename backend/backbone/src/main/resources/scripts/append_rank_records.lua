@@ -0,0 +1,32 @@
+-- 여러 플레이어의 rankRecord 끝에 이번 라운드 순위를 한 번에 덧붙이고 갱신된 값을 돌려준다
+-- 플레이어마다 마지막으로 덧붙인 라운드를 남겨 두어, 집계를 다시 시도해도 같은 라운드가 두 번 덧붙지 않는다
+-- KEYS[i] (i < #KEYS) i번째 플레이어의 rankRecord 가 든 hash (방 단위 저장 방식이면 같은 key 가 반복된다)
+-- KEYS[#KEYS] userId -> 마지막으로 덧붙인 라운드 hash
+-- ARGV[1] 이번 라운드 (0 이면 라운드를 확인하지 않고 덧붙인다)
+-- ARGV[3i-1] i번째 플레이어 hash 안의 field, ARGV[3i] 이번 라운드 순위 (미제출은 0), ARGV[3i+1] userId
+-- return 플레이어 순서대로 갱신된 rankRecord
+local roundKey = KEYS[#KEYS]
+local round = tonumber(ARGV[1])
+local records = {}
+for i = 1, #KEYS - 1 do
+	local field = ARGV[3 * i - 1]
+	local rank = ARGV[3 * i]
+	local userId = ARGV[3 * i + 1]
+	local prev = redis.call('HGET', KEYS[i], field)
+	local appendedRound = tonumber(redis.call('HGET', roundKey, userId) or '0')
+	if round > 0 and appendedRound >= round then
+		records[i] = prev or ''
+	else
+		local updated = rank
+		if prev and prev ~= '' then
+			updated = prev .. '|' .. rank
+		end
+		redis.call('HSET', KEYS[i], field, updated)
+		if round > 0 then
+			redis.call('HSET', roundKey, userId, round)
+		end
+		records[i] = updated
+	end
+end
+
+return records
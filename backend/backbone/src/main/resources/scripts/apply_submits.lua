@@ -0,0 +1,61 @@
+-- stream 모드에서 worker 가 한 방의 제출 여러 건을 한 번에 검증하고 반영한다. 검증 순서는 submit.lua 와 같다
+-- KEYS[1] room hash, KEYS[2] playerIds set, KEYS[3] games list, KEYS[4] leaderboard zset
+-- KEYS[5] ARGV[2] 라운드의 round score zset, KEYS[6] ARGV[2] 라운드의 제출자 set
+-- KEYS[5 + 2i] i번째 제출의 idempotency key, KEYS[6 + 2i] i번째 제출의 score hash
+-- ARGV[1] idempotency ttl(seconds), ARGV[2] 제출들이 적재될 때의 라운드
+-- ARGV[5i - 2 .. 5i + 2] i번째 제출의 userId, gameType, score, score field, '1' 이면 idempotency key 사용
+-- return 제출 순서대로 status (1 accepted, 0 duplicate, -1 not player, -2 game mismatch, -3 not playing,
+--        -4 적재된 뒤 라운드가 바뀜)
+--        마지막 원소는 이 묶음으로 모든 플레이어가 이번 라운드에 한 번 이상 제출했으면 1
+local round = tonumber(redis.call('HGET', KEYS[1], 'currentRound'))
+local appendedRound = tonumber(ARGV[2])
+local state = redis.call('HGET', KEYS[1], 'state')
+local game = false
+if round then
+	game = redis.call('LINDEX', KEYS[3], round - 1)
+end
+
+local statuses = {}
+local completed = 0
+for i = 1, (#KEYS - 6) / 2 do
+	local requestKey = KEYS[5 + 2 * i]
+	local scoreKey = KEYS[6 + 2 * i]
+	local userId = ARGV[5 * i - 2]
+	local gameType = ARGV[5 * i - 1]
+	local score = tonumber(ARGV[5 * i])
+	local scoreField = ARGV[5 * i + 1]
+	local useRequestKey = ARGV[5 * i + 2] ~= '0'
+
+	local status
+	if useRequestKey and redis.call('EXISTS', requestKey) == 1 then
+		status = 0
+	elseif redis.call('SISMEMBER', KEYS[2], userId) == 0 then
+		status = -1
+	elseif not round then
+		status = -3
+	elseif appendedRound ~= round then
+		status = -4
+	elseif game ~= gameType then
+		status = -2
+	elseif state ~= 'PLAYING' then
+		status = -3
+	else
+		-- Java Math.round(score * 1.05^(round - 1)) 와 같은 결과
+		local weighted = math.floor(score * (1.05 ^ (round - 1)) + 0.5)
+		redis.call('HINCRBY', scoreKey, scoreField, weighted)
+		redis.call('ZINCRBY', KEYS[4], weighted, userId)
+		redis.call('ZINCRBY', KEYS[5], score, userId)
+		if useRequestKey then
+			redis.call('SET', requestKey, '1', 'EX', ARGV[1])
+		end
+		if redis.call('SADD', KEYS[6], userId) == 1
+			and redis.call('SCARD', KEYS[6]) >= redis.call('SCARD', KEYS[2]) then
+			completed = 1
+		end
+		status = 1
+	end
+	statuses[i] = status
+end
+statuses[#statuses + 1] = completed
+
+return statuses
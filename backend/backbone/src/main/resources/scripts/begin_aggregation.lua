@@ -0,0 +1,13 @@
+-- 집계를 시작하며 방을 WAITING 으로 돌리고 라운드 정보를 읽는다
+-- claim 한 라운드(ARGV[1])가 있는데 그 사이 다음 라운드가 시작됐으면 아무것도 바꾸지 않는다
+-- KEYS[1] room hash
+-- ARGV[1] claim 한 라운드(모르면 0), ARGV[2] WAITING 상태 이름, ARGV[3] WAITING ttl(seconds)
+-- return { currentRound, totalRound, startedRound }. 다음 라운드가 이미 시작됐으면 빈 목록
+local fields = redis.call('HMGET', KEYS[1], 'currentRound', 'totalRound', 'startedRound')
+if ARGV[1] ~= '0' and fields[3] ~= ARGV[1] then
+	return {}
+end
+
+redis.call('HSET', KEYS[1], 'state', ARGV[2])
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+return fields
@@ -0,0 +1,25 @@
+-- CHECK_ENDED 응답에 필요한 값을 한 번에 읽는다
+-- KEYS[1] finalResults hash, KEYS[2] room hash, KEYS[3] rankRecord hash, KEYS[4] score hash, KEYS[5] finalRank hash,
+-- KEYS[6] playerIds set
+-- ARGV[1] userId, ARGV[2] rankRecord field, ARGV[3] score field, ARGV[4] finalRank field
+-- return 종료 후 고정된 결과가 있으면 { encoded }, 없으면 { '', state, rankRecord, score, finalRank, playerCount }
+--        플레이어의 rankRecord 나 score 가 없으면(방에 없는 userId) { '' }. blocking 경로처럼 호출자가 예외로 바꾼다
+local encoded = redis.call('HGET', KEYS[1], ARGV[1])
+if encoded then
+	return { encoded }
+end
+
+local rankRecord = redis.call('HGET', KEYS[3], ARGV[2])
+local score = redis.call('HGET', KEYS[4], ARGV[3])
+if not rankRecord or not score then
+	return { '' }
+end
+
+return {
+	'',
+	redis.call('HGET', KEYS[2], 'state') or '',
+	rankRecord,
+	score,
+	redis.call('HGET', KEYS[5], ARGV[4]) or '',
+	redis.call('SCARD', KEYS[6])
+}
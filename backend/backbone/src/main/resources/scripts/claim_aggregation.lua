@@ -0,0 +1,15 @@
+-- 집계 기한이 된 방을 pending 에서 lease 로 옮기고 이번 라운드의 시도 횟수를 올린다
+-- lease 가 만료되기 전에 finish_aggregation 으로 끝내지 않으면 requeue_expired_aggregations 가 pending 으로 되돌린다
+-- KEYS[1] pending zset, KEYS[2] lease zset, KEYS[3] 시도 횟수 hash
+-- ARGV[1] roomCode, ARGV[2] 현재 시각(ms), ARGV[3] lease 만료 시각(ms)
+-- return { 이번 시도 횟수, schedule_aggregation 이 기록한 라운드(없으면 0) }
+--        아직 기한이 안 됐거나 이미 다른 쪽이 꺼냈으면 시도 횟수가 0
+local dueAt = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not dueAt or tonumber(dueAt) > tonumber(ARGV[2]) then
+	return { 0, 0 }
+end
+
+redis.call('ZREM', KEYS[1], ARGV[1])
+redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+local attempt = redis.call('HINCRBY', KEYS[3], ARGV[1], 1)
+return { attempt, tonumber(redis.call('HGET', KEYS[3], ARGV[1] .. ':round')) or 0 }
@@ -0,0 +1,11 @@
+-- 모든 플레이어가 제출한 방의 집계 기한을 앞당긴다. 이미 꺼냈거나 기한이 더 이르면 그대로 둔다
+-- KEYS[1] pending zset
+-- ARGV[1] roomCode, ARGV[2] 새 집계 기한(ms)
+-- return 앞당겼으면 1, 아니면 0
+local dueAt = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not dueAt or tonumber(dueAt) <= tonumber(ARGV[2]) then
+	return 0
+end
+
+redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+return 1
@@ -0,0 +1,18 @@
+-- lease 를 가진 집계 시도를 끝낸다. 시도 횟수가 fencing token 이라 만료 뒤 늦게 끝난 시도는 아무것도 바꾸지 못한다
+-- KEYS[1] pending zset, KEYS[2] lease zset, KEYS[3] 시도 횟수 hash, KEYS[4] dead-letter zset
+-- ARGV[1] roomCode, ARGV[2] 이 시도의 횟수, ARGV[3] done | retry | dead, ARGV[4] retry 면 다시 시도할 시각, dead 면 현재 시각
+-- return lease 를 가진 시도였으면 1, 아니면 0
+if redis.call('HGET', KEYS[3], ARGV[1]) ~= ARGV[2] or redis.call('ZREM', KEYS[2], ARGV[1]) == 0 then
+	return 0
+end
+
+if ARGV[3] == 'retry' then
+	redis.call('ZADD', KEYS[1], ARGV[4], ARGV[1])
+	return 1
+end
+
+redis.call('HDEL', KEYS[3], ARGV[1], ARGV[1] .. ':round')
+if ARGV[3] == 'dead' then
+	redis.call('ZADD', KEYS[4], ARGV[4], ARGV[1])
+end
+return 1
@@ -0,0 +1,9 @@
+-- 동점자를 같은 순위로 치는 competition ranking (1, 2, 2, 4) 기준 전체 순위
+-- KEYS[1] leaderboard zset, ARGV[1] userId
+-- return 순위, 순위표에 없으면 -1
+local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not score then
+	return -1
+end
+
+return redis.call('ZCOUNT', KEYS[1], '(' .. score, '+inf') + 1
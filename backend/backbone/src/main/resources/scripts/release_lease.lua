@@ -0,0 +1,9 @@
+-- 자신이 가진 lease 만 지운다
+-- KEYS[1] lease key
+-- ARGV[1] 인스턴스 id
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+	redis.call('DEL', KEYS[1])
+	return 1
+end
+
+return 0
@@ -0,0 +1,9 @@
+-- 할당된 코드만 pool 끝으로 돌려보낸다. 같은 방을 두 번 지워도 pool 에 중복으로 들어가지 않는다
+-- KEYS[1] 코드 pool list, KEYS[2] 할당된 코드 set
+-- ARGV[1] 반환할 코드
+if redis.call('SREM', KEYS[2], ARGV[1]) == 1 then
+	redis.call('RPUSH', KEYS[1], ARGV[1])
+	return 1
+end
+
+return 0
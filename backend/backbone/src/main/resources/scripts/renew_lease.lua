@@ -0,0 +1,9 @@
+-- 자신이 가진 lease 만 연장한다. 이미 만료돼 다른 인스턴스가 가져갔으면 0
+-- KEYS[1] lease key
+-- ARGV[1] 인스턴스 id, ARGV[2] lease 길이(ms)
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+	redis.call('PEXPIRE', KEYS[1], ARGV[2])
+	return 1
+end
+
+return 0
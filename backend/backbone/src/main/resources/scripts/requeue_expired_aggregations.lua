@@ -0,0 +1,11 @@
+-- lease 가 만료된 방(집계하던 인스턴스가 죽었거나 멈췄다)을 pending 으로 되돌린다. 시도 횟수는 그대로 둔다
+-- KEYS[1] pending zset, KEYS[2] lease zset
+-- ARGV[1] 현재 시각(ms), ARGV[2] 한 번에 되돌릴 최대 방 수
+-- return 되돌린 roomCode 목록
+local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+for _, roomCode in ipairs(expired) do
+	redis.call('ZREM', KEYS[2], roomCode)
+	redis.call('ZADD', KEYS[1], ARGV[1], roomCode)
+end
+
+return expired
@@ -0,0 +1,9 @@
+-- 라운드를 시작할 때 방을 집계 대기에 넣는다. 이전 라운드의 lease 와 시도 횟수는 지워 남은 재시도가 새 라운드를 건드리지 못하게 하고,
+-- 이번 라운드를 기록해 claim 한 쪽이 어느 라운드를 집계해야 하는지 알게 한다
+-- KEYS[1] pending zset, KEYS[2] lease zset, KEYS[3] 시도 횟수 hash
+-- ARGV[1] roomCode, ARGV[2] endAt(ms), ARGV[3] 시작한 라운드
+redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+redis.call('ZREM', KEYS[2], ARGV[1])
+redis.call('HDEL', KEYS[3], ARGV[1])
+redis.call('HSET', KEYS[3], ARGV[1] .. ':round', ARGV[3])
+return 1
@@ -0,0 +1,56 @@
+-- SUBMIT 한 번에 필요한 검증과 점수 반영을 한 번의 왕복으로 원자적으로 처리한다.
+-- KEYS[1] idempotency key, KEYS[2] room hash, KEYS[3] playerIds set, KEYS[4] games list, KEYS[5] score hash,
+-- KEYS[6] leaderboard zset, KEYS[7] ARGV[8] 라운드의 round score zset, KEYS[8] ARGV[8] 라운드의 제출자 set
+-- ARGV[1] userId, ARGV[2] gameType, ARGV[3] score, ARGV[4] idempotency ttl(seconds), ARGV[5] score field,
+-- ARGV[6] '1' 이면 점수를 바로 반영, '0' 이면 검증/멱등성 처리만 하고 점수는 write-behind 버퍼가 반영
+-- ARGV[7] '1' 이면 KEYS[1] 로 중복을 거르고, '0' 이면 호출자가 sequence window 로 이미 걸렀으므로 건너뛴다
+-- ARGV[8] 호출자가 라운드 key 를 만들 때 쓴 라운드
+-- return {status, round, completed} (status: 1 accepted, 0 duplicate, -1 not player, -2 game mismatch, -3 not playing,
+--        -4 ARGV[8] 이 현재 라운드와 달라 아무것도 반영하지 않음. 호출자가 돌려받은 round 로 key 를 다시 만들어 보낸다)
+-- completed 는 이 제출로 모든 플레이어가 이번 라운드에 한 번 이상 제출했으면 1
+local useRequestKey = ARGV[7] ~= '0'
+if useRequestKey and redis.call('EXISTS', KEYS[1]) == 1 then
+	return { 0, 0, 0 }
+end
+
+if redis.call('SISMEMBER', KEYS[3], ARGV[1]) == 0 then
+	return { -1, 0, 0 }
+end
+
+local round = tonumber(redis.call('HGET', KEYS[2], 'currentRound'))
+if not round then
+	return { -3, 0, 0 }
+end
+
+if round ~= tonumber(ARGV[8]) then
+	return { -4, round, 0 }
+end
+
+if redis.call('LINDEX', KEYS[4], round - 1) ~= ARGV[2] then
+	return { -2, round, 0 }
+end
+
+if redis.call('HGET', KEYS[2], 'state') ~= 'PLAYING' then
+	return { -3, round, 0 }
+end
+
+if ARGV[6] == '1' then
+	local score = tonumber(ARGV[3])
+	-- Java Math.round(score * 1.05^(round - 1)) 와 같은 결과
+	local weighted = math.floor(score * (1.05 ^ (round - 1)) + 0.5)
+	redis.call('HINCRBY', KEYS[5], ARGV[5], weighted)
+	redis.call('ZINCRBY', KEYS[6], weighted, ARGV[1])
+	redis.call('ZINCRBY', KEYS[7], score, ARGV[1])
+end
+if useRequestKey then
+	redis.call('SET', KEYS[1], '1', 'EX', ARGV[4])
+end
+
+-- write-behind 모드면 라운드 점수 zset 이 늦게 채워지므로 제출자는 따로 센다
+local completed = 0
+if redis.call('SADD', KEYS[8], ARGV[1]) == 1
+	and redis.call('SCARD', KEYS[8]) >= redis.call('SCARD', KEYS[3]) then
+	completed = 1
+end
+
+return { 1, round, completed }
@@ -0,0 +1,157 @@
+package com.party.backbone.dispatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.websocket.message.GameMessage;
+import com.party.backbone.websocket.message.server.AggregatedUserMessage;
+import com.party.backbone.websocket.message.server.AggregatedUserMessageTemplate;
+import com.party.backbone.websocket.model.GameType;
+import com.party.backbone.websocket.model.RankingInfo;
+import com.sun.management.ThreadMXBean;
+
+class AggregatedUserMessageTemplateTest {
+	private static final int PLAYER_COUNT = 1_000;
+	private static final int ROUND_PLAYER_COUNT = 980;
+	private static final int ROUNDS = 50;
+
+	// 애플리케이션과 같은 Spring Boot 설정의 ObjectMapper. 공통 부분도 이 mapper 로 잘라 낸다
+	private final ObjectMapper objectMapper = applicationObjectMapper();
+	private final List<RankingInfo> roundTop3 = List.of(
+		new RankingInfo("user-1", "\"따옴표\" 닉네임", 300, 1),
+		new RankingInfo("user-2", "back\\slash", 200, 2),
+		new RankingInfo("user-3", null, 100, 3));
+	private final List<RankingInfo> overallTop3 = List.of(
+		new RankingInfo("user-2", "back\\slash", 900, 1),
+		new RankingInfo("user-1", "\"따옴표\" 닉네임", 800, 2),
+		new RankingInfo("user-4", "탭\t개행\n", 700, 3));
+
+	@Test
+	void templateProducesSameJsonAsObjectMapper() throws Exception {
+		AggregatedUserMessageTemplate template = newTemplate();
+		List<String> rankRecords = new ArrayList<>();
+		rankRecords.add("1|3");
+		rankRecords.add("");
+		rankRecords.add(null);
+		List<String> urls = List.of("", "http://minio:9000/bucket/room/2/user-1?X-Amz-Signature=a%2Fb&x=\"y\"");
+		for (String rankRecord : rankRecords) {
+			for (String url : urls) {
+				AggregatedUserMessage message = message(7, rankRecord, url);
+				String expected = objectMapper.writeValueAsString(message);
+				String rendered = template.render(message.getCurrentScore(), message.getTotalScore(), rankRecord,
+					message.getRoundRank(), message.getOverallRank(), url);
+				// 필드 순서까지 같아야 공통 부분을 잘라 쓴 위치가 맞다
+				assertEquals(expected, rendered);
+				// 클라이언트가 받는 타입으로 그대로 읽힌다
+				assertEquals(message, objectMapper.readValue(rendered, GameMessage.class));
+			}
+		}
+	}
+
+	// 한 라운드의 1,000명 모두에게 ObjectMapper 로 직렬화한 것과 같은 문자열을 보낸다
+	@Test
+	void templateMatchesObjectMapperForEveryPlayerInRound() throws Exception {
+		AggregatedUserMessageTemplate template = newTemplate();
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			String expected = objectMapper.writeValueAsString(message(i, "1|2|" + i, ""));
+			assertEquals(expected, template.render(i, i * 2, "1|2|" + i, i + 1, i + 1, ""));
+		}
+	}
+
+	// 라운드마다 1,000명에게 보낼 메시지를 만드는 비용을 ObjectMapper 로 매번 직렬화하는 경우와 비교한다
+	// 다른 벤치마크처럼 로컬 벤치마크 환경(REDIS_HOST)에서만 돈다
+	@Test
+	@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+	void templateSerializationBenchmark() throws Exception {
+		// warm up
+		serializeWithObjectMapper();
+		serializeWithTemplate();
+
+		long objectMapperBytes = allocatedBytes();
+		long start = System.nanoTime();
+		int objectMapperLength = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			objectMapperLength += serializeWithObjectMapper();
+		}
+		long objectMapperNanos = System.nanoTime() - start;
+		objectMapperBytes = allocatedBytes() - objectMapperBytes;
+
+		long templateBytes = allocatedBytes();
+		start = System.nanoTime();
+		int templateLength = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			templateLength += serializeWithTemplate();
+		}
+		long templateNanos = System.nanoTime() - start;
+		templateBytes = allocatedBytes() - templateBytes;
+
+		assertTrue(objectMapperLength > 0 && templateLength > 0);
+		System.out.println("[Test] " + PLAYER_COUNT + " AggregatedUserMessage per round: writeValueAsString="
+			+ objectMapperNanos / ROUNDS / 1_000 + "us " + objectMapperBytes / ROUNDS / 1_024
+			+ "KB allocated, template=" + templateNanos / ROUNDS / 1_000 + "us " + templateBytes / ROUNDS / 1_024
+			+ "KB allocated");
+	}
+
+	private int serializeWithObjectMapper() throws Exception {
+		int length = 0;
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			length += objectMapper.writeValueAsString(message(i, "1|2|" + i, "")).length();
+		}
+		return length;
+	}
+
+	private int serializeWithTemplate() throws Exception {
+		AggregatedUserMessageTemplate template = newTemplate();
+		int length = 0;
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			length += template.render(i, i * 2, "1|2|" + i, i + 1, i + 1, "").length();
+		}
+		return length;
+	}
+
+	private AggregatedUserMessageTemplate newTemplate() throws Exception {
+		return AggregatedUserMessageTemplate.of(objectMapper, 2, 5, ROUND_PLAYER_COUNT, PLAYER_COUNT,
+			GameType.Reaction, roundTop3, overallTop3);
+	}
+
+	private AggregatedUserMessage message(int i, String rankRecord, String videoUploadUrl) {
+		return AggregatedUserMessage.builder()
+			.currentRound(2)
+			.totalRound(5)
+			.roundPlayerCount(ROUND_PLAYER_COUNT)
+			.totalPlayerCount(PLAYER_COUNT)
+			.gameType(GameType.Reaction)
+			.currentScore(i)
+			.totalScore(i * 2)
+			.rankRecord(rankRecord)
+			.roundRank(i + 1)
+			.overallRank(i + 1)
+			.roundRanking(roundTop3)
+			.overallRanking(overallTop3)
+			.videoUploadUrl(videoUploadUrl)
+			.build();
+	}
+
+	private static ObjectMapper applicationObjectMapper() {
+		AtomicReference<ObjectMapper> objectMapper = new AtomicReference<>();
+		new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+			.run(context -> objectMapper.set(context.getBean(ObjectMapper.class)));
+		return objectMapper.get();
+	}
+
+	private static long allocatedBytes() {
+		return ((ThreadMXBean)ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+}
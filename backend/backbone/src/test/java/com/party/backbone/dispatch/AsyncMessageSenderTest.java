@@ -0,0 +1,87 @@
+package com.party.backbone.dispatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import com.party.backbone.config.AsyncConfig;
+import com.party.backbone.websocket.broadcast.AsyncMessageSender;
+
+// 1,000명에게 결과를 보낼 때 첫 번째와 마지막 플레이어가 받는 시각의 차이가 상한 안에 들고, 세션마다 보낸 순서가 지켜지는지 본다
+class AsyncMessageSenderTest {
+	private static final int PLAYER_COUNT = 1_000;
+	private static final int MESSAGES_PER_PLAYER = 3;
+	private static final int FAN_OUT_THREADS = 64;
+	// 세션마다 10~50ms 씩 걸리므로 순서대로 보냈다면 마지막 메시지의 spread 는 30초를 넘는다.
+	// 64 스레드로 나눠 보내면 1초 안팎이라, 느린 CI 를 감안해도 10초 안에는 들어와야 한다
+	private static final long MAX_SPREAD_MS = 10_000;
+
+	private final AsyncMessageSender asyncMessageSender =
+		new AsyncMessageSender(AsyncConfig.createMessageFanOutExecutor(FAN_OUT_THREADS));
+
+	@Test
+	void fanOutKeepsPerSessionOrderWithBoundedSpread() {
+		List<RecordingSession> sessions = new ArrayList<>();
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			sessions.add(new RecordingSession("user-" + i));
+		}
+
+		List<CompletableFuture<Long>> lastDeliveries = new ArrayList<>();
+		for (int message = 0; message < MESSAGES_PER_PLAYER; message++) {
+			for (RecordingSession session : sessions) {
+				CompletableFuture<Long> delivery = asyncMessageSender.send(session, String.valueOf(message));
+				if (message == MESSAGES_PER_PLAYER - 1) {
+					lastDeliveries.add(delivery);
+				}
+			}
+		}
+
+		long first = Long.MAX_VALUE;
+		long last = Long.MIN_VALUE;
+		for (CompletableFuture<Long> delivery : lastDeliveries) {
+			long sentAt = delivery.join();
+			assertTrue(sentAt > 0);
+			first = Math.min(first, sentAt);
+			last = Math.max(last, sentAt);
+		}
+		for (RecordingSession session : sessions) {
+			assertEquals(List.of("0", "1", "2"), session.received);
+			assertEquals(0, session.overlappedSends);
+		}
+		assertTrue(last - first < MAX_SPREAD_MS, "delivery spread " + (last - first) + "ms");
+	}
+
+	static class RecordingSession extends MockWebSocketSession {
+		private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+		private boolean sending;
+		private int overlappedSends;
+
+		RecordingSession(String id) {
+			super(id);
+		}
+
+		@Override
+		public void sendMessage(WebSocketMessage<?> message) throws IOException {
+			// 한 세션에 두 스레드가 동시에 보내면 센다
+			synchronized (this) {
+				if (sending) {
+					overlappedSends++;
+				}
+				sending = true;
+			}
+			super.sendMessage(message);
+			received.add(((TextMessage)message).getPayload());
+			synchronized (this) {
+				sending = false;
+			}
+		}
+	}
+}
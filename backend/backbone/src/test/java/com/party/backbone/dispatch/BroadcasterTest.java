@@ -13,7 +13,7 @@ import com.party.backbone.websocket.message.GameMessage;
 
 public class BroadcasterTest {
 	private final Broadcaster broadcaster = new Broadcaster(
-		new AsyncMessageSender(AsyncConfig.createDefaultAsyncExecutor()));
+		new AsyncMessageSender(AsyncConfig.createMessageFanOutExecutor(64)));
 
 	private final MockRoomRedisRepository roomRepository = new MockRoomRedisRepository();
 
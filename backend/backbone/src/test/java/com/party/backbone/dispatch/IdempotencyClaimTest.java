@@ -0,0 +1,108 @@
+package com.party.backbone.dispatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.RedisTestSupport;
+import com.party.backbone.room.util.RoomKeyUtils;
+import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
+import com.party.backbone.websocket.dispatch.repository.RecentRequestCache;
+import com.party.backbone.websocket.dispatch.sequence.SequenceDedupRegistry;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class IdempotencyClaimTest {
+	private static final String ROOM_CODE = "999008";
+	private static final int INSTANCE_COUNT = 8;
+
+	private RedisTestSupport support;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.close();
+	}
+
+	@Test
+	void concurrentRetriesAreClaimedOnce() throws Exception {
+		String requestId = UUID.randomUUID().toString();
+		// 인스턴스마다 메모리 캐시가 따로 있는 상황을 흉내 낸다
+		List<IdempotencyRedisRepository> instances = new ArrayList<>();
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			instances.add(new IdempotencyRedisRepository(support.redisTemplate(), new RecentRequestCache(1_000),
+				support.sequenceDedupRegistry("request-id")));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(INSTANCE_COUNT);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (IdempotencyRedisRepository instance : instances) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return instance.claim(ROOM_CODE, requestId);
+			}));
+		}
+		start.countDown();
+
+		int claimed = 0;
+		for (Future<Boolean> result : results) {
+			claimed += result.get() ? 1 : 0;
+		}
+		executor.shutdown();
+		assertEquals(1, claimed);
+		instances.get(0).release(ROOM_CODE, requestId);
+	}
+
+	@Test
+	void retryAfterReleaseIsAccepted() {
+		RecentRequestCache cache = new RecentRequestCache(1_000);
+		IdempotencyRedisRepository repository = new IdempotencyRedisRepository(support.redisTemplate(), cache,
+			support.sequenceDedupRegistry("request-id"));
+		String requestId = UUID.randomUUID().toString();
+
+		assertTrue(repository.claim(ROOM_CODE, requestId));
+		assertFalse(repository.claim(ROOM_CODE, requestId));
+		assertEquals(1, cache.getMemoryDuplicateCount());
+
+		repository.release(ROOM_CODE, requestId);
+		assertTrue(repository.claim(ROOM_CODE, requestId));
+		assertEquals(2, cache.getClaimCount());
+		repository.release(ROOM_CODE, requestId);
+	}
+
+	@Test
+	void sequenceWindowIsRestoredReactivelyAndResetOnReconnect() {
+		String userId = "user-" + UUID.randomUUID();
+		SequenceDedupRegistry first = support.sequenceDedupRegistry("sequence");
+		for (long sequence = 1; sequence <= 5; sequence++) {
+			assertTrue(first.accept(ROOM_CODE, userId, sequence));
+		}
+		first.checkpoint();
+
+		// 다른 인스턴스로 옮겨 온 유저의 window 는 checkpoint 에서 논블로킹으로 읽는다
+		SequenceDedupRegistry second = support.sequenceDedupRegistry("sequence");
+		assertFalse(second.acceptReactive(ROOM_CODE, userId, 3).block());
+		assertTrue(second.acceptReactive(ROOM_CODE, userId, 6).block());
+
+		// 재접속한 클라이언트는 1 부터 다시 보낸다
+		second.reset(ROOM_CODE, userId);
+		assertTrue(second.accept(ROOM_CODE, userId, 1));
+		assertTrue(support.sequenceDedupRegistry("sequence").accept(ROOM_CODE, userId, 1));
+		support.redisTemplate().delete(RoomKeyUtils.getSequencesKey(ROOM_CODE));
+	}
+}
@@ -2,11 +2,14 @@ package com.party.backbone.dispatch;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import com.party.backbone.room.RoomRedisRepository;
+import com.party.backbone.room.dto.AggregationClaim;
 import com.party.backbone.room.dto.RoundInfo;
 import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.dto.SubmitResult;
+import com.party.backbone.room.model.SubmitStatus;
 import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
 import com.party.backbone.websocket.model.GameType;
 import com.party.backbone.websocket.model.RankingInfo;
@@ -89,17 +92,52 @@ public class MockRoomRedisRepository implements RoomRedisRepository {
 	}
 
 	@Override
-	public Set<String> getDueRooms(long currentTimeMillis, int limit) {
-		return Set.of();
+	public List<RankingInfo> getOverallTopK(String roomCode, int k) {
+		return List.of();
+	}
+
+	@Override
+	public Integer getOverallRank(String roomCode, String userId) {
+		return null;
+	}
+
+	@Override
+	public Map<String, Long> getDueRooms(int shard, long currentTimeMillis, int limit) {
+		return Map.of();
+	}
+
+	@Override
+	public AggregationClaim claimAggregation(String roomCode, long now, long leaseUntil) {
+		return AggregationClaim.NONE;
+	}
+
+	@Override
+	public boolean expediteAggregation(String roomCode, long dueAt) {
+		return false;
+	}
+
+	@Override
+	public boolean completeAggregation(String roomCode, int attempt) {
+		return false;
 	}
 
 	@Override
-	public boolean removeRoomFromPending(String roomCode) {
+	public boolean retryAggregation(String roomCode, int attempt, long retryAt) {
 		return false;
 	}
 
 	@Override
-	public ScoreAggregationResult aggregateScores(String roomCode) {
+	public boolean deadLetterAggregation(String roomCode, int attempt) {
+		return false;
+	}
+
+	@Override
+	public List<String> requeueExpiredAggregations(int shard, long now) {
+		return List.of();
+	}
+
+	@Override
+	public ScoreAggregationResult aggregateScores(String roomCode, int expectedRound) {
 		return null;
 	}
 
@@ -108,6 +146,11 @@ public class MockRoomRedisRepository implements RoomRedisRepository {
 		return "";
 	}
 
+	@Override
+	public Map<String, String> appendRankRecords(String roomCode, Map<String, Integer> roundRanks) {
+		return Map.of();
+	}
+
 	@Override
 	public GameType getGame(String roomCode, int round) {
 		return null;
@@ -118,6 +161,16 @@ public class MockRoomRedisRepository implements RoomRedisRepository {
 
 	}
 
+	@Override
+	public SubmitResult submitScore(String roomCode, String userId, String requestId, GameType gameType, int score) {
+		return new SubmitResult(SubmitStatus.ACCEPTED, 1);
+	}
+
+	@Override
+	public void flushBufferedScores(String roomCode) {
+
+	}
+
 	public void setUserIds(List<String> userIds) {
 		this.userIds = userIds;
 	}
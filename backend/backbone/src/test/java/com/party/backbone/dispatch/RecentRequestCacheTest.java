@@ -0,0 +1,41 @@
+package com.party.backbone.dispatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.party.backbone.websocket.dispatch.repository.RecentRequestCache;
+
+class RecentRequestCacheTest {
+	@Test
+	void rememberedRequestIsDuplicate() {
+		RecentRequestCache cache = new RecentRequestCache(10);
+		assertFalse(cache.checkDuplicate("123456", "req-1"));
+
+		cache.remember("123456", "req-1");
+		assertTrue(cache.checkDuplicate("123456", "req-1"));
+		assertFalse(cache.checkDuplicate("654321", "req-1"));
+		assertEquals(1, cache.getMemoryDuplicateCount());
+	}
+
+	@Test
+	void forgottenRequestCanBeRetried() {
+		RecentRequestCache cache = new RecentRequestCache(10);
+		cache.remember("123456", "req-1");
+		cache.forget("123456", "req-1");
+
+		assertFalse(cache.checkDuplicate("123456", "req-1"));
+	}
+
+	@Test
+	void oldestEntriesAreEvictedBeyondMaxSize() {
+		RecentRequestCache cache = new RecentRequestCache(3);
+		for (int i = 0; i < 5; i++) {
+			cache.remember("123456", "req-" + i);
+		}
+
+		assertFalse(cache.checkDuplicate("123456", "req-0"));
+		assertFalse(cache.checkDuplicate("123456", "req-1"));
+		assertTrue(cache.checkDuplicate("123456", "req-4"));
+	}
+}
@@ -0,0 +1,62 @@
+package com.party.backbone.dispatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.party.backbone.websocket.dispatch.sequence.SequenceWindow;
+
+class SequenceWindowTest {
+	@Test
+	void inOrderSequencesAreAcceptedOnce() {
+		SequenceWindow window = new SequenceWindow();
+		for (long seq = 1; seq <= 200; seq++) {
+			assertTrue(window.accept(seq));
+			assertFalse(window.accept(seq));
+		}
+	}
+
+	@Test
+	void outOfOrderSequencesInsideWindowAreAccepted() {
+		SequenceWindow window = new SequenceWindow();
+		assertTrue(window.accept(10));
+		assertTrue(window.accept(7));
+		assertTrue(window.accept(9));
+		assertFalse(window.accept(7));
+		assertTrue(window.accept(8));
+	}
+
+	@Test
+	void sequencesOlderThanWindowAreRejected() {
+		SequenceWindow window = new SequenceWindow();
+		assertTrue(window.accept(100));
+		assertFalse(window.accept(100 - SequenceWindow.WINDOW_SIZE));
+		assertTrue(window.accept(100 - SequenceWindow.WINDOW_SIZE + 1));
+	}
+
+	@Test
+	void releasedSequenceCanBeRetried() {
+		SequenceWindow window = new SequenceWindow();
+		assertTrue(window.accept(5));
+		assertTrue(window.accept(6));
+		window.release(5);
+
+		assertTrue(window.accept(5));
+		assertFalse(window.accept(6));
+	}
+
+	@Test
+	void encodedWindowRestoresState() {
+		SequenceWindow window = new SequenceWindow();
+		window.accept(70);
+		window.accept(64);
+		window.accept(7);
+
+		SequenceWindow restored = SequenceWindow.decode(window.encode());
+		assertEquals(window.encode(), restored.encode());
+		assertFalse(restored.accept(70));
+		assertFalse(restored.accept(64));
+		assertFalse(restored.accept(7));
+		assertTrue(restored.accept(65));
+	}
+}
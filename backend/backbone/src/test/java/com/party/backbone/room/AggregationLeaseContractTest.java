@@ -0,0 +1,117 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.party.backbone.room.dto.AggregationClaim;
+import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.websocket.model.GameType;
+
+// 집계 lease, 재시도, dead letter 규칙. Redis 엔진과 인메모리 엔진이 같은 시나리오를 통과해야 한다
+public abstract class AggregationLeaseContractTest {
+	protected static final String ROOM_CODE = "999012";
+
+	protected final AggregationShards aggregationShards = new AggregationShards(16);
+	protected RoomRedisRepository roomRepository;
+	// endAt 이 지난 시각
+	private long now;
+
+	protected abstract RoomRedisRepository openRepository();
+
+	// 이전 실행이 남긴 방과 집계 상태를 지운다
+	protected abstract void clearRoom();
+
+	protected void close() {
+	}
+
+	@BeforeEach
+	void setUp() {
+		roomRepository = openRepository();
+		clearRoom();
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		roomRepository.initializeRoom(ROOM_CODE, List.of(GameType.Clicker, GameType.Dice), 2);
+		for (int i = 0; i < 3; i++) {
+			roomRepository.addPlayer(ROOM_CODE, "user-" + i, "nick-" + i);
+		}
+		roomRepository.startGame(ROOM_CODE);
+		roomRepository.submitScore(ROOM_CODE, "user-0", "req-" + System.nanoTime(), GameType.Clicker, 100);
+		now = System.currentTimeMillis() + 600_000;
+	}
+
+	@AfterEach
+	void tearDown() {
+		clearRoom();
+		close();
+	}
+
+	@Test
+	void failedAttemptIsRetriedAndExpiredLeaseIsRequeued() {
+		AggregationClaim claim = roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000);
+		assertEquals(new AggregationClaim(1, 1), claim);
+		assertFalse(roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000).claimed());
+
+		// 집계는 됐지만 메시지 전송에서 실패했다
+		ScoreAggregationResult first = roomRepository.aggregateScores(ROOM_CODE, claim.round());
+		assertTrue(roomRepository.retryAggregation(ROOM_CODE, claim.attempt(), now + 500));
+		// backoff 가 끝나기 전에는 꺼낼 수 없다
+		assertFalse(roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000).claimed());
+
+		// 두 번째 시도는 끝내지 못해 lease 가 만료되고, 늦게 끝나도 반영되지 않는다
+		assertEquals(2, roomRepository.claimAggregation(ROOM_CODE, now + 500, now + 600).attempt());
+		assertEquals(List.of(ROOM_CODE),
+			roomRepository.requeueExpiredAggregations(aggregationShards.shardOf(ROOM_CODE), now + 600));
+		assertFalse(roomRepository.completeAggregation(ROOM_CODE, 2));
+
+		AggregationClaim third = roomRepository.claimAggregation(ROOM_CODE, now + 600, now + 1_600);
+		assertEquals(new AggregationClaim(3, 1), third);
+		ScoreAggregationResult retried = roomRepository.aggregateScores(ROOM_CODE, third.round());
+		assertEquals(first.currentRound(), retried.currentRound());
+		assertEquals(first.roundScoreMap(), retried.roundScoreMap());
+		assertEquals(first.rankRecordMap(), retried.rankRecordMap());
+		assertTrue(roomRepository.completeAggregation(ROOM_CODE, third.attempt()));
+
+		// 라운드는 한 번만 넘어갔다
+		roomRepository.startGame(ROOM_CODE);
+		assertEquals(2, roomRepository.aggregateScores(ROOM_CODE).currentRound());
+	}
+
+	@Test
+	void retryDoesNotAggregateRoundStartedAfterIt() {
+		AggregationClaim first = roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000);
+		roomRepository.aggregateScores(ROOM_CODE, first.round());
+		assertTrue(roomRepository.retryAggregation(ROOM_CODE, first.attempt(), now + 500));
+		AggregationClaim retry = roomRepository.claimAggregation(ROOM_CODE, now + 500, now + 1_500);
+		assertEquals(new AggregationClaim(2, 1), retry);
+
+		// 재시도가 집계하기 전에 관리자가 다음 라운드를 시작했다
+		roomRepository.startGame(ROOM_CODE);
+		assertNull(roomRepository.aggregateScores(ROOM_CODE, retry.round()));
+		assertFalse(roomRepository.completeAggregation(ROOM_CODE, retry.attempt()));
+
+		// 다음 라운드는 처음 시도로 자기 라운드를 집계한다
+		AggregationClaim next = roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000);
+		assertEquals(new AggregationClaim(1, 2), next);
+		assertEquals(2, roomRepository.aggregateScores(ROOM_CODE, next.round()).currentRound());
+	}
+
+	@Test
+	void exhaustedRoomIsMovedToDeadLetter() {
+		AggregationClaim claim = roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000);
+		assertTrue(roomRepository.deadLetterAggregation(ROOM_CODE, claim.attempt()));
+
+		assertDeadLettered();
+		assertFalse(roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000).claimed());
+		assertTrue(roomRepository.requeueExpiredAggregations(aggregationShards.shardOf(ROOM_CODE), now + 10_000)
+			.isEmpty());
+	}
+
+	// 엔진이 dead letter 를 따로 남기면 확인한다
+	protected void assertDeadLettered() {
+	}
+}
@@ -0,0 +1,33 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class AggregationLeaseTest extends AggregationLeaseContractTest {
+	private RedisTestSupport support;
+
+	@Override
+	protected RoomRedisRepository openRepository() {
+		support = new RedisTestSupport();
+		return support.roomRepository();
+	}
+
+	@Override
+	protected void clearRoom() {
+		roomRepository.deleteRoom(ROOM_CODE);
+		support.clearAggregation(ROOM_CODE);
+	}
+
+	@Override
+	protected void close() {
+		support.close();
+	}
+
+	@Override
+	protected void assertDeadLettered() {
+		int shard = aggregationShards.shardOf(ROOM_CODE);
+		assertNotNull(support.redisTemplate().opsForZSet().score(aggregationShards.getDeadLetterKey(shard), ROOM_CODE));
+	}
+}
@@ -0,0 +1,94 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
+import com.party.backbone.websocket.model.GameType;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class CheckEndedBenchmarkTest {
+	private static final int PLAYER_COUNT = 200;
+	private static final int POLL_COUNT = 5_000;
+	private static final String ROOM_CODE = "999004";
+
+	private RedisTestSupport support;
+	private RoomRedisRepositoryImpl roomRepository;
+	private final List<String> userIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		roomRepository = support.roomRepository();
+
+		roomRepository.deleteRoom(ROOM_CODE);
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			String userId = "user-" + i;
+			userIds.add(userId);
+			roomRepository.addPlayer(ROOM_CODE, userId, "nick-" + i);
+		}
+		roomRepository.initializeRoom(ROOM_CODE, GameType.pickRandomList(1), 1);
+		RoundInfo roundInfo = roomRepository.startGame(ROOM_CODE);
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			roomRepository.submitScore(ROOM_CODE, userIds.get(i), UUID.randomUUID().toString(),
+				roundInfo.gameType(), i % 50);
+		}
+		support.clearAggregation(ROOM_CODE);
+		roomRepository.aggregateScores(ROOM_CODE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		roomRepository.deleteRoom(ROOM_CODE);
+		support.close();
+	}
+
+	@Test
+	void compareCheckEndedPollRates() {
+		double playingRate = pollsPerSecond(roomRepository);
+
+		roomRepository.getFinalResults(ROOM_CODE);
+		roomRepository.endGame(ROOM_CODE);
+		double memoryRate = pollsPerSecond(roomRepository);
+		// 캐시가 빈 다른 인스턴스는 최종 결과 hash 를 한 번씩 읽는다
+		double redisRate = pollsPerSecond(support.roomRepository());
+
+		System.out.println(String.format(
+			"[Test] CHECK_ENDED %d polls: before end = %.0f/s, ended(redis) = %.0f/s, ended(memory) = %.0f/s",
+			POLL_COUNT, playingRate, redisRate, memoryRate));
+	}
+
+	@Test
+	void materializedResultMatchesFinalRanking() {
+		var finalRanks = roomRepository.getFinalResults(ROOM_CODE);
+		roomRepository.endGame(ROOM_CODE);
+
+		var other = support.roomRepository();
+		for (var rankInfo : finalRanks) {
+			CheckEndedAckMessage ack = other.checkEnded(ROOM_CODE, rankInfo.userId());
+			assertTrue(ack.getIsEnded());
+			assertEquals(rankInfo.rank(), ack.getOverallRank());
+			assertEquals(rankInfo.score(), ack.getTotalScore());
+			assertEquals(PLAYER_COUNT, ack.getTotalPlayerCount());
+			assertEquals(roomRepository.checkEnded(ROOM_CODE, rankInfo.userId()), ack);
+		}
+	}
+
+	private double pollsPerSecond(RoomRedisRepositoryImpl repository) {
+		long start = System.nanoTime();
+		for (int i = 0; i < POLL_COUNT; i++) {
+			repository.checkEnded(ROOM_CODE, userIds.get(i % PLAYER_COUNT));
+		}
+		return POLL_COUNT / ((System.nanoTime() - start) / 1_000_000_000.0);
+	}
+}
@@ -0,0 +1,78 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.websocket.model.GameType;
+import com.party.backbone.websocket.model.RankingInfo;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class LeaderboardTest {
+	private static final String ROOM_CODE = "999003";
+
+	private RedisTestSupport support;
+	private RoomRedisRepositoryImpl roomRepository;
+	private RoundInfo roundInfo;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		roomRepository = support.roomRepository();
+
+		roomRepository.deleteRoom(ROOM_CODE);
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		for (int i = 0; i < 4; i++) {
+			roomRepository.addPlayer(ROOM_CODE, "user-" + i, "nick-" + i);
+		}
+		roomRepository.initializeRoom(ROOM_CODE, GameType.pickRandomList(1), 1);
+		roundInfo = roomRepository.startGame(ROOM_CODE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.clearAggregation(ROOM_CODE);
+		roomRepository.deleteRoom(ROOM_CODE);
+		support.close();
+	}
+
+	@Test
+	void tiedScoresShareCompetitionRank() {
+		submit("user-0", 30);
+		submit("user-1", 20);
+		submit("user-2", 20);
+
+		assertEquals(1, roomRepository.getOverallRank(ROOM_CODE, "user-0"));
+		assertEquals(2, roomRepository.getOverallRank(ROOM_CODE, "user-1"));
+		assertEquals(2, roomRepository.getOverallRank(ROOM_CODE, "user-2"));
+		assertEquals(4, roomRepository.getOverallRank(ROOM_CODE, "user-3"));
+		assertNull(roomRepository.getOverallRank(ROOM_CODE, "stranger"));
+
+		List<RankingInfo> top3 = roomRepository.getOverallTopK(ROOM_CODE, 3);
+		assertEquals(3, top3.size());
+		assertEquals("user-0", top3.get(0).userId());
+		assertEquals(List.of(1, 2, 2), top3.stream().map(RankingInfo::rank).toList());
+
+		List<RankingInfo> finalRanks = roomRepository.getFinalResults(ROOM_CODE);
+		assertEquals(List.of(1, 2, 2, 4), finalRanks.stream().map(RankingInfo::rank).toList());
+	}
+
+	@Test
+	void rejoiningDoesNotResetTotalScore() {
+		submit("user-0", 30);
+		roomRepository.addPlayer(ROOM_CODE, "user-0", "nick-0");
+
+		assertEquals(30, roomRepository.getOverallTopK(ROOM_CODE, 1).get(0).score());
+	}
+
+	private void submit(String userId, int score) {
+		roomRepository.submitScore(ROOM_CODE, userId, UUID.randomUUID().toString(), roundInfo.gameType(), score);
+	}
+}
@@ -0,0 +1,70 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.redis.core.RedisCallback;
+
+import com.party.backbone.room.store.PerPlayerHashStore;
+import com.party.backbone.room.store.PlayerStore;
+import com.party.backbone.room.store.RoomHashPlayerStore;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class PlayerStoreMemoryTest {
+	private static final int ROOM_COUNT = 50;
+	private static final int PLAYER_COUNT = 300;
+
+	private RedisTestSupport support;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.close();
+	}
+
+	@Test
+	void compareMemoryPerPlayer() {
+		long perPlayer = measure(new PerPlayerHashStore(support.redisTemplate()), 900_000);
+		long perRoom = measure(new RoomHashPlayerStore(support.redisTemplate()), 910_000);
+
+		System.out.println("[Test] per-player layout = " + perPlayer + " bytes/player, per-room layout = "
+			+ perRoom + " bytes/player (" + ROOM_COUNT + " rooms x " + PLAYER_COUNT + " players)");
+		// 플레이어마다 top-level key 와 TTL 을 두지 않으므로 방 단위 hash 가 플레이어당 더 적게 써야 한다
+		assertTrue(perPlayer > 0);
+		assertTrue(perRoom < perPlayer,
+			"per-room layout should use less memory per player: " + perRoom + " >= " + perPlayer);
+	}
+
+	private long measure(PlayerStore playerStore, int roomCodeBase) {
+		RoomRedisRepositoryImpl roomRepository = support.roomRepository(playerStore);
+		long before = usedMemory();
+		for (int room = 0; room < ROOM_COUNT; room++) {
+			String roomCode = String.valueOf(roomCodeBase + room);
+			roomRepository.createRoom(roomCode, "admin");
+			for (int player = 0; player < PLAYER_COUNT; player++) {
+				roomRepository.addPlayer(roomCode, roomCode + "-user-" + player, "nick-" + player);
+			}
+		}
+		long used = usedMemory() - before;
+
+		for (int room = 0; room < ROOM_COUNT; room++) {
+			roomRepository.deleteRoom(String.valueOf(roomCodeBase + room));
+		}
+		return used / ((long)ROOM_COUNT * PLAYER_COUNT);
+	}
+
+	private long usedMemory() {
+		Properties info = support.redisTemplate()
+			.execute((RedisCallback<Properties>)connection -> connection.serverCommands().info("memory"));
+		return Long.parseLong(info.getProperty("used_memory"));
+	}
+}
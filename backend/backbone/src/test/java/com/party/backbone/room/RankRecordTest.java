@@ -0,0 +1,69 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.store.PerPlayerHashStore;
+import com.party.backbone.room.store.PlayerStore;
+import com.party.backbone.room.store.RoomHashPlayerStore;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class RankRecordTest {
+	private static final int PLAYER_COUNT = 2_500;
+	private static final String ROOM_CODE = "999006";
+
+	private RedisTestSupport support;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.close();
+	}
+
+	@Test
+	void appendRankRecordsForEveryPlayer() {
+		verify(new PerPlayerHashStore(support.redisTemplate()), "per-player");
+		verify(new RoomHashPlayerStore(support.redisTemplate()), "per-room");
+	}
+
+	private void verify(PlayerStore playerStore, String layout) {
+		RoomRedisRepositoryImpl roomRepository = support.roomRepository(playerStore);
+		roomRepository.deleteRoom(ROOM_CODE);
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		Map<String, Integer> firstRound = new HashMap<>();
+		Map<String, Integer> secondRound = new HashMap<>();
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			String userId = "user-" + i;
+			roomRepository.addPlayer(ROOM_CODE, userId, "nick-" + i);
+			firstRound.put(userId, i + 1);
+			secondRound.put(userId, i % 2 == 0 ? 0 : 1);
+		}
+
+		try {
+			roomRepository.appendRankRecords(ROOM_CODE, firstRound);
+			long start = System.nanoTime();
+			Map<String, String> records = roomRepository.appendRankRecords(ROOM_CODE, secondRound);
+			long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+			assertEquals(PLAYER_COUNT, records.size());
+			assertEquals("1|0", records.get("user-0"));
+			assertEquals("2|1", records.get("user-1"));
+			assertEquals("3|0|5", roomRepository.updateRankRecord(ROOM_CODE, "user-2", 5));
+			System.out.println("[Test] " + layout + " rankRecord append for " + PLAYER_COUNT + " players = "
+				+ elapsedMs + "ms");
+		} finally {
+			roomRepository.deleteRoom(ROOM_CODE);
+		}
+	}
+}
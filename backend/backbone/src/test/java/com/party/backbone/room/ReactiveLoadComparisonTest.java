@@ -0,0 +1,123 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.room.model.SubmitStatus;
+import com.party.backbone.websocket.model.GameType;
+
+import reactor.core.publisher.Flux;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class ReactiveLoadComparisonTest {
+	private static final int USER_COUNT = 2_000;
+	private static final int SUBMITS_PER_USER = 5;
+	// 톰캣 기본 최대 작업 스레드 수
+	private static final int CONTAINER_THREADS = 200;
+	private static final String ROOM_CODE = "999007";
+
+	private RedisTestSupport support;
+	private RoomRedisRepositoryImpl roomRepository;
+	private ReactiveRoomRedisRepositoryImpl reactiveRoomRepository;
+	private final List<String> userIds = new ArrayList<>();
+	private RoundInfo roundInfo;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		roomRepository = support.roomRepository();
+		reactiveRoomRepository = support.reactiveRoomRepository();
+
+		roomRepository.deleteRoom(ROOM_CODE);
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		for (int i = 0; i < USER_COUNT; i++) {
+			String userId = "user-" + i;
+			userIds.add(userId);
+			roomRepository.addPlayer(ROOM_CODE, userId, "nick-" + i);
+		}
+		roomRepository.initializeRoom(ROOM_CODE, GameType.pickRandomList(1), 1);
+		roundInfo = roomRepository.startGame(ROOM_CODE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.clearAggregation(ROOM_CODE);
+		roomRepository.deleteRoom(ROOM_CODE);
+		support.close();
+	}
+
+	@Test
+	void compareBlockingAndReactiveSubmit() throws Exception {
+		int total = USER_COUNT * SUBMITS_PER_USER;
+
+		ExecutorService containerThreads = Executors.newFixedThreadPool(CONTAINER_THREADS);
+		AtomicInteger blockingAccepted = new AtomicInteger();
+		long blockingStart = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < total; i++) {
+			String userId = userIds.get(i % USER_COUNT);
+			futures.add(containerThreads.submit(() -> {
+				var result = roomRepository.submitScore(ROOM_CODE, userId, UUID.randomUUID().toString(),
+					roundInfo.gameType(), 1);
+				if (result.status() == SubmitStatus.ACCEPTED) {
+					blockingAccepted.incrementAndGet();
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long blockingMs = (System.nanoTime() - blockingStart) / 1_000_000;
+		containerThreads.shutdown();
+
+		long reactiveStart = System.nanoTime();
+		Long reactiveAccepted = Flux.range(0, total)
+			.flatMap(i -> reactiveRoomRepository.submitScore(ROOM_CODE, userIds.get(i % USER_COUNT),
+				UUID.randomUUID().toString(), roundInfo.gameType(), 1), USER_COUNT)
+			.filter(result -> result.status() == SubmitStatus.ACCEPTED)
+			.count()
+			.block();
+		long reactiveMs = (System.nanoTime() - reactiveStart) / 1_000_000;
+
+		assertEquals(total, blockingAccepted.get());
+		assertEquals(total, reactiveAccepted);
+		System.out.println(String.format(
+			"[Test] %d users x %d submits: blocking(%d threads) = %dms (%.0f/s), reactive = %dms (%.0f/s)",
+			USER_COUNT, SUBMITS_PER_USER, CONTAINER_THREADS, blockingMs, total * 1000.0 / blockingMs, reactiveMs,
+			total * 1000.0 / reactiveMs));
+	}
+
+	@Test
+	void reactiveCheckEndedMatchesBlocking() {
+		roomRepository.submitScore(ROOM_CODE, userIds.get(0), UUID.randomUUID().toString(), roundInfo.gameType(),
+			10);
+
+		assertEquals(roomRepository.checkEnded(ROOM_CODE, userIds.get(0)),
+			reactiveRoomRepository.checkEnded(ROOM_CODE, userIds.get(0)).block());
+		// 방에 없는 userId 는 두 경로 모두 같은 예외로 거절한다
+		IllegalArgumentException blockingError = assertThrows(IllegalArgumentException.class,
+			() -> roomRepository.checkEnded(ROOM_CODE, "unknown-user"));
+		IllegalArgumentException reactiveError = assertThrows(IllegalArgumentException.class,
+			() -> reactiveRoomRepository.checkEnded(ROOM_CODE, "unknown-user").block());
+		assertEquals(blockingError.getMessage(), reactiveError.getMessage());
+
+		roomRepository.aggregateScores(ROOM_CODE);
+		roomRepository.getFinalResults(ROOM_CODE);
+		roomRepository.endGame(ROOM_CODE);
+		assertEquals(roomRepository.checkEnded(ROOM_CODE, userIds.get(1)),
+			reactiveRoomRepository.checkEnded(ROOM_CODE, userIds.get(1)).block());
+	}
+}
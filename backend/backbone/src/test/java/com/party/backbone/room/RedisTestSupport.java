@@ -0,0 +1,97 @@
+package com.party.backbone.room;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.party.backbone.room.cache.FinalResultCache;
+import com.party.backbone.room.cache.RoomMetadataCache;
+import com.party.backbone.room.code.RoomCodeAllocator;
+import com.party.backbone.room.shard.AggregationShardOwnership;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.room.store.PerPlayerHashStore;
+import com.party.backbone.room.store.PlayerStore;
+import com.party.backbone.room.submit.ScoreWriteBuffer;
+import com.party.backbone.room.submit.SubmitStream;
+import com.party.backbone.websocket.dispatch.sequence.SequenceDedupRegistry;
+
+// 로컬 Redis(REDIS_HOST, REDIS_PORT)가 있을 때만 도는 벤치마크용 헬퍼
+public class RedisTestSupport {
+	private final LettuceConnectionFactory connectionFactory;
+	private final StringRedisTemplate redisTemplate;
+	private final RedisMessageListenerContainer listenerContainer;
+	private final AggregationShards aggregationShards = new AggregationShards(16);
+
+	public RedisTestSupport() {
+		String host = System.getenv("REDIS_HOST");
+		int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+		connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new StringRedisTemplate(connectionFactory);
+		listenerContainer = new RedisMessageListenerContainer();
+		listenerContainer.setConnectionFactory(connectionFactory);
+		listenerContainer.afterPropertiesSet();
+		listenerContainer.start();
+	}
+
+	public StringRedisTemplate redisTemplate() {
+		return redisTemplate;
+	}
+
+	public LettuceConnectionFactory connectionFactory() {
+		return connectionFactory;
+	}
+
+	public RoomRedisRepositoryImpl roomRepository() {
+		return roomRepository(new PerPlayerHashStore(redisTemplate));
+	}
+
+	public RoomRedisRepositoryImpl roomRepository(PlayerStore playerStore) {
+		return new RoomRedisRepositoryImpl(redisTemplate, playerStore,
+			new RoomMetadataCache(redisTemplate, listenerContainer, 30_000), new FinalResultCache(),
+			new ScoreWriteBuffer("direct", 50), new RoomCodeAllocator(redisTemplate, 1_000_000, "test:roomCodes"),
+			new SubmitStream(redisTemplate, "direct", 8), aggregationShards);
+	}
+
+	public ReactiveRoomRedisRepositoryImpl reactiveRoomRepository() {
+		return new ReactiveRoomRedisRepositoryImpl(new ReactiveStringRedisTemplate(connectionFactory),
+			new PerPlayerHashStore(redisTemplate), new FinalResultCache(), new ScoreWriteBuffer("direct", 50),
+			new RoomMetadataCache(redisTemplate, listenerContainer, 30_000));
+	}
+
+	// application.yml 기본값과 같은 설정으로 만든다. lease 가 집계 시간보다 짧으면 집계 중인 방이 다시 pending 으로 돌아간다
+	public RoundAggregationScheduler roundAggregationScheduler(RoomRedisRepository roomRepository,
+		RoundAggregationService service, AggregationShardOwnership shardOwnership, Executor executor) {
+		return new RoundAggregationScheduler(roomRepository, service, new ScoreWriteBuffer("direct", 50),
+			new SubmitStream(redisTemplate, "direct", 8), shardOwnership, executor, 10_000, 2_000, 30_000, 1_000,
+			30_000, 5);
+	}
+
+	public SequenceDedupRegistry sequenceDedupRegistry(String idempotencyMode) {
+		return new SequenceDedupRegistry(redisTemplate, new ReactiveStringRedisTemplate(connectionFactory),
+			idempotencyMode);
+	}
+
+	// startGame 이 걸어 둔 집계 대기와 시도 기록을 지운다
+	public void clearAggregation(String roomCode) {
+		int shard = aggregationShards.shardOf(roomCode);
+		redisTemplate.opsForZSet().remove(aggregationShards.getPendingKey(shard), roomCode);
+		redisTemplate.opsForZSet().remove(aggregationShards.getLeaseKey(shard), roomCode);
+		redisTemplate.opsForZSet().remove(aggregationShards.getDeadLetterKey(shard), roomCode);
+		redisTemplate.opsForHash().delete(aggregationShards.getAttemptsKey(shard), roomCode, roomCode + ":round");
+	}
+
+	public RedisMessageListenerContainer listenerContainer() {
+		return listenerContainer;
+	}
+
+	public void close() {
+		listenerContainer.stop();
+		connectionFactory.destroy();
+	}
+}
@@ -0,0 +1,117 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.room.code.RoomCodeAllocator;
+import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.memory.InMemoryRoomRepository;
+import com.party.backbone.room.model.SubmitStatus;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.websocket.model.GameType;
+
+// 같은 게임 한 판(입장 -> 제출 -> 집계 -> 종료 -> 결과 조회)을 Redis 엔진과 인메모리 엔진으로 돌려 비교한다
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class RoomEngineBenchmarkTest {
+	private static final int PLAYER_COUNT = 1_000;
+	private static final int WARMUP_GAMES = 2;
+	private static final String REDIS_ROOM_CODE = "999009";
+	private static final String MEMORY_ROOM_CODE = "999010";
+
+	private RedisTestSupport support;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.close();
+	}
+
+	@Test
+	void compareRoomEngines() {
+		RoomRedisRepository redisEngine = support.roomRepository();
+		InMemoryRoomRepository memoryEngine = new InMemoryRoomRepository(support.redisTemplate(),
+			new RoomCodeAllocator(support.redisTemplate(), 1_000_000, "test:roomCodes"), new ObjectMapper(),
+			new AggregationShards(16), "blocking");
+
+		for (int i = 0; i < WARMUP_GAMES; i++) {
+			playGame(redisEngine, REDIS_ROOM_CODE);
+			playGame(memoryEngine, MEMORY_ROOM_CODE);
+		}
+		long[] redis = playGame(redisEngine, REDIS_ROOM_CODE);
+		long[] memory = playGame(memoryEngine, MEMORY_ROOM_CODE);
+
+		print("redis", redis);
+		print("in-memory", memory);
+
+		// snapshot 비용은 요청 경로 밖에서 든다
+		memoryEngine.createRoom(MEMORY_ROOM_CODE, "admin");
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			memoryEngine.addPlayer(MEMORY_ROOM_CODE, "user-" + i, "nick-" + i);
+		}
+		long start = System.nanoTime();
+		memoryEngine.snapshot();
+		System.out.println("[Test] in-memory snapshot of " + PLAYER_COUNT + " players = "
+			+ (System.nanoTime() - start) / 1_000_000 + "ms");
+		memoryEngine.deleteRoom(MEMORY_ROOM_CODE);
+	}
+
+	// return {join, submit, aggregate, end, checkEnded} 각 단계의 소요 시간(us)
+	private long[] playGame(RoomRedisRepository roomRepository, String roomCode) {
+		roomRepository.deleteRoom(roomCode);
+		long[] elapsed = new long[5];
+		try {
+			long start = System.nanoTime();
+			roomRepository.createRoom(roomCode, "admin");
+			roomRepository.initializeRoom(roomCode, List.of(GameType.Clicker), 1);
+			for (int i = 0; i < PLAYER_COUNT; i++) {
+				roomRepository.addPlayer(roomCode, "user-" + i, "nick-" + i);
+			}
+			elapsed[0] = (System.nanoTime() - start) / 1_000;
+
+			roomRepository.startGame(roomCode);
+			start = System.nanoTime();
+			for (int i = 0; i < PLAYER_COUNT; i++) {
+				SubmitStatus status = roomRepository.submitScore(roomCode, "user-" + i, "req-" + roomCode + "-" + i,
+					GameType.Clicker, i % 100).status();
+				assertEquals(SubmitStatus.ACCEPTED, status);
+			}
+			elapsed[1] = (System.nanoTime() - start) / 1_000;
+
+			start = System.nanoTime();
+			ScoreAggregationResult result = roomRepository.aggregateScores(roomCode);
+			elapsed[2] = (System.nanoTime() - start) / 1_000;
+			assertEquals(PLAYER_COUNT, result.roundPlayerCount());
+
+			start = System.nanoTime();
+			roomRepository.endGame(roomCode);
+			elapsed[3] = (System.nanoTime() - start) / 1_000;
+
+			start = System.nanoTime();
+			for (int i = 0; i < PLAYER_COUNT; i++) {
+				assertTrue(roomRepository.checkEnded(roomCode, "user-" + i).getIsEnded());
+			}
+			elapsed[4] = (System.nanoTime() - start) / 1_000;
+		} finally {
+			roomRepository.deleteRoom(roomCode);
+			support.redisTemplate().delete(support.redisTemplate().keys("idempotency:{" + roomCode + "}:*"));
+		}
+		return elapsed;
+	}
+
+	private void print(String engine, long[] elapsed) {
+		System.out.println("[Test] " + engine + " engine, " + PLAYER_COUNT + " players: join=" + elapsed[0] / 1_000
+			+ "ms, submit=" + elapsed[1] / 1_000 + "ms (" + elapsed[1] / PLAYER_COUNT + "us/op), aggregate="
+			+ elapsed[2] / 1_000 + "ms, end=" + elapsed[3] / 1_000 + "ms, checkEnded=" + elapsed[4] / 1_000 + "ms");
+	}
+}
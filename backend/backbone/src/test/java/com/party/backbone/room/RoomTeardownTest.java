@@ -0,0 +1,75 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.room.util.RoomKeyUtils;
+import com.party.backbone.websocket.model.GameType;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class RoomTeardownTest {
+	private static final int PLAYER_COUNT = 300;
+	private static final String ROOM_CODE = "999005";
+
+	private RedisTestSupport support;
+	private RoomRedisRepositoryImpl roomRepository;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		roomRepository = support.roomRepository();
+		roomRepository.deleteRoom(ROOM_CODE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.clearAggregation(ROOM_CODE);
+		roomRepository.deleteRoom(ROOM_CODE);
+		support.close();
+	}
+
+	@Test
+	void deleteRoomRemovesEveryRegisteredKey() {
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			roomRepository.addPlayer(ROOM_CODE, "user-" + i, "nick-" + i);
+		}
+		roomRepository.initializeRoom(ROOM_CODE, GameType.pickRandomList(1), 1);
+		RoundInfo roundInfo = roomRepository.startGame(ROOM_CODE);
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			roomRepository.submitScore(ROOM_CODE, "user-" + i, UUID.randomUUID().toString(), roundInfo.gameType(),
+				i);
+		}
+		roomRepository.aggregateScores(ROOM_CODE);
+		roomRepository.getFinalResults(ROOM_CODE);
+		roomRepository.endGame(ROOM_CODE);
+		assertFalse(roomKeys().isEmpty());
+
+		long start = System.nanoTime();
+		roomRepository.deleteRoom(ROOM_CODE);
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println("[Test] teardown of room with " + PLAYER_COUNT + " players = " + elapsedMs + "ms");
+		assertEquals(Set.of(), roomKeys());
+	}
+
+	private Set<String> roomKeys() {
+		Set<String> keys = new HashSet<>();
+		ScanOptions options = ScanOptions.scanOptions().match(RoomKeyUtils.getRoomKey(ROOM_CODE) + "*").build();
+		try (Cursor<String> cursor = support.redisTemplate().scan(options)) {
+			cursor.forEachRemaining(keys::add);
+		}
+		return keys;
+	}
+}
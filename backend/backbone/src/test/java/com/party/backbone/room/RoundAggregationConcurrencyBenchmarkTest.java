@@ -0,0 +1,137 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.party.backbone.config.AsyncConfig;
+import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.shard.AggregationShardOwnership;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.websocket.model.GameType;
+
+// 200개 방의 라운드가 한꺼번에 끝났을 때 fallback polling 한 번으로 모두 집계되기까지 걸리는 시간을
+// executor 스레드 수(동시에 집계되는 방 수)별로 비교한다
+// 메시지 전송과 presigned URL 발급은 빼고 Redis 집계만 돈다
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class RoundAggregationConcurrencyBenchmarkTest {
+	private static final int ROOM_COUNT = 200;
+	private static final int PLAYER_COUNT = 50;
+	private static final int FIRST_ROOM_CODE = 999200;
+
+	private final AggregationShards aggregationShards = new AggregationShards(16);
+	private RedisTestSupport support;
+	private RoomRedisRepositoryImpl roomRepository;
+	private AggregationShardOwnership shardOwnership;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		roomRepository = support.roomRepository();
+		// 이 인스턴스 하나가 모든 shard 를 갖는다
+		support.redisTemplate().delete(AggregationShardOwnership.INSTANCES_KEY);
+		for (int shard = 0; shard < aggregationShards.getShardCount(); shard++) {
+			support.redisTemplate().delete(AggregationShardOwnership.LEASE_KEY_PREFIX + shard);
+		}
+		shardOwnership = new AggregationShardOwnership(support.redisTemplate(), aggregationShards, 6_000);
+		shardOwnership.heartbeat();
+		assertEquals(aggregationShards.getShardCount(), shardOwnership.getOwnedShards().size());
+	}
+
+	@AfterEach
+	void tearDown() {
+		for (int i = 0; i < ROOM_COUNT; i++) {
+			String roomCode = String.valueOf(FIRST_ROOM_CODE + i);
+			roomRepository.deleteRoom(roomCode);
+			support.redisTemplate().opsForZSet().remove(aggregationShards.getPendingKey(roomCode), roomCode);
+		}
+		shardOwnership.stop();
+		support.close();
+	}
+
+	@Test
+	void aggregateDueRoomsConcurrently() throws InterruptedException {
+		long sequential = run(1);
+		long concurrent = run(8);
+		long wide = run(32);
+		System.out.println("[Test] " + ROOM_COUNT + " due rooms x " + PLAYER_COUNT + " players: 1 thread="
+			+ sequential + "ms, 8 threads=" + concurrent + "ms, 32 threads=" + wide + "ms");
+	}
+
+	// return 모든 방의 집계가 끝나기까지 걸린 시간(ms)
+	private long run(int maxConcurrentRooms) throws InterruptedException {
+		prepareRooms();
+		ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor)new AsyncConfig().roundAggregationExecutor(
+			maxConcurrentRooms);
+		CountDownLatch done = new CountDownLatch(ROOM_COUNT);
+		Map<String, AtomicInteger> aggregatedCounts = new ConcurrentHashMap<>();
+		List<String> startOrder = Collections.synchronizedList(new ArrayList<>());
+		RoundAggregationService service = new RoundAggregationService(roomRepository, null, null, null, null) {
+			@Override
+			public void aggregateRound(String roomCode, int round) {
+				startOrder.add(roomCode);
+				roomRepository.flushBufferedScores(roomCode);
+				ScoreAggregationResult result = roomRepository.aggregateScores(roomCode);
+				assertEquals(PLAYER_COUNT, result.roundPlayerCount());
+				roomRepository.getOverallTopK(roomCode, DEFAULT_RANKING_COUNT);
+				aggregatedCounts.computeIfAbsent(roomCode, code -> new AtomicInteger()).incrementAndGet();
+				done.countDown();
+			}
+		};
+		RoundAggregationScheduler scheduler = support.roundAggregationScheduler(roomRepository, service,
+			shardOwnership, executor);
+		try {
+			long start = System.nanoTime();
+			scheduler.aggregateDueRounds();
+			// 아직 집계 중인 방을 다시 넣어도 두 번 집계되지 않는다
+			scheduler.aggregateDueRounds();
+			assertTrue(done.await(60, TimeUnit.SECONDS));
+			long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+			assertEquals(ROOM_COUNT, aggregatedCounts.size());
+			aggregatedCounts.values().forEach(count -> assertEquals(1, count.get()));
+			if (maxConcurrentRooms == 1) {
+				// 스레드가 하나면 endAt 이 이른 방부터 집계된다
+				for (int i = 0; i < ROOM_COUNT; i++) {
+					assertEquals(String.valueOf(FIRST_ROOM_CODE + i), startOrder.get(i));
+				}
+			}
+			return elapsed;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	// 모든 방의 라운드가 이미 끝난 상태로 만든다. 방 번호가 작을수록 endAt 이 이르다
+	private void prepareRooms() {
+		long endedAt = System.currentTimeMillis() - 60_000;
+		for (int i = 0; i < ROOM_COUNT; i++) {
+			String roomCode = String.valueOf(FIRST_ROOM_CODE + i);
+			roomRepository.deleteRoom(roomCode);
+			roomRepository.createRoom(roomCode, "admin");
+			roomRepository.initializeRoom(roomCode, List.of(GameType.Clicker), 1);
+			for (int j = 0; j < PLAYER_COUNT; j++) {
+				roomRepository.addPlayer(roomCode, "user-" + j, "nick-" + j);
+			}
+			roomRepository.startGame(roomCode);
+			for (int j = 0; j < PLAYER_COUNT; j++) {
+				roomRepository.submitScore(roomCode, "user-" + j, "req-" + endedAt + "-" + roomCode + "-" + j,
+					GameType.Clicker, j % 10);
+			}
+			support.redisTemplate().opsForZSet().add(aggregationShards.getPendingKey(roomCode), roomCode, endedAt + i);
+		}
+	}
+}
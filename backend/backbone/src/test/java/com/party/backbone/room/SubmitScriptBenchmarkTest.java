@@ -0,0 +1,90 @@
+package com.party.backbone.room;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.dto.RoundInfo;
+import com.party.backbone.room.model.SubmitStatus;
+import com.party.backbone.room.util.RoomKeyUtils;
+import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
+import com.party.backbone.websocket.model.GameType;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class SubmitScriptBenchmarkTest {
+	private static final int PLAYER_COUNT = 500;
+	private static final String ROOM_CODE = "999001";
+
+	private RedisTestSupport support;
+	private RoomRedisRepositoryImpl roomRepository;
+	private final List<String> userIds = new ArrayList<>();
+	private RoundInfo roundInfo;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		roomRepository = support.roomRepository();
+
+		roomRepository.deleteRoom(ROOM_CODE);
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			String userId = "user-" + i;
+			userIds.add(userId);
+			roomRepository.addPlayer(ROOM_CODE, userId, "nick-" + i);
+		}
+		roomRepository.initializeRoom(ROOM_CODE, GameType.pickRandomList(1), 1);
+		roundInfo = roomRepository.startGame(ROOM_CODE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		support.clearAggregation(ROOM_CODE);
+		roomRepository.deleteRoom(ROOM_CODE);
+		support.close();
+	}
+
+	@Test
+	void compareLegacyAndScriptedSubmit() {
+		long legacyStart = System.nanoTime();
+		for (String userId : userIds) {
+			// 스크립트 이전의 확인 -> 검증 -> 반영 -> 기록 왕복을 그대로 재현한다
+			String requestKey = RoomKeyUtils.getIdempotencyKey(ROOM_CODE, UUID.randomUUID().toString());
+			assertFalse(support.redisTemplate().hasKey(requestKey));
+			assertTrue(roomRepository.hasPlayer(ROOM_CODE, userId));
+			assertTrue(roomRepository.validateSubmit(ROOM_CODE, roundInfo.gameType()));
+			roomRepository.updateScore(ROOM_CODE, userId, 10);
+			support.redisTemplate().opsForValue().set(requestKey, "1", IdempotencyRedisRepository.IDEMPOTENCY_TTL);
+		}
+		long legacyMs = (System.nanoTime() - legacyStart) / 1_000_000;
+
+		long scriptStart = System.nanoTime();
+		for (String userId : userIds) {
+			String requestId = UUID.randomUUID().toString();
+			var result = roomRepository.submitScore(ROOM_CODE, userId, requestId, roundInfo.gameType(), 10);
+			assertEquals(SubmitStatus.ACCEPTED, result.status());
+		}
+		long scriptMs = (System.nanoTime() - scriptStart) / 1_000_000;
+
+		System.out.println("[Test] legacy submit " + PLAYER_COUNT + "건 = " + legacyMs + "ms, scripted submit = "
+			+ scriptMs + "ms");
+	}
+
+	@Test
+	void duplicateRequestIsRejected() {
+		String userId = userIds.get(0);
+		var first = roomRepository.submitScore(ROOM_CODE, userId, "dup-request", roundInfo.gameType(), 10);
+		var second = roomRepository.submitScore(ROOM_CODE, userId, "dup-request", roundInfo.gameType(), 10);
+
+		assertEquals(SubmitStatus.ACCEPTED, first.status());
+		assertEquals(SubmitStatus.DUPLICATE, second.status());
+		assertEquals(SubmitStatus.NOT_PLAYER,
+			roomRepository.submitScore(ROOM_CODE, "stranger", "other", roundInfo.gameType(), 10).status());
+	}
+}
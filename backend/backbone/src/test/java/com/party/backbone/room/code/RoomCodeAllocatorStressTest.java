@@ -0,0 +1,112 @@
+package com.party.backbone.room.code;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.RedisTestSupport;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class RoomCodeAllocatorStressTest {
+	private static final int SPACE_SIZE = 20_000;
+	private static final String NAMESPACE = "test:roomCodeStress";
+
+	private RedisTestSupport support;
+	private RoomCodeAllocator allocator;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		clearPool();
+		allocator = new RoomCodeAllocator(support.redisTemplate(), SPACE_SIZE, NAMESPACE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		clearPool();
+		support.close();
+	}
+
+	@Test
+	void allocateUntilNinetyPercentOccupied() {
+		int target = SPACE_SIZE * 9 / 10;
+		Set<String> allocated = new HashSet<>();
+		// 최초 호출은 pool 초기화를 포함하므로 측정에서 뺀다
+		allocated.add(allocator.allocate());
+		long initialFreeCount = allocator.getFreeCount();
+
+		long maxNanos = 0;
+		long lastTenPercentNanos = 0;
+		long start = System.nanoTime();
+		while (allocated.size() < target) {
+			long begin = System.nanoTime();
+			String code = allocator.allocate();
+			long elapsed = System.nanoTime() - begin;
+			maxNanos = Math.max(maxNanos, elapsed);
+			if (allocated.size() >= target - SPACE_SIZE / 10) {
+				lastTenPercentNanos += elapsed;
+			}
+			assertTrue(allocated.add(code), "duplicated room code " + code);
+		}
+		long totalMs = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println(String.format(
+			"[Test] %d/%d codes allocated in %dms, avg(last 10%%) = %dus, max = %dus", target, SPACE_SIZE, totalMs,
+			lastTenPercentNanos / (SPACE_SIZE / 10) / 1_000, maxNanos / 1_000));
+		assertEquals(initialFreeCount - (target - 1), allocator.getFreeCount());
+	}
+
+	@Test
+	void releasedCodeReturnsOnlyOnce() {
+		List<String> codes = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			codes.add(allocator.allocate());
+		}
+		long freeCount = allocator.getFreeCount();
+
+		assertTrue(allocator.release(codes.get(0)));
+		assertFalse(allocator.release(codes.get(0)));
+		assertFalse(allocator.release("not-allocated"));
+		assertEquals(freeCount + 1, allocator.getFreeCount());
+	}
+
+	@Test
+	void exhaustedPoolFailsFast() {
+		allocator.allocate();
+		while (allocator.getFreeCount() > 0) {
+			allocator.allocate();
+		}
+		assertThrows(IllegalStateException.class, () -> allocator.allocate());
+	}
+
+	@Test
+	void allocateWaitsWhileAnotherInstanceInitializesPool() throws Exception {
+		// 다른 인스턴스가 pool 을 만드는 중인 상태
+		String initLockKey = "{" + NAMESPACE + "}:initLock";
+		support.redisTemplate().opsForValue().set(initLockKey, "1");
+
+		CompletableFuture<String> allocation = CompletableFuture.supplyAsync(allocator::allocate);
+		Thread.sleep(300);
+		assertFalse(allocation.isDone(), "allocate should wait instead of failing while the pool is initialized");
+
+		// lock 이 풀리면 기다리던 쪽이 이어서 pool 을 만들고 코드를 받는다
+		support.redisTemplate().delete(initLockKey);
+		assertNotNull(allocation.get(30, TimeUnit.SECONDS));
+	}
+
+	private void clearPool() {
+		String prefix = "{" + NAMESPACE + "}";
+		support.redisTemplate().delete(List.of(prefix + ":pool", prefix + ":allocated", prefix + ":initialized",
+			prefix + ":initLock"));
+	}
+}
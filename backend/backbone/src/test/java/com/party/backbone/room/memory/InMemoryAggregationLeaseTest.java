@@ -0,0 +1,18 @@
+package com.party.backbone.room.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.room.AggregationLeaseContractTest;
+import com.party.backbone.room.RoomRedisRepository;
+
+class InMemoryAggregationLeaseTest extends AggregationLeaseContractTest {
+	@Override
+	protected RoomRedisRepository openRepository() {
+		// snapshot 과 방 코드 발급을 쓰지 않는 경로만 검증하므로 Redis 없이 만든다
+		return new InMemoryRoomRepository(null, null, new ObjectMapper(), aggregationShards, "blocking");
+	}
+
+	// 테스트마다 새 저장소를 만들므로 지울 것이 없다
+	@Override
+	protected void clearRoom() {
+	}
+}
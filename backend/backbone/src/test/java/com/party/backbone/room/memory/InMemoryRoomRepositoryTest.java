@@ -0,0 +1,134 @@
+package com.party.backbone.room.memory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.model.SubmitStatus;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.websocket.dispatch.repository.IdempotencyRedisRepository;
+import com.party.backbone.websocket.message.server.CheckEndedAckMessage;
+import com.party.backbone.websocket.model.GameType;
+
+class InMemoryRoomRepositoryTest {
+	private static final String ROOM_CODE = "123456";
+
+	private InMemoryRoomRepository roomRepository;
+
+	@BeforeEach
+	void setUp() {
+		// snapshot 과 방 코드 발급을 쓰지 않는 경로만 검증하므로 Redis 없이 만든다
+		roomRepository = new InMemoryRoomRepository(null, null, new ObjectMapper(), new AggregationShards(16),
+			"blocking");
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		roomRepository.initializeRoom(ROOM_CODE, List.of(GameType.Clicker, GameType.Dice), 2);
+		roomRepository.addPlayer(ROOM_CODE, "user-a", "A");
+		roomRepository.addPlayer(ROOM_CODE, "user-b", "B");
+		roomRepository.addPlayer(ROOM_CODE, "user-c", "C");
+	}
+
+	@Test
+	void submitFollowsScriptValidationOrder() {
+		assertEquals(SubmitStatus.NOT_PLAYING,
+			roomRepository.submitScore(ROOM_CODE, "user-a", "req-0", GameType.Clicker, 10).status());
+		roomRepository.startGame(ROOM_CODE);
+
+		assertEquals(SubmitStatus.ACCEPTED,
+			roomRepository.submitScore(ROOM_CODE, "user-a", "req-1", GameType.Clicker, 10).status());
+		assertEquals(SubmitStatus.DUPLICATE,
+			roomRepository.submitScore(ROOM_CODE, "user-a", "req-1", GameType.Clicker, 10).status());
+		assertEquals(SubmitStatus.NOT_PLAYER,
+			roomRepository.submitScore(ROOM_CODE, "user-x", "req-2", GameType.Clicker, 10).status());
+		assertEquals(SubmitStatus.GAME_MISMATCH,
+			roomRepository.submitScore(ROOM_CODE, "user-b", "req-3", GameType.Dice, 10).status());
+		assertEquals(SubmitStatus.ACCEPTED,
+			roomRepository.submitScore(ROOM_CODE, "user-b", null, GameType.Clicker, 10).status());
+	}
+
+	@Test
+	void aggregateRanksRoundAndOverallScores() {
+		roomRepository.startGame(ROOM_CODE);
+		roomRepository.submitScore(ROOM_CODE, "user-a", "req-1", GameType.Clicker, 100);
+		roomRepository.submitScore(ROOM_CODE, "user-b", "req-2", GameType.Clicker, 100);
+
+		ScoreAggregationResult first = roomRepository.aggregateScores(ROOM_CODE);
+		assertEquals(2, first.roundPlayerCount());
+		assertEquals(3, first.totalPlayerCount());
+		assertEquals(Integer.valueOf(1), first.roundRankMap().get("user-a"));
+		assertEquals(Integer.valueOf(1), first.roundRankMap().get("user-b"));
+		assertEquals("0", first.rankRecordMap().get("user-c"));
+
+		roomRepository.startGame(ROOM_CODE);
+		roomRepository.submitScore(ROOM_CODE, "user-c", "req-3", GameType.Dice, 300);
+		roomRepository.submitScore(ROOM_CODE, "user-a", "req-4", GameType.Dice, 10);
+
+		ScoreAggregationResult second = roomRepository.aggregateScores(ROOM_CODE);
+		// 2라운드는 1.05 가중치
+		assertEquals(Integer.valueOf(315), second.roundScoreMap().get("user-c"));
+		assertEquals(Integer.valueOf(1), second.overallRankMap().get("user-c"));
+		assertEquals("1|2", second.rankRecordMap().get("user-a"));
+		assertEquals("1|0", second.rankRecordMap().get("user-b"));
+		assertEquals(Integer.valueOf(2), roomRepository.getOverallRank(ROOM_CODE, "user-a"));
+		assertEquals("user-c", roomRepository.getOverallTopK(ROOM_CODE, 1).get(0).userId());
+	}
+
+	@Test
+	void lastSubmitCompletesRoundAndExpeditesAggregation() {
+		roomRepository.startGame(ROOM_CODE);
+		assertFalse(roomRepository.submitScore(ROOM_CODE, "user-a", "req-1", GameType.Clicker, 10).roundCompleted());
+		assertFalse(roomRepository.submitScore(ROOM_CODE, "user-b", "req-2", GameType.Clicker, 10).roundCompleted());
+		// 같은 플레이어가 다시 제출해도 모두 제출한 것은 아니다
+		assertFalse(roomRepository.submitScore(ROOM_CODE, "user-a", "req-3", GameType.Clicker, 10).roundCompleted());
+		assertTrue(roomRepository.submitScore(ROOM_CODE, "user-c", "req-4", GameType.Clicker, 10).roundCompleted());
+
+		long now = System.currentTimeMillis();
+		assertFalse(roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000).claimed());
+		assertTrue(roomRepository.expediteAggregation(ROOM_CODE, now));
+		// 더 늦은 기한으로는 되돌리지 않는다
+		assertFalse(roomRepository.expediteAggregation(ROOM_CODE, now + 1_000));
+		assertEquals(1, roomRepository.claimAggregation(ROOM_CODE, now, now + 1_000).attempt());
+		assertFalse(roomRepository.expediteAggregation(ROOM_CODE, now));
+	}
+
+	@Test
+	void endedRoomReturnsFixedResults() {
+		roomRepository.startGame(ROOM_CODE);
+		roomRepository.submitScore(ROOM_CODE, "user-b", "req-1", GameType.Clicker, 50);
+		roomRepository.aggregateScores(ROOM_CODE);
+		roomRepository.endGame(ROOM_CODE);
+
+		CheckEndedAckMessage ack = roomRepository.checkEnded(ROOM_CODE, "user-b");
+		assertTrue(ack.getIsEnded());
+		assertEquals(50, ack.getTotalScore());
+		assertEquals(Integer.valueOf(1), ack.getOverallRank());
+		assertEquals(3, ack.getTotalPlayerCount());
+		assertEquals(Integer.valueOf(2), roomRepository.checkEnded(ROOM_CODE, "user-a").getOverallRank());
+	}
+
+	@Test
+	void snapshotRestoresRoomState() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		InMemoryRoom original = new InMemoryRoom(ROOM_CODE, "admin", 0);
+		original.addPlayer("user-a", "A");
+		original.totalScores[0] = 70;
+		long now = System.currentTimeMillis();
+		original.addRequestId("req-old", now - IdempotencyRedisRepository.IDEMPOTENCY_TTL.toMillis());
+		original.addRequestId("req-1", now);
+		String json = objectMapper.writeValueAsString(original.toSnapshot());
+		RoomSnapshot snapshot = objectMapper.readValue(json, RoomSnapshot.class);
+		// TTL 이 지난 requestId 는 snapshot 에 남기지 않는다
+		assertEquals(List.of("req-1"), List.copyOf(snapshot.requestIds().keySet()));
+		InMemoryRoom restored = InMemoryRoom.fromSnapshot(snapshot);
+
+		assertEquals(0, restored.indexOf("user-a"));
+		assertEquals(70, restored.totalScores[0]);
+		assertTrue(restored.hasRequestId("req-1", now));
+		assertFalse(restored.dirty);
+		assertTrue(restored.addPlayer("user-b", "B"));
+	}
+}
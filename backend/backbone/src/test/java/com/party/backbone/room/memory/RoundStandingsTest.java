@@ -0,0 +1,111 @@
+package com.party.backbone.room.memory;
+
+import static com.party.backbone.room.util.RankingUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.backbone.room.dto.ScoreAggregationResult;
+import com.party.backbone.room.shard.AggregationShards;
+import com.party.backbone.websocket.model.GameType;
+
+// 제출마다 갱신해 둔 순위가 라운드가 끝난 뒤 점수 맵을 정렬해 매긴 순위(이전 방식)와 같은지 보고, 걸리는 시간을 비교한다
+class RoundStandingsTest {
+	private static final String ROOM_CODE = "123456";
+	private static final int ITERATIONS = 50;
+
+	@Test
+	void incrementalStandingsMatchRanksSortedAtRoundEnd() {
+		for (int playerCount : List.of(1, 1_000)) {
+			InMemoryRoomRepository roomRepository = prepareRoom(playerCount);
+			ScoreAggregationResult result = roomRepository.aggregateScores(ROOM_CODE);
+			assertEquals(playerCount, result.roundPlayerCount());
+
+			Map<String, Integer> roundScoreMap = new HashMap<>(result.roundScoreMap());
+			assertEquals(calculateRanks(getSortedScoreEntries(roundScoreMap)), result.roundRankMap());
+			List<Map.Entry<String, Integer>> sorted = result.sortedRoundScores();
+			for (int i = 1; i < sorted.size(); i++) {
+				assertTrue(sorted.get(i - 1).getValue() >= sorted.get(i).getValue());
+			}
+			// 정렬된 목록의 양 끝이 1등과 꼴등이다
+			Map<String, Integer> ranks = result.roundRankMap();
+			assertEquals(1, ranks.get(sorted.get(0).getKey()));
+			assertEquals(Collections.max(ranks.values()), ranks.get(sorted.get(sorted.size() - 1).getKey()));
+
+			// 재시도와 같은 경로라 라운드 점수는 그대로 남고 같은 순서가 나온다
+			assertEquals(sorted, roomRepository.aggregateScores(ROOM_CODE).sortedRoundScores());
+		}
+	}
+
+	// 라운드가 끝난 뒤 순위를 내기까지 걸리는 시간을, 제출마다 갱신해 둔 순위를 읽는 경우와
+	// 끝난 뒤 점수 맵을 정렬하는 경우(이전 방식)로 비교한다. 다른 벤치마크처럼 REDIS_HOST 가 있을 때만 돈다
+	@Test
+	@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+	void roundEndLatencyBenchmark() {
+		for (int playerCount : List.of(1_000, 5_000)) {
+			InMemoryRoomRepository roomRepository = prepareRoom(playerCount);
+			ScoreAggregationResult result = roomRepository.aggregateScores(ROOM_CODE);
+			Map<String, Integer> roundScoreMap = new HashMap<>(result.roundScoreMap());
+
+			long incremental = measure(() -> {
+				// 재시도와 같은 경로라 라운드 점수는 그대로 남는다
+				ScoreAggregationResult aggregation = roomRepository.aggregateScores(ROOM_CODE);
+				List<Map.Entry<String, Integer>> standings = aggregation.sortedRoundScores();
+				return standings.get(0).getKey().length() + standings.get(standings.size() - 1).getKey().length();
+			});
+			long sortAtEnd = measure(() -> {
+				var entries = getSortedScoreEntries(roundScoreMap);
+				Map<String, Integer> ranks = calculateRanks(entries);
+				buildTopK(entries, ranks, Map.of(), 3);
+				// 이전 방식은 순위 맵을 한 번 더 훑어 1등과 꼴등을 찾았다
+				String first = Collections.min(ranks.entrySet(), Map.Entry.comparingByValue()).getKey();
+				String last = Collections.max(ranks.entrySet(), Map.Entry.comparingByValue()).getKey();
+				return first.length() + last.length();
+			});
+			System.out.println("[Test] " + playerCount + " players round end: incremental standings + aggregation="
+				+ incremental + "us, sort at end only=" + sortAtEnd + "us");
+		}
+	}
+
+	private InMemoryRoomRepository prepareRoom(int playerCount) {
+		InMemoryRoomRepository roomRepository = new InMemoryRoomRepository(null, null, new ObjectMapper(),
+			new AggregationShards(16), "blocking");
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		roomRepository.initializeRoom(ROOM_CODE, List.of(GameType.Clicker, GameType.Dice), 2);
+		for (int i = 0; i < playerCount; i++) {
+			roomRepository.addPlayer(ROOM_CODE, "user-" + i, "nick-" + i);
+		}
+		roomRepository.startGame(ROOM_CODE);
+		Random random = new Random(42);
+		// 한 플레이어가 여러 번 제출해도 순서가 유지되는지 보려고 제출 수를 플레이어 수보다 많게 한다
+		for (int i = 0; i < playerCount * 2; i++) {
+			int player = i < playerCount ? i : random.nextInt(playerCount);
+			roomRepository.submitScore(ROOM_CODE, "user-" + player, "req-" + i, GameType.Clicker,
+				random.nextInt(1_000));
+		}
+		return roomRepository;
+	}
+
+	// return 한 번 실행에 걸린 평균 시간(us)
+	private long measure(IntSupplier task) {
+		int sink = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += task.getAsInt();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += task.getAsInt();
+		}
+		assertTrue(sink > 0);
+		return (System.nanoTime() - start) / ITERATIONS / 1_000;
+	}
+}
@@ -0,0 +1,217 @@
+package com.party.backbone.room.shard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.party.backbone.config.AsyncConfig;
+import com.party.backbone.room.RedisTestSupport;
+import com.party.backbone.room.RoomRedisRepositoryImpl;
+import com.party.backbone.room.RoundAggregationScheduler;
+import com.party.backbone.room.RoundAggregationService;
+import com.party.backbone.websocket.model.GameType;
+
+// 한 Redis 를 같이 쓰는 인스턴스 여러 개를 한 프로세스 안에 띄워 shard 가 나뉘고 다시 모이는지 본다
+class AggregationShardOwnershipTest {
+	private static final int SHARD_COUNT = 16;
+	private static final int ROOM_COUNT = 150;
+	private static final int PLAYER_COUNT = 50;
+	private static final int FIRST_ROOM_CODE = 999400;
+	// 인스턴스 하나가 동시에 집계하는 방 수
+	private static final int THREADS_PER_INSTANCE = 2;
+
+	private final AggregationShards aggregationShards = new AggregationShards(SHARD_COUNT);
+
+	@Test
+	void rendezvousMovesOnlyShardsOfLeavingInstance() {
+		List<String> instances = List.of("instance-a", "instance-b", "instance-c", "instance-d");
+		List<String> remaining = List.of("instance-a", "instance-b", "instance-d");
+		for (int shard = 0; shard < 1_000; shard++) {
+			String owner = AggregationShardOwnership.ownerOf(instances, shard);
+			if (!owner.equals("instance-c")) {
+				assertEquals(owner, AggregationShardOwnership.ownerOf(remaining, shard));
+			}
+		}
+	}
+
+	@Test
+	@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+	void shardsAreSplitAcrossLiveInstancesAndRebalanced() {
+		RedisTestSupport support = new RedisTestSupport();
+		clearOwnership(support);
+		AggregationShardOwnership first = newInstance(support);
+		AggregationShardOwnership second = newInstance(support);
+		AggregationShardOwnership third = newInstance(support);
+		try {
+			first.heartbeat();
+			assertEquals(SHARD_COUNT, first.getOwnedShards().size());
+
+			// 새 인스턴스는 이전 주인이 놓은 뒤 다음 heartbeat 에 가져간다
+			settle(List.of(first, second, third));
+			assertPartitioned(List.of(first, second, third));
+			assertFalse(second.getOwnedShards().isEmpty());
+			assertFalse(third.getOwnedShards().isEmpty());
+
+			// 정상 종료한 인스턴스의 shard 는 lease 만료를 기다리지 않고 남은 인스턴스가 가져간다
+			third.stop();
+			settle(List.of(first, second));
+			assertPartitioned(List.of(first, second));
+		} finally {
+			first.stop();
+			second.stop();
+			third.stop();
+			support.close();
+		}
+	}
+
+	@Test
+	@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+	void aggregationThroughputScalesWithInstances() throws InterruptedException {
+		RedisTestSupport support = new RedisTestSupport();
+		RoomRedisRepositoryImpl roomRepository = support.roomRepository();
+		try {
+			long single = run(support, roomRepository, 1);
+			long triple = run(support, roomRepository, 3);
+			System.out.println("[Test] " + ROOM_COUNT + " due rooms, " + THREADS_PER_INSTANCE
+				+ " threads per instance: 1 instance=" + single + "ms, 3 instances=" + triple + "ms");
+		} finally {
+			for (int i = 0; i < ROOM_COUNT; i++) {
+				String roomCode = String.valueOf(FIRST_ROOM_CODE + i);
+				roomRepository.deleteRoom(roomCode);
+				support.redisTemplate().opsForZSet().remove(aggregationShards.getPendingKey(roomCode), roomCode);
+			}
+			support.close();
+		}
+	}
+
+	// return 모든 인스턴스의 fallback polling 으로 모든 방이 집계되기까지 걸린 시간(ms)
+	private long run(RedisTestSupport support, RoomRedisRepositoryImpl roomRepository, int instanceCount)
+		throws InterruptedException {
+		clearOwnership(support);
+		prepareRooms(support, roomRepository);
+		CountDownLatch done = new CountDownLatch(ROOM_COUNT);
+		Map<String, AtomicInteger> aggregatedCounts = new ConcurrentHashMap<>();
+		List<AggregationShardOwnership> instances = new ArrayList<>();
+		List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+		List<RoundAggregationScheduler> schedulers = new ArrayList<>();
+		try {
+			for (int i = 0; i < instanceCount; i++) {
+				AggregationShardOwnership ownership = newInstance(support);
+				ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor)new AsyncConfig().roundAggregationExecutor(
+					THREADS_PER_INSTANCE);
+				// 메시지 전송과 presigned URL 발급은 빼고 Redis 집계만 돈다
+				RoundAggregationService service = new RoundAggregationService(roomRepository, null, null, null, null) {
+					@Override
+					public void aggregateRound(String roomCode, int round) {
+						roomRepository.flushBufferedScores(roomCode);
+						assertEquals(PLAYER_COUNT, roomRepository.aggregateScores(roomCode).roundPlayerCount());
+						roomRepository.getOverallTopK(roomCode, 3);
+						aggregatedCounts.computeIfAbsent(roomCode, code -> new AtomicInteger()).incrementAndGet();
+						done.countDown();
+					}
+				};
+				instances.add(ownership);
+				executors.add(executor);
+				schedulers.add(support.roundAggregationScheduler(roomRepository, service, ownership, executor));
+			}
+			settle(instances);
+			assertPartitioned(instances);
+
+			long start = System.nanoTime();
+			schedulers.forEach(RoundAggregationScheduler::aggregateDueRounds);
+			assertTrue(done.await(60, TimeUnit.SECONDS));
+			long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+			assertEquals(ROOM_COUNT, aggregatedCounts.size());
+			aggregatedCounts.values().forEach(count -> assertEquals(1, count.get()));
+			return elapsed;
+		} finally {
+			instances.forEach(AggregationShardOwnership::stop);
+			executors.forEach(ThreadPoolTaskExecutor::shutdown);
+		}
+	}
+
+	private void prepareRooms(RedisTestSupport support, RoomRedisRepositoryImpl roomRepository) {
+		long endedAt = System.currentTimeMillis() - 60_000;
+		for (int i = 0; i < ROOM_COUNT; i++) {
+			String roomCode = String.valueOf(FIRST_ROOM_CODE + i);
+			roomRepository.deleteRoom(roomCode);
+			roomRepository.createRoom(roomCode, "admin");
+			roomRepository.initializeRoom(roomCode, List.of(GameType.Clicker), 1);
+			for (int j = 0; j < PLAYER_COUNT; j++) {
+				roomRepository.addPlayer(roomCode, "user-" + j, "nick-" + j);
+			}
+			roomRepository.startGame(roomCode);
+			for (int j = 0; j < PLAYER_COUNT; j++) {
+				roomRepository.submitScore(roomCode, "user-" + j, "req-" + endedAt + "-" + roomCode + "-" + j,
+					GameType.Clicker, j % 10);
+			}
+			support.redisTemplate().opsForZSet().add(aggregationShards.getPendingKey(roomCode), roomCode, endedAt + i);
+		}
+	}
+
+	private AggregationShardOwnership newInstance(RedisTestSupport support) {
+		return new AggregationShardOwnership(support.redisTemplate(), aggregationShards, 6_000);
+	}
+
+	@Test
+	@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+	void legacyPendingRoomsMoveToTheirShard() {
+		RedisTestSupport support = new RedisTestSupport();
+		var zSet = support.redisTemplate().opsForZSet();
+		List<String> roomCodes = List.of("999501", "999502");
+		try {
+			roomCodes.forEach(roomCode -> zSet.add(LegacyPendingMigration.LEGACY_PENDING_KEY, roomCode, 1_000));
+			// shard 에 이미 있는 방은 그쪽 집계 시각을 유지한다
+			zSet.add(aggregationShards.getPendingKey("999502"), "999502", 2_000);
+
+			int moved = new LegacyPendingMigration(support.redisTemplate(), aggregationShards).migrate();
+
+			assertEquals(2, moved);
+			assertEquals(1_000.0, zSet.score(aggregationShards.getPendingKey("999501"), "999501"));
+			assertEquals(2_000.0, zSet.score(aggregationShards.getPendingKey("999502"), "999502"));
+			assertEquals(0L, zSet.zCard(LegacyPendingMigration.LEGACY_PENDING_KEY));
+		} finally {
+			support.redisTemplate().delete(LegacyPendingMigration.LEGACY_PENDING_KEY);
+			roomCodes.forEach(roomCode -> zSet.remove(aggregationShards.getPendingKey(roomCode), roomCode));
+			support.close();
+		}
+	}
+
+	private void clearOwnership(RedisTestSupport support) {
+		support.redisTemplate().delete(AggregationShardOwnership.INSTANCES_KEY);
+		for (int shard = 0; shard < SHARD_COUNT; shard++) {
+			support.redisTemplate().delete(AggregationShardOwnership.LEASE_KEY_PREFIX + shard);
+		}
+	}
+
+	// 먼저 모두가 목록에 오르고, 몫이 아닌 shard 를 놓고, 놓인 shard 를 가져가기까지 세 번이면 충분하다
+	private void settle(List<AggregationShardOwnership> instances) {
+		for (int round = 0; round < 3; round++) {
+			instances.forEach(AggregationShardOwnership::heartbeat);
+		}
+	}
+
+	private void assertPartitioned(List<AggregationShardOwnership> instances) {
+		Set<Integer> union = new HashSet<>();
+		int total = 0;
+		for (AggregationShardOwnership instance : instances) {
+			union.addAll(instance.getOwnedShards());
+			total += instance.getOwnedShards().size();
+		}
+		assertEquals(SHARD_COUNT, union.size());
+		assertEquals(SHARD_COUNT, total);
+	}
+}
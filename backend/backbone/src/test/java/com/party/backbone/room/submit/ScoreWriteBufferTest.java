@@ -0,0 +1,72 @@
+package com.party.backbone.room.submit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import com.party.backbone.room.dto.ScoreIncrement;
+
+class ScoreWriteBufferTest {
+	private final ScoreWriteBuffer buffer = new ScoreWriteBuffer("write-behind", 50);
+
+	@Test
+	void testAdd_coalescesPerRoundAndUser() {
+		buffer.add("123456", 1, "A", 10, 10);
+		buffer.add("123456", 1, "A", 5, 5);
+		buffer.add("123456", 2, "A", 7, 7);
+		buffer.add("123456", 1, "B", 3, 3);
+
+		List<ScoreIncrement> drained = buffer.drain("123456");
+
+		assertEquals(3, drained.size());
+		assertTrue(drained.contains(new ScoreIncrement("A", 1, 15, 15)));
+		assertTrue(drained.contains(new ScoreIncrement("A", 2, 7, 7)));
+		assertTrue(buffer.drain("123456").isEmpty());
+	}
+
+	@Test
+	void testRestore_keepsIncrementsForNextFlush() {
+		buffer.add("123456", 1, "A", 10, 10);
+		List<ScoreIncrement> failed = buffer.drain("123456");
+		buffer.add("123456", 1, "A", 1, 1);
+
+		buffer.restore("123456", failed);
+
+		assertEquals(List.of(new ScoreIncrement("A", 1, 11, 11)), buffer.drain("123456"));
+	}
+
+	@Test
+	void testConcurrentAddAndDrain_losesNothing() throws Exception {
+		int threads = 8;
+		int submitsPerThread = 100_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch done = new CountDownLatch(threads);
+		long[] flushed = new long[1];
+
+		long start = System.currentTimeMillis();
+		for (int t = 0; t < threads; t++) {
+			String userId = "user-" + t;
+			executor.execute(() -> {
+				for (int i = 0; i < submitsPerThread; i++) {
+					buffer.add("123456", 1, userId, 1, 1);
+				}
+				done.countDown();
+			});
+		}
+		while (done.getCount() > 0) {
+			buffer.drain("123456").forEach(increment -> flushed[0] += increment.roundScore());
+		}
+		buffer.drain("123456").forEach(increment -> flushed[0] += increment.roundScore());
+		long end = System.currentTimeMillis();
+		executor.shutdown();
+
+		assertEquals((long)threads * submitsPerThread, flushed[0]);
+		System.out.println("[Test] write-behind buffer " + (threads * submitsPerThread) + "건 누적 = "
+			+ (end - start) + "ms");
+	}
+}
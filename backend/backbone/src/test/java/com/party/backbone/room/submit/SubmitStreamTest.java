@@ -0,0 +1,101 @@
+package com.party.backbone.room.submit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.party.backbone.room.RedisTestSupport;
+import com.party.backbone.room.RoomRedisRepositoryImpl;
+import com.party.backbone.room.RoundAggregationTimer;
+import com.party.backbone.room.store.PerPlayerHashStore;
+import com.party.backbone.room.util.RoomKeyUtils;
+import com.party.backbone.websocket.model.GameType;
+
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class SubmitStreamTest {
+	private static final int PLAYER_COUNT = 1_000;
+	private static final int SUBMITS_PER_PLAYER = 3;
+	private static final String ROOM_CODE = "999011";
+
+	private RedisTestSupport support;
+	private RoomRedisRepositoryImpl roomRepository;
+	private SubmitStream submitStream;
+	private SubmitStreamWorker worker;
+	private RoundAggregationTimer aggregationTimer;
+
+	@BeforeEach
+	void setUp() {
+		support = new RedisTestSupport();
+		roomRepository = support.roomRepository();
+		roomRepository.deleteRoom(ROOM_CODE);
+		roomRepository.createRoom(ROOM_CODE, "admin");
+		roomRepository.initializeRoom(ROOM_CODE, List.of(GameType.Clicker), 1);
+		for (int i = 0; i < PLAYER_COUNT; i++) {
+			roomRepository.addPlayer(ROOM_CODE, "user-" + i, "nick-" + i);
+		}
+		roomRepository.startGame(ROOM_CODE);
+
+		submitStream = new SubmitStream(support.redisTemplate(), "stream", 2);
+		// 집계는 이 테스트 범위 밖이라 모두 제출해도 앞당기지 않는다
+		aggregationTimer = new RoundAggregationTimer(null, roomRepository, new ScoreWriteBuffer("direct", 50), 1, -1);
+		worker = new SubmitStreamWorker(support.redisTemplate(), submitStream,
+			new PerPlayerHashStore(support.redisTemplate()), aggregationTimer, 2, 500);
+		worker.start();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		worker.stop();
+		aggregationTimer.stop();
+		roomRepository.deleteRoom(ROOM_CODE);
+		List<String> keys = new ArrayList<>(support.redisTemplate().keys("idempotency:{" + ROOM_CODE + "}:*"));
+		keys.add(submitStream.getStreamKey(0));
+		keys.add(submitStream.getStreamKey(1));
+		support.redisTemplate().delete(keys);
+		support.close();
+	}
+
+	@Test
+	void workersApplyEverySubmitBeforeDrained() throws InterruptedException {
+		for (int round = 0; round < SUBMITS_PER_PLAYER; round++) {
+			for (int i = 0; i < PLAYER_COUNT; i++) {
+				submitStream.append(ROOM_CODE, "user-" + i, "req-" + round + "-" + i, 1, GameType.Clicker, 10);
+			}
+		}
+		// 재전송된 제출은 worker 가 중복으로 거른다
+		submitStream.append(ROOM_CODE, "user-0", "req-0-0", 1, GameType.Clicker, 10);
+		long appendedAt = System.currentTimeMillis();
+
+		while (!submitStream.isDrained(ROOM_CODE, appendedAt)) {
+			assertTrue(System.currentTimeMillis() - appendedAt < 10_000, "stream was not drained in time");
+			Thread.sleep(10);
+		}
+
+		Long players = support.redisTemplate().opsForZSet()
+			.count(RoomKeyUtils.getLeaderboardKey(ROOM_CODE), 10.0 * SUBMITS_PER_PLAYER, 10.0 * SUBMITS_PER_PLAYER);
+		assertEquals(PLAYER_COUNT, players);
+	}
+
+	@Test
+	void submitsAppendedForAnotherRoundAreDropped() throws InterruptedException {
+		submitStream.append(ROOM_CODE, "user-0", "req-stale", 2, GameType.Clicker, 10);
+		long appendedAt = System.currentTimeMillis();
+
+		while (!submitStream.isDrained(ROOM_CODE, appendedAt)) {
+			assertTrue(System.currentTimeMillis() - appendedAt < 10_000, "stream was not drained in time");
+			Thread.sleep(10);
+		}
+
+		// addPlayer 가 리더보드에 0점으로 넣어 두므로 점수가 그대로인지, 라운드 점수가 쓰이지 않았는지 본다
+		var scores = support.redisTemplate().opsForZSet();
+		assertEquals(0.0, scores.score(RoomKeyUtils.getLeaderboardKey(ROOM_CODE), "user-0"));
+		assertNull(scores.score(RoomKeyUtils.getRoundScoreKey(ROOM_CODE, 1), "user-0"));
+		assertNull(scores.score(RoomKeyUtils.getRoundScoreKey(ROOM_CODE, 2), "user-0"));
+	}
+}
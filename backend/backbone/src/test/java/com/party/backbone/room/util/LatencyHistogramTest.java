@@ -0,0 +1,35 @@
+package com.party.backbone.room.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+	@Test
+	void testPercentile_returnsBucketUpperBound() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 90; i++) {
+			histogram.record(8);
+		}
+		for (int i = 0; i < 9; i++) {
+			histogram.record(40);
+		}
+		histogram.record(7_000);
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(10, histogram.percentile(50));
+		assertEquals(10, histogram.percentile(90));
+		assertEquals(50, histogram.percentile(99));
+		assertEquals(7_000, histogram.percentile(100));
+	}
+
+	@Test
+	void testRecord_clampsNegativeDelay() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+
+		assertEquals(10, histogram.percentile(50));
+		assertTrue(histogram.summary().contains("max=0ms"));
+	}
+}
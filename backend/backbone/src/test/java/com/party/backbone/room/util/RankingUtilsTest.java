@@ -56,16 +56,4 @@ class RankingUtilsTest {
 
 		assertEquals("A", allRanking.get(2).userId());
 	}
-
-	@Test
-	void testGetFirstByRank_returnsLowestRankedUser() {
-		Map<String, Integer> ranks = Map.of("A", 2, "B", 1, "C", 3);
-		assertEquals("B", getFirstByRank(ranks));
-	}
-
-	@Test
-	void testGetLastByRank_returnsHighestRankedUser() {
-		Map<String, Integer> ranks = Map.of("A", 2, "B", 1, "C", 3);
-		assertEquals("C", getLastByRank(ranks));
-	}
 }
@@ -0,0 +1,26 @@
+package com.party.backbone.room.util;
+
+import static com.party.backbone.room.util.RoomKeyUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class RoomKeyUtilsTest {
+
+	@Test
+	void testRoomKeys_shareHashTag() {
+		String hashTag = "{123456}";
+
+		assertTrue(getRoomKey("123456").contains(hashTag));
+		assertTrue(getPlayerKey("123456", "user").contains(hashTag));
+		assertTrue(getRoundScoreKey("123456", 3).contains(hashTag));
+		assertTrue(getIdempotencyKey("123456", "request").contains(hashTag));
+	}
+
+	@Test
+	void testParseRoomCode_onlyForRoomHash() {
+		assertEquals("123456", parseRoomCode(getRoomKey("123456")));
+		assertNull(parseRoomCode(getPlayerIdsKey("123456")));
+		assertNull(parseRoomCode("idempotency:{123456}:request"));
+	}
+}
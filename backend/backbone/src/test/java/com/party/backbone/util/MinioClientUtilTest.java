@@ -0,0 +1,169 @@
+package com.party.backbone.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+
+// bucket 준비가 늦거나 실패해도 한 라운드에서 URL 발급이 기다리는 건 처음 한 번뿐인지 본다
+class MinioClientUtilTest {
+	private static final String ROOM_CODE = "123456";
+	private static final long PREPARE_WAIT_MS = 200;
+	// 기다리지 않은 발급이 걸리는 시간의 상한. 서명은 가짜라 실제로는 1ms 도 걸리지 않는다
+	private static final long NO_WAIT_MS = 100;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	// 인스턴스들이 함께 보는 Redis 표시 대신
+	private final InMemoryBucketReadiness bucketReadiness = new InMemoryBucketReadiness();
+	private SlowMinioClient minioClient;
+	private MinioClientUtil minioClientUtil;
+
+	@BeforeEach
+	void setUp() {
+		minioClient = new SlowMinioClient();
+		minioClientUtil = newInstance(minioClient);
+	}
+
+	@AfterEach
+	void tearDown() {
+		minioClient.release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void lateBucketIsWaitedForOncePerRound() throws Exception {
+		minioClientUtil.prepareBucket(ROOM_CODE);
+
+		assertTrue(elapsedMillis(() -> minioClientUtil.newPutPresignedUrl(ROOM_CODE, 1, "user-0")) >= PREPARE_WAIT_MS);
+		for (int i = 1; i < 10; i++) {
+			String userId = "user-" + i;
+			assertTrue(elapsedMillis(() -> minioClientUtil.newPutPresignedUrl(ROOM_CODE, 1, userId)) < NO_WAIT_MS);
+		}
+
+		// 다음 라운드가 시작되면 다시 한 번 기다린다
+		minioClientUtil.prepareBucket(ROOM_CODE);
+		assertTrue(elapsedMillis(() -> minioClientUtil.newPutPresignedUrl(ROOM_CODE, 2, "user-0")) >= PREPARE_WAIT_MS);
+
+		minioClient.release.countDown();
+		minioClientUtil.prepareBucket(ROOM_CODE).join();
+		assertTrue(elapsedMillis(() -> minioClientUtil.newPutPresignedUrl(ROOM_CODE, 2, "user-1")) < NO_WAIT_MS);
+		assertEquals(1, minioClient.bucketChecks.get());
+	}
+
+	@Test
+	void failedPreparationIsRetriedWithoutWaiting() throws Exception {
+		minioClient.failuresLeft.set(1);
+		assertThrows(Exception.class, () -> minioClientUtil.prepareBucket(ROOM_CODE).join());
+
+		// 처음 발급은 다시 건 준비를 기다리다 넘기고, 같은 라운드의 나머지는 기다리지 않는다
+		assertTrue(elapsedMillis(() -> minioClientUtil.newGetPresignedUrl(ROOM_CODE, 1, "user-0")) >= PREPARE_WAIT_MS);
+		assertTrue(elapsedMillis(() -> minioClientUtil.newGetPresignedUrl(ROOM_CODE, 1, "user-1")) < NO_WAIT_MS);
+
+		minioClient.release.countDown();
+		minioClientUtil.prepareBucket(ROOM_CODE).join();
+		// 실패한 첫 확인 뒤에 다시 건 확인이 성공했다
+		assertEquals(1, minioClient.bucketChecks.get());
+	}
+
+	@Test
+	void bucketPreparedByAnotherInstanceIsNotCheckedAgain() throws Exception {
+		minioClient.release.countDown();
+		minioClientUtil.prepareBucket(ROOM_CODE).join();
+
+		// START_GAME 을 받지 않은 인스턴스가 집계해도 MinIO 를 확인하거나 기다리지 않는다
+		SlowMinioClient otherClient = new SlowMinioClient();
+		MinioClientUtil otherInstance = newInstance(otherClient);
+		assertTrue(elapsedMillis(() -> otherInstance.newPutPresignedUrl(ROOM_CODE, 1, "user-0")) < NO_WAIT_MS);
+		assertTrue(elapsedMillis(() -> otherInstance.newGetPresignedUrl(ROOM_CODE, 1, "user-0")) < NO_WAIT_MS);
+		assertEquals(0, otherClient.bucketCalls.get());
+		otherClient.release.countDown();
+	}
+
+	private MinioClientUtil newInstance(SlowMinioClient client) {
+		MinioClientUtil instance = new MinioClientUtil(client, executor, bucketReadiness, PREPARE_WAIT_MS);
+		ReflectionTestUtils.setField(instance, "bucketBaseUrl", "http://localhost/bucket");
+		return instance;
+	}
+
+	private static long elapsedMillis(PresignedUrlCall call) throws Exception {
+		long start = System.currentTimeMillis();
+		assertTrue(call.issue().startsWith("http://localhost/bucket/"));
+		return System.currentTimeMillis() - start;
+	}
+
+	@FunctionalInterface
+	private interface PresignedUrlCall {
+		String issue() throws Exception;
+	}
+
+	// bucket 확인은 release 전까지 막히고, failuresLeft 만큼은 실패한다. 서명은 MinIO 없이 만든다
+	static class SlowMinioClient extends MinioClient {
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final AtomicInteger failuresLeft = new AtomicInteger();
+		private final AtomicInteger bucketChecks = new AtomicInteger();
+		private final AtomicInteger bucketCalls = new AtomicInteger();
+
+		SlowMinioClient() {
+			super(MinioClient.builder().endpoint("http://minio-bucket:9000").credentials("access", "secret").build());
+		}
+
+		@Override
+		public boolean bucketExists(BucketExistsArgs args) throws IOException {
+			bucketCalls.incrementAndGet();
+			if (failuresLeft.getAndDecrement() > 0) {
+				throw new IOException("minio unavailable");
+			}
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+			bucketChecks.incrementAndGet();
+			return true;
+		}
+
+		@Override
+		public void makeBucket(MakeBucketArgs args) {
+		}
+
+		@Override
+		public String getPresignedObjectUrl(GetPresignedObjectUrlArgs args) {
+			return "http://minio-bucket:9000/" + args.bucket() + "/" + args.object();
+		}
+	}
+
+	static class InMemoryBucketReadiness extends BucketReadiness {
+		private final Set<String> readyRooms = ConcurrentHashMap.newKeySet();
+
+		InMemoryBucketReadiness() {
+			super(null);
+		}
+
+		@Override
+		public boolean isReady(String roomCode) {
+			return readyRooms.contains(roomCode);
+		}
+
+		@Override
+		public void markReady(String roomCode, Duration ttl) {
+			readyRooms.add(roomCode);
+		}
+	}
+}
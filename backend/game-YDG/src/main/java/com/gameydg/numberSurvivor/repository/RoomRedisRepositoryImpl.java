@@ -1,27 +1,38 @@
 package com.gameydg.numberSurvivor.repository;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Repository
-@RequiredArgsConstructor
 public class RoomRedisRepositoryImpl implements RoomRedisRepository {
-	private static final String PENDING_AGGREGATION_KEY = "pendingAggregationRooms";
+	// backbone 의 AggregationShards 와 같은 key. 방은 roomCode 로 정해지는 shard 의 zset 에 들어간다
+	private static final String PENDING_KEY_PREFIX = "pendingAggregationRooms:";
 	private final RedisTemplate<String, String> redisTemplate;
+	// backbone.aggregation.shards 와 같은 값이어야 backbone 이 같은 shard 에서 방을 찾는다
+	private final int shardCount;
+
+	public RoomRedisRepositoryImpl(RedisTemplate<String, String> redisTemplate,
+		@Value("${aggregation.shards:16}") int shardCount) {
+		this.redisTemplate = redisTemplate;
+		this.shardCount = shardCount;
+	}
 
 	@Override
 	public void setAggregationTime(String roomCode) {
 		long currentMs = System.currentTimeMillis();
 		long aggregationTime = currentMs + 7000;  // 현재 시간 + 7초
 
-		// 기존 집계 시간이 있다면 제거 후 새로 추가
-		redisTemplate.opsForZSet().remove(PENDING_AGGREGATION_KEY, roomCode);
-		redisTemplate.opsForZSet().add(PENDING_AGGREGATION_KEY, roomCode, aggregationTime);
+		// ZADD 는 기존 집계 시간이 있으면 덮어쓰므로 단일 명령으로 처리
+		redisTemplate.opsForZSet().add(getPendingKey(roomCode), roomCode, aggregationTime);
 
 		// log.info("[RoomRedis] 집계 시간 설정 [방ID: {}, 집계시간: {}]", roomCode, aggregationTime);
 	}
-} 
\ No newline at end of file
+
+	private String getPendingKey(String roomCode) {
+		return PENDING_KEY_PREFIX + "{" + Math.floorMod(roomCode.hashCode(), shardCount) + "}";
+	}
+}